@@ -25,6 +25,7 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import io.cucumber.datatable.DataTable;
+import io.cucumber.java.After;
 import io.cucumber.java.Before;
 import io.cucumber.java.Scenario;
 import io.cucumber.java.en.And;
@@ -32,20 +33,27 @@ import io.cucumber.java.en.Given;
 import io.cucumber.java.en.Then;
 import io.cucumber.java.en.When;
 import io.restassured.RestAssured;
+import io.restassured.authentication.CertAuthScheme;
 import io.restassured.config.EncoderConfig;
+import io.restassured.config.RestAssuredConfig;
 import io.restassured.http.ContentType;
 import io.restassured.http.Cookie;
+import io.restassured.http.Method;
+import io.restassured.path.json.JsonPath;
 import io.restassured.response.Response;
 import io.restassured.response.ValidatableResponse;
+import io.restassured.specification.FilterableRequestSpecification;
 import io.restassured.specification.RequestSpecification;
 import io.virtualan.cucumblan.exception.ParserError;
 import io.virtualan.cucumblan.parser.OpenAPIParser;
 import io.virtualan.cucumblan.props.ApplicationConfiguration;
 import io.virtualan.cucumblan.props.EndpointConfiguration;
-import io.virtualan.cucumblan.props.ExcludeConfiguration;
 import io.virtualan.cucumblan.props.util.*;
 import io.virtualan.cucumblan.script.ExcelAndMathHelper;
 import io.virtualan.cucumblan.standard.StandardProcessing;
+import io.virtualan.cucumblan.standard.StandardProcessingAdapter;
+import io.virtualan.cucumblan.standard.StandardProcessingCache;
+import io.virtualan.cucumblan.standard.StreamingStandardProcessing;
 import io.virtualan.mapson.Mapson;
 import io.virtualan.util.Helper;
 
@@ -58,6 +66,13 @@ import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
 ;
@@ -77,7 +92,7 @@ import org.skyscreamer.jsonassert.JSONCompareMode;
 public class BaseStepDefinition {
 
     private final static Logger LOGGER = Logger.getLogger(BaseStepDefinition.class.getName());
-    private static Map<String, StandardProcessing> stdProcessorMap = new HashMap<>();
+    private static Map<String, StreamingStandardProcessing> stdProcessorMap = new HashMap<>();
 
     static {
         try {
@@ -93,12 +108,18 @@ public class BaseStepDefinition {
 
     private Response response;
     private ValidatableResponse validatableResponse;
+    private ResponseDocument responseDocument;
     private String jsonBody;
     private RequestSpecification request = given();
     private Scenario scenario;
+    private ScenarioReport report;
     private int sequence;
     private String acceptContentType;
     private boolean skipScenario = false;
+    private final RequestFanOut fanOut = new RequestFanOut();
+    private final Map<String, ResponseDocument> namedResponses = new HashMap<>();
+    private final Map<String, RequestTimings.RequestTiming> namedTimings = new HashMap<>();
+    private RequestTimings.RequestTiming timing;
 
     /**
      * Load action processors.
@@ -112,13 +133,25 @@ public class BaseStepDefinition {
             StandardProcessing action = null;
             try {
                 action = x.newInstance();
-                stdProcessorMap.put(action.getType(), action);
+                stdProcessorMap.put(action.getType(), new StandardProcessingAdapter(action));
             } catch (InstantiationException e) {
                 LOGGER.warning("Unable to process this action (" + action.getType() + ") class: " + action);
             } catch (IllegalAccessException e) {
                 LOGGER.warning("Unable to process this action (" + action.getType() + ") class: " + action);
             }
         });
+        Set<Class<? extends StreamingStandardProcessing>> streamingClasses = reflections
+                .getSubTypesOf(StreamingStandardProcessing.class);
+        streamingClasses.stream()
+                .filter(x -> !StandardProcessingAdapter.class.equals(x))
+                .forEach(x -> {
+                    try {
+                        StreamingStandardProcessing action = x.newInstance();
+                        stdProcessorMap.put(action.getType(), action);
+                    } catch (InstantiationException | IllegalAccessException e) {
+                        LOGGER.warning("Unable to process this action class: " + x.getName());
+                    }
+                });
     }
 
     /**
@@ -176,7 +209,7 @@ public class BaseStepDefinition {
         if (!this.skipScenario) {
             request.header("Authorization", String
                     .format("%s %s", auth, Helper.getActualValueForAll(token, ScenarioContext
-                            .getContext(String.valueOf(Thread.currentThread().getId())))));
+                            .getContext())));
         }
     }
 
@@ -270,10 +303,10 @@ public class BaseStepDefinition {
     public void loadGlobalParam(Map<String, String> globalParams) throws IOException {
         if (!this.skipScenario) {
             ScenarioContext
-                    .setContext(String.valueOf(Thread.currentThread().getId()), globalParams);
-            scenario.attach(new JSONObject(ScenarioContext
-                            .getPrintableContextObject(String.valueOf(Thread.currentThread().getId()))).toString(),
-                    "application/json", "requestData :  ContextId" + String.valueOf(Thread.currentThread().getId()));
+                    .setContext(globalParams);
+            Map<String, String> context = ScenarioContext.getPrintableContextObject();
+            report.attach(() -> new JSONObject(context).toString(),
+                    "application/json", "requestData :  ContextId" + scenario.getId());
         }
     }
 
@@ -291,10 +324,10 @@ public class BaseStepDefinition {
             if (stream != null) {
                 properties.load(stream);
                 ScenarioContext
-                        .setContext(String.valueOf(Thread.currentThread().getId()), (Map) properties);
-                scenario.attach(new JSONObject(ScenarioContext
-                                .getPrintableContextObject(String.valueOf(Thread.currentThread().getId()))).toString(),
-                        "application/json", "ContextId" + String.valueOf(Thread.currentThread().getId()));
+                        .setContext((Map) properties);
+                Map<String, String> context = ScenarioContext.getPrintableContextObject();
+                report.attach(() -> new JSONObject(context).toString(),
+                        "application/json", "ContextId" + scenario.getId());
             } else {
                 LOGGER.warning(
                         "cucumblan-env.properties is not configured. Need to add if default data loaded");
@@ -309,7 +342,7 @@ public class BaseStepDefinition {
     public void validateGlobalParam() {
         if (!this.skipScenario) {
             assertTrue("Valid Global Parameters are present ", ScenarioContext
-                    .hasContextValues(String.valueOf(Thread.currentThread().getId())));
+                    .hasContextValues());
         }
     }
 
@@ -325,12 +358,12 @@ public class BaseStepDefinition {
         if (!this.skipScenario) {
             if (responseValue.startsWith("[") && responseValue.endsWith("]")) {
                 ScenarioContext
-                        .setContext(String.valueOf(Thread.currentThread().getId()), key,
+                        .setContext(key,
                                 Helper.getActualValueForAll(responseValue, ScenarioContext
-                                        .getContext(String.valueOf(Thread.currentThread().getId()))).toString());
+                                        .getContext()).toString());
             } else {
                 ScenarioContext
-                        .setContext(String.valueOf(Thread.currentThread().getId()), key, responseValue);
+                        .setContext(key, responseValue);
 
             }
         }
@@ -347,9 +380,9 @@ public class BaseStepDefinition {
     public void modifyDecimalVariable(String responseValue, String key) throws IOException {
         if (!this.skipScenario) {
             ScenarioContext
-                    .setContext(String.valueOf(Thread.currentThread().getId()), key, ExcelAndMathHelper.evaluateWithVariables(Double.class,
+                    .setContext(key, ExcelAndMathHelper.evaluateWithVariables(Double.class,
                             responseValue, ScenarioContext
-                                    .getContext(String.valueOf(Thread.currentThread().getId()))).toString());
+                                    .getContext()).toString());
         }
     }
 
@@ -365,9 +398,9 @@ public class BaseStepDefinition {
     public void modifyIntVariable(String responseValue, String key) throws IOException {
         if (!this.skipScenario) {
             ScenarioContext
-                    .setContext(String.valueOf(Thread.currentThread().getId()),key, ExcelAndMathHelper.evaluateWithVariables(Integer.class,
+                    .setContext(key, ExcelAndMathHelper.evaluateWithVariables(Integer.class,
                             responseValue, ScenarioContext
-                                    .getContext(String.valueOf(Thread.currentThread().getId()))).toString());
+                                    .getContext()).toString());
         }
     }
 
@@ -382,9 +415,9 @@ public class BaseStepDefinition {
     public void modifyfunctionVariable(String responseValue, String key) throws IOException {
         if (!this.skipScenario) {
             ScenarioContext
-                .setContext(String.valueOf(Thread.currentThread().getId()),key, ExcelAndMathHelper.evaluateWithVariables(String.class,
+                .setContext(key, ExcelAndMathHelper.evaluateWithVariables(String.class,
                     responseValue, ScenarioContext
-                        .getContext(String.valueOf(Thread.currentThread().getId()))).toString());
+                        .getContext()).toString());
         }
     }
 
@@ -399,7 +432,7 @@ public class BaseStepDefinition {
     public void modifyBooleanVariable(String condition) throws IOException {
         skipScenario = (Boolean) ExcelAndMathHelper
                 .evaluateWithVariables(Boolean.class, condition, ScenarioContext
-                        .getContext(String.valueOf(Thread.currentThread().getId())));
+                        .getContext());
         scenario.log("condition :" + condition + " : is Skipped : " + skipScenario);
     }
 
@@ -414,7 +447,7 @@ public class BaseStepDefinition {
         if (!this.skipScenario) {
             boolean flag = (Boolean) ExcelAndMathHelper
                     .evaluateWithVariables(Boolean.class, condition, ScenarioContext
-                            .getContext(String.valueOf(Thread.currentThread().getId())));
+                            .getContext());
             scenario.log("Success condition :" + condition + " >>> status " + flag);
             assertTrue("Valid success" + condition + " is met ", flag);
         }
@@ -432,7 +465,7 @@ public class BaseStepDefinition {
         if (!this.skipScenario) {
             boolean flag = (Boolean) ExcelAndMathHelper
                     .evaluateWithVariables(Boolean.class, condition, ScenarioContext
-                            .getContext(String.valueOf(Thread.currentThread().getId())));
+                            .getContext());
             scenario.log("Failure condition :" + condition + " >>> status " + flag);
             assertTrue("Valid Failure" + condition + " is met ", flag);
         }
@@ -449,9 +482,9 @@ public class BaseStepDefinition {
     public void modifyBooleanVariable(String responseValue, String key) throws IOException {
         if (!this.skipScenario) {
             ScenarioContext
-                    .setContext(String.valueOf(Thread.currentThread().getId()), key, ExcelAndMathHelper.evaluateWithVariables(Boolean.class,
+                    .setContext(key, ExcelAndMathHelper.evaluateWithVariables(Boolean.class,
                             responseValue, ScenarioContext
-                                    .getContext(String.valueOf(Thread.currentThread().getId()))).toString());
+                                    .getContext()).toString());
         }
     }
 
@@ -467,9 +500,9 @@ public class BaseStepDefinition {
     public void modifyStringVariable(String responseValue, String key) throws IOException {
         if (!this.skipScenario) {
             ScenarioContext
-                    .setContext(String.valueOf(Thread.currentThread().getId()), key,
+                    .setContext(key,
                             Helper.getActualValueForAll(responseValue, ScenarioContext
-                                    .getContext(String.valueOf(Thread.currentThread().getId()))).toString());
+                                    .getContext()).toString());
         }
     }
 
@@ -484,25 +517,24 @@ public class BaseStepDefinition {
         if (!this.skipScenario) {
             if(".".equalsIgnoreCase(responseKey)){
                 ScenarioContext
-                    .setContext(String.valueOf(Thread.currentThread().getId()), key,
-                        validatableResponse.extract().body().asString());
+                    .setContext(key,
+                        responseDocument().asString());
             } else {
-                String value = validatableResponse.extract().body().jsonPath()
+                String value = responseDocument().jsonPath()
                     .getString(responseKey);
                 if (value != null) {
                     ScenarioContext
 
-                        .setContext(String.valueOf(Thread.currentThread().getId()), key,
-                            validatableResponse.extract().body().jsonPath().getString(responseKey));
+                        .setContext(key, value);
                 } else if (response.getCookie(responseKey) != null) {
                     ScenarioContext
 
-                        .setContext(String.valueOf(Thread.currentThread().getId()), key,
+                        .setContext(key,
                             response.getCookie(responseKey));
                 } else if (response.getHeader(responseKey) != null) {
                     ScenarioContext
 
-                        .setContext(String.valueOf(Thread.currentThread().getId()), key,
+                        .setContext(key,
                             response.getHeader(responseKey));
                 } else {
                     LOGGER.warning(responseKey + " :  for " + key + " not found");
@@ -733,8 +765,8 @@ public class BaseStepDefinition {
             throws Exception {
         if (!this.skipScenario) {
             jsonBody = Mapson.buildMAPsonAsJson(parameterMap, ScenarioContext
-                    .getContext(String.valueOf(Thread.currentThread().getId())));
-            scenario.attach(jsonBody
+                    .getContext());
+            report.attach(jsonBody
                     , contentType, "requestData :  ");
             request = request.contentType(contentType).body(jsonBody);
         }
@@ -752,15 +784,14 @@ public class BaseStepDefinition {
     public void createRequest(String nameIgnore, Map<String, String> parameterMap) throws Exception {
         if (!this.skipScenario) {
             jsonBody = Mapson.buildMAPsonAsJson(parameterMap, ScenarioContext
-                    .getContext(String.valueOf(Thread.currentThread().getId())));
-
-            if(StepDefinitionHelper.getJSON(jsonBody) instanceof  JSONArray){
-                scenario.attach(new JSONArray(jsonBody).toString(4)
-                        , "application/json", "requestData :  ");
-            } else {
-                scenario.attach(new JSONObject(jsonBody).toString(4)
-                        , "application/json", "requestData :  ");
-            }
+                    .getContext());
+
+            String body = jsonBody;
+            report.attach(() -> {
+                Object json = StepDefinitionHelper.getJSON(body);
+                return json instanceof JSONArray ? ((JSONArray) json).toString(4)
+                        : json instanceof JSONObject ? ((JSONObject) json).toString(4) : body;
+            }, "application/json", "requestData :  ");
             request = request.contentType("application/json").body(jsonBody);
         }
     }
@@ -776,8 +807,8 @@ public class BaseStepDefinition {
     public void updateRequest(String nameIgnore, Map<String, String> parameterMap) throws Exception {
         if (!this.skipScenario) {
             jsonBody = Mapson.buildMAPsonAsJson(parameterMap, ScenarioContext
-                    .getContext(String.valueOf(Thread.currentThread().getId())));
-            scenario.attach(jsonBody
+                    .getContext());
+            report.attach(jsonBody
                     , "application/json", "requestData :  ");
             request = request.contentType("application/json").body(jsonBody);
         }
@@ -796,8 +827,8 @@ public class BaseStepDefinition {
             throws Exception {
         if (!this.skipScenario) {
             jsonBody = Mapson.buildMAPsonAsJson(parameterMap, ScenarioContext
-                    .getContext(String.valueOf(Thread.currentThread().getId())));
-            scenario.attach(jsonBody
+                    .getContext());
+            report.attach(jsonBody
                     , "application/json", "requestData :  ");
             request = request.contentType(contentType).body(jsonBody);
         }
@@ -818,23 +849,15 @@ public class BaseStepDefinition {
         resource = StepDefinitionHelper.getActualValue(resource);
         if (!this.skipScenario) {
             String url = ApiHelper.getHostName(resource, system);
-            acceptContentType =
+            String contentType =
                     this.acceptContentType != null ? this.acceptContentType : acceptContentType;
             String resourceDetails = ApiHelper.getActualResource(resource, system);
-            JSONObject object = new JSONObject();
-            object.put("url", url);
-            object.put("AcceptContentType", acceptContentType);
-            object.put("resource", resourceDetails);
-            object.put("context", new JSONObject(ScenarioContext
-                    .getPrintableContextObject(String.valueOf(Thread.currentThread().getId()))));
+            attachRequestData(url, contentType, resourceDetails);
 
-            scenario.attach(object.toString(4)
-                    , "application/json", "requestData :  ");
-
-            response = request.baseUri(url).when()
+            send(system, resource, () -> transport(system).baseUri(url).when()
                     .log().all()
-                    .accept(acceptContentType)
-                    .post(resourceDetails);
+                    .accept(contentType)
+                    .post(resourceDetails));
         }
     }
 
@@ -855,18 +878,10 @@ public class BaseStepDefinition {
             String contentType =
                     this.acceptContentType != null ? this.acceptContentType : acceptContentType;
             String resourceDetails = ApiHelper.getActualResource(resource, system);
-            JSONObject object = new JSONObject();
-            object.put("url", url);
-            object.put("AcceptContentType", contentType);
-            object.put("resource", resourceDetails);
-            object.put("context", new JSONObject(ScenarioContext
-                    .getPrintableContextObject(String.valueOf(Thread.currentThread().getId()))));
-
-            scenario.attach(object.toString(4)
-                    , "application/json", "requestData :  ");
-            response = request.baseUri(ApiHelper.getHostName(resource, system)).when()
+            attachRequestData(url, contentType, resourceDetails);
+            send(system, resource, () -> transport(system).baseUri(url).when()
                     .log().all().accept(acceptContentType)
-                    .get(ApiHelper.getActualResource(resource, system));
+                    .get(resourceDetails));
         }
     }
 
@@ -884,21 +899,13 @@ public class BaseStepDefinition {
         resource = StepDefinitionHelper.getActualValue(resource);
         if (!this.skipScenario) {
             String url = ApiHelper.getHostName(resource, system);
-            acceptContentType =
+            String contentType =
                     this.acceptContentType != null ? this.acceptContentType : acceptContentType;
             String resourceDetails = ApiHelper.getActualResource(resource, system);
-            JSONObject object = new JSONObject();
-            object.put("url", url);
-            object.put("AcceptContentType", acceptContentType);
-            object.put("resource", resourceDetails);
-            object.put("context", new JSONObject(ScenarioContext
-                    .getPrintableContextObject(String.valueOf(Thread.currentThread().getId()))));
-
-            scenario.attach(object.toString(4)
-                    , "application/json", "requestData :  ");
-            response = request.baseUri(ApiHelper.getHostName(resource, system)).when()
-                    .log().all().accept(acceptContentType)
-                    .put(ApiHelper.getActualResource(resource, system));
+            attachRequestData(url, contentType, resourceDetails);
+            send(system, resource, () -> transport(system).baseUri(url).when()
+                    .log().all().accept(contentType)
+                    .put(resourceDetails));
         }
     }
 
@@ -916,21 +923,13 @@ public class BaseStepDefinition {
         resource = StepDefinitionHelper.getActualValue(resource);
         if (!this.skipScenario) {
             String url = ApiHelper.getHostName(resource, system);
-            acceptContentType =
+            String contentType =
                     this.acceptContentType != null ? this.acceptContentType : acceptContentType;
             String resourceDetails = ApiHelper.getActualResource(resource, system);
-            JSONObject object = new JSONObject();
-            object.put("url", url);
-            object.put("AcceptContentType", acceptContentType);
-            object.put("resource", resourceDetails);
-            object.put("context", new JSONObject(ScenarioContext
-                    .getPrintableContextObject(String.valueOf(Thread.currentThread().getId()))));
-
-            scenario.attach(object.toString(4)
-                    , "application/json", "requestData :  ");
-            response = request.baseUri(ApiHelper.getHostName(resource, system)).when()
-                    .log().all().accept(acceptContentType)
-                    .patch(ApiHelper.getActualResource(resource, system));
+            attachRequestData(url, contentType, resourceDetails);
+            send(system, resource, () -> transport(system).baseUri(url).when()
+                    .log().all().accept(contentType)
+                    .patch(resourceDetails));
         }
     }
 
@@ -948,21 +947,273 @@ public class BaseStepDefinition {
         resource = StepDefinitionHelper.getActualValue(resource);
         if (!this.skipScenario) {
             String url = ApiHelper.getHostName(resource, system);
-            acceptContentType =
+            String contentType =
                     this.acceptContentType != null ? this.acceptContentType : acceptContentType;
             String resourceDetails = ApiHelper.getActualResource(resource, system);
+            attachRequestData(url, contentType, resourceDetails);
+            send(system, resource, () -> transport(system).baseUri(url).when()
+                    .log().all().accept(contentType)
+                    .delete(resourceDetails));
+        }
+    }
+
+    /**
+     * Queue request. The request built so far is queued and a new one is
+     * started, so the params of the next queued request are given again.
+     *
+     * @param method            the http method
+     * @param name              the name of the response
+     * @param resource          the resource
+     * @param system            the system
+     * @param acceptContentType the accept content type
+     */
+    @Given("^queue (.*) request named (.*) for (.*) resource on (.*) accepting (.*)$")
+    public void queueRequest(String method, String name, String resource, String system,
+                             String acceptContentType) {
+        resource = StepDefinitionHelper.getActualValue(resource);
+        if (!this.skipScenario) {
+            Method httpMethod;
+            try {
+                httpMethod = Method.valueOf(method.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new AssertionError(method + " is not a http method");
+            }
+            String url = ApiHelper.getHostName(resource, system);
+            String contentType =
+                    this.acceptContentType != null ? this.acceptContentType : acceptContentType;
+            String resourceDetails = ApiHelper.getActualResource(resource, system);
+            attachRequestData(url, contentType, resourceDetails);
+            RequestSpecification queued = transport(system).baseUri(url);
+            request = given();
+            fanOut.add(name.trim(), system, resource, () -> queued.when()
+                    .log().all().accept(contentType)
+                    .request(httpMethod, resourceDetails));
+        }
+    }
+
+    /**
+     * Send the queued requests concurrently; the responses are kept by name.
+     *
+     * @throws Exception the exception
+     */
+    @When("^send the queued requests concurrently$")
+    public void sendQueuedRequests() throws Exception {
+        if (!this.skipScenario) {
+            assertFalse("No request is queued", fanOut.isEmpty());
+            namedResponses.putAll(fanOut.send());
+            Map<String, RequestTimings.RequestTiming> timings = fanOut.getTimings();
+            namedTimings.putAll(timings);
+            timings.values().forEach(this::attachTiming);
+        }
+    }
+
+    /**
+     * Use the named response for the next verify and store steps.
+     *
+     * @param name the name of the response
+     */
+    @Given("^use the (.*) response$")
+    public void useNamedResponse(String name) {
+        if (!this.skipScenario) {
+            ResponseDocument document = namedResponses.get(name.trim());
+            assertTrue(name + " response was not received", document != null);
+            response = document.getResponse();
+            responseDocument = document;
+            validatableResponse = null;
+            timing = namedTimings.get(name.trim());
+        }
+    }
+
+    /**
+     * Verify the total time of the last response.
+     *
+     * @param maxMs the budget in ms
+     */
+    @Then("^Verify the response time is less than (\\d+) ms$")
+    public void verifyResponseTime(long maxMs) {
+        if (!this.skipScenario) {
+            assertTrue("No request was timed", timing != null);
+            assertTrue("Response time " + timing.getTotalMs() + " ms is not less than "
+                    + maxMs + " ms", timing.getTotalMs() < maxMs);
+        }
+    }
+
+    /**
+     * Verify the percentile of the total times of a resource over the run.
+     *
+     * @param percentile the percentile
+     * @param resource   the resource
+     * @param system     the system
+     * @param maxMs      the budget in ms
+     */
+    @Then("^Verify the p(\\d+(?:\\.\\d+)?) response time of (.*) resource on (.*) is less than (\\d+) ms$")
+    public void verifyResponseTimePercentile(double percentile, String resource, String system,
+                                             long maxMs) {
+        resource = StepDefinitionHelper.getActualValue(resource);
+        if (!this.skipScenario) {
+            double value = RequestTimings.getPercentile(system, resource, percentile);
+            assertTrue(resource + " resource on " + system + " was not called", value >= 0);
+            assertTrue("p" + percentile + " response time of " + resource + " resource on "
+                    + system + " " + value + " ms is not less than " + maxMs + " ms",
+                    value < maxMs);
+        }
+    }
+
+    /**
+     * Await request: gets the resource again, with backoff, until the condition
+     * holds or the await-timeout passes. The condition is one of
+     * {@code status code is <code>}, {@code header <name> is <value>},
+     * {@code <path> exists} or {@code <path> is <value>} for a json path.
+     * The attempts run on the scenario thread, and the await-timeout is also
+     * the deadline of each request, so a hung call fails the step in time.
+     *
+     * @param dummyString       the dummy string
+     * @param acceptContentType the accept content type
+     * @param resource          the resource
+     * @param system            the system
+     * @param condition         the condition
+     * @throws Exception the exception
+     */
+    @When("^(.*) await (.*) in (.*) resource on (.*) until (.*)$")
+    public void awaitRequest(String dummyString, String acceptContentType, String resource,
+                             String system, String condition) throws Exception {
+        String resourceName = StepDefinitionHelper.getActualValue(resource);
+        if (!this.skipScenario) {
+            String url = ApiHelper.getHostName(resourceName, system);
+            String contentType =
+                    this.acceptContentType != null ? this.acceptContentType : acceptContentType;
+            String resourceDetails = ApiHelper.getActualResource(resourceName, system);
+            attachRequestData(url, contentType, resourceDetails);
+            Predicate<ResponseDocument> met = awaitCondition(condition.trim());
+            Poller poller = Poller.fromConfiguration();
+            AtomicReference<ResponseDocument> last = new AtomicReference<>();
+            AtomicInteger attempts = new AtomicInteger();
+            long deadline = System.nanoTime()
+                    + TimeUnit.MILLISECONDS.toNanos(poller.getTimeoutMs());
+            HttpTransport.setDeadline(deadline);
+            try {
+                poller.await(() -> {
+                    attempts.incrementAndGet();
+                    last.set(timed(system, resourceName, () -> transport(system).baseUri(url)
+                            .when().log().all().accept(contentType)
+                            .get(resourceDetails)));
+                    return last.get();
+                }, met);
+            } catch (Exception e) {
+                if (System.nanoTime() - deadline < 0 && !(e instanceof TimeoutException)) {
+                    throw e;
+                }
+                LOGGER.warning(resourceName + " resource on " + system + " : " + e.getMessage());
+            } finally {
+                HttpTransport.setDeadline(null);
+                responseDocument = last.get();
+                response = responseDocument != null ? responseDocument.getResponse() : null;
+                validatableResponse = null;
+                attachTiming(timing);
+            }
+            scenario.log("await " + condition + " : " + attempts.get() + " attempts");
+            assertTrue(condition + " is not met for " + resourceName + " resource on " + system
+                    + " after " + attempts.get() + " attempts in " + poller.getTimeoutMs()
+                    + " ms", responseDocument != null && met.test(responseDocument));
+        }
+    }
+
+    private Predicate<ResponseDocument> awaitCondition(String condition) {
+        if (condition.matches("status code is \\d+")) {
+            int status = Integer.parseInt(condition.substring("status code is ".length()));
+            return document -> document.getResponse().getStatusCode() == status;
+        }
+        if (condition.endsWith(" exists")) {
+            String path = StepDefinitionHelper.getActualValue(
+                    condition.substring(0, condition.length() - " exists".length()).trim());
+            return document -> jsonPathValue(document, path) != null;
+        }
+        int is = condition.indexOf(" is ");
+        if (is < 0) {
+            throw new AssertionError(condition + " is not an await condition");
+        }
+        String value = StepDefinitionHelper.getActualValue(condition.substring(is + 4).trim());
+        if (condition.startsWith("header ")) {
+            String header = condition.substring("header ".length(), is).trim();
+            return document -> value.equals(document.getResponse().getHeader(header));
+        }
+        String path = StepDefinitionHelper.getActualValue(condition.substring(0, is).trim());
+        return document -> value.equals(jsonPathValue(document, path));
+    }
+
+    /**
+     * Gets the json path value, null while the body is not json yet.
+     */
+    private static String jsonPathValue(ResponseDocument document, String path) {
+        try {
+            return document.jsonPath().getString(path);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Sends the request and reads the response, timed by system and resource.
+     */
+    private void send(String system, String resource, Supplier<Response> call) {
+        responseDocument = timed(system, resource, call);
+        response = responseDocument.getResponse();
+        attachTiming(timing);
+    }
+
+    private ResponseDocument timed(String system, String resource, Supplier<Response> call) {
+        RequestTimings.begin();
+        ResponseDocument document;
+        try {
+            document = ResponseDocument.of(call.get());
+        } catch (RuntimeException | Error e) {
+            RequestTimings.cancel();
+            throw e;
+        }
+        timing = RequestTimings.end(system, resource, document);
+        return document;
+    }
+
+    private void attachTiming(RequestTimings.RequestTiming timing) {
+        if (timing != null) {
+            report.attach(() -> timing.toJson().toString(4), "application/json", "timings :  ");
+        }
+    }
+
+    private void attachRequestData(String url, String acceptContentType, String resource) {
+        Map<String, String> context = ScenarioContext.getPrintableContextObject();
+        report.attach(() -> {
             JSONObject object = new JSONObject();
             object.put("url", url);
             object.put("AcceptContentType", acceptContentType);
-            object.put("resource", resourceDetails);
-            object.put("context", new JSONObject(ScenarioContext
-                    .getPrintableContextObject(String.valueOf(Thread.currentThread().getId()))));
-            scenario.attach(object.toString(4)
-                    , "application/json", "requestData :  ");
-            response = request.baseUri(ApiHelper.getHostName(resource, system)).when()
-                    .log().all().accept(acceptContentType)
-                    .delete(ApiHelper.getActualResource(resource, system));
+            object.put("resource", resource);
+            object.put("context", new JSONObject(context));
+            return object.toString(4);
+        }, "application/json", "requestData :  ");
+    }
+
+    /**
+     * Sends the request through the pooled transport of the system. The body is
+     * read into the response document right after the call, which returns the
+     * connection to the pool. A request with a client certificate or its own
+     * ssl settings gets an unpooled client. With http-record-mode the exchanges
+     * are recorded or replayed by the {@link HttpRecorder} of the system.
+     */
+    private RequestSpecification transport(String system) {
+        FilterableRequestSpecification spec = (FilterableRequestSpecification) request;
+        RestAssuredConfig config = spec.getConfig();
+        if (config == null) {
+            config = RestAssured.config();
+        }
+        HttpRecorder recorder = HttpRecorder.of(system);
+        if (recorder != null && !spec.getDefinedFilters().contains(recorder)) {
+            request.filter(recorder);
         }
+        boolean isolated = spec.getAuthenticationScheme() instanceof CertAuthScheme
+                || RestAssured.authentication instanceof CertAuthScheme
+                || config.getSSLConfig().isUserConfigured();
+        return request.config(config.httpClient(HttpTransport.httpClientConfig(system,
+                config.getHttpClientConfig(), isolated)));
     }
 
     /**
@@ -973,10 +1224,24 @@ public class BaseStepDefinition {
     @Before
     public void before(Scenario scenario) {
         this.scenario = scenario;
+        this.report = ScenarioReport.of(scenario);
+        ScenarioContext.begin(scenario.getId());
         LOGGER.info("scenario ID:: " + scenario.getId());
         this.sequence = 1;
         this.acceptContentType = null;
         this.skipScenario = false;
+        this.responseDocument = null;
+    }
+
+    /**
+     * After.
+     *
+     * @param scenario the scenario
+     */
+    @After
+    public void after(Scenario scenario) {
+        report.finish();
+        ScenarioContext.end(scenario.getId());
     }
 
     /**
@@ -989,26 +1254,37 @@ public class BaseStepDefinition {
     public void verifyStatusCode(int statusCode) {
         if (!this.skipScenario) {
             ScenarioContext
-                    .setContext(String.valueOf(Thread.currentThread().getId()),"STATUS_CODE", String.valueOf(response.getStatusCode()));
+                    .setContext("STATUS_CODE", String.valueOf(response.getStatusCode()));
             if(response.getStatusCode() != statusCode){
                 scenario.log(response.asPrettyString());
             }
             validatableResponse = response.then().log().ifValidationFails().statusCode(statusCode);
-            LOGGER.info(ScenarioContext
-                    .getContext(String.valueOf(Thread.currentThread().getId())).toString());
-            LOGGER.info(validatableResponse.extract().body().asString());
-            scenario.attach(
-                    new JSONObject(ScenarioContext.getPrintableContextObject(
-                            String.valueOf(Thread.currentThread().getId()))).toString(4), "application/json",
+            Level level = report.isLean() ? Level.FINE : Level.INFO;
+            LOGGER.log(level, () -> ScenarioContext.getContext().toString());
+            LOGGER.log(level, () -> responseDocument().asString());
+            Map<String, String> context = ScenarioContext.getPrintableContextObject();
+            report.attach(() -> new JSONObject(context).toString(4), "application/json",
                     "contextual-dataset ");
         }
     }
 
+    /**
+     * Gets the parsed view of the current response; it is created once per
+     * response and shared by every verify and store step.
+     */
+    private ResponseDocument responseDocument() {
+        if (responseDocument == null || !responseDocument.isOf(response)) {
+            responseDocument = ResponseDocument.of(response);
+        }
+        return responseDocument;
+    }
+
     private void attachResponse(ValidatableResponse validatableResponse) {
         if (validatableResponse != null && validatableResponse.extract().body() != null) {
             String xmlType =
                     response.getContentType().contains("xml") ? "text/xml" : response.getContentType();
-            scenario.attach(validatableResponse.extract().body().asString(), xmlType,
+            ResponseDocument document = responseDocument();
+            report.attach(document::asString, xmlType,
                     "actual-response ");
         }
     }
@@ -1016,7 +1292,7 @@ public class BaseStepDefinition {
     private void attachActualResponse(String actual) {
         String xmlType =
                 response.getContentType().contains("xml") ? "text/xml" : response.getContentType();
-        scenario
+        report
                 .attach(actual, xmlType, "expected-response ");
     }
 
@@ -1033,25 +1309,21 @@ public class BaseStepDefinition {
             throws Throwable {
         if (!this.skipScenario) {
             attachResponse(validatableResponse);
-            StandardProcessing processing = stdProcessorMap.get(type);
+            StreamingStandardProcessing processing = stdProcessorMap.get(type);
             if (processing != null) {
                 if (validatableResponse != null
-                        && validatableResponse.extract().body().asString() != null) {
+                        && responseDocument().getBytes() != null) {
                     String readXML = readData.stream().map(Object::toString)
                             .collect(Collectors.joining());
-                    String jsonRequestActual = processing
-                            .postResponseProcessing(validatableResponse.extract().body().asString());
-                    String jsonRequestExpected = processing.postResponseProcessing(readXML);
+                    String jsonRequestActual = StandardProcessingCache.postResponseProcessing(
+                            processing, responseDocument().reader());
+                    String jsonRequestExpected = StandardProcessingCache
+                            .postResponseProcessing(processing, null, readXML);
 
                     if (jsonRequestExpected != null && jsonRequestActual != null) {
                         Map<String, String> mapson = Mapson.buildMAPsonFromJson(jsonRequestExpected);
-                        Map<String, String> mapsonActual = Mapson.buildMAPsonFromJson(jsonRequestActual);
-                        if (areEqualKeyValues(resource, mapsonActual, mapson, true)) {
-                            Assert.assertTrue("Comparison success", true);
-                        } else {
-                            Assert.assertTrue("Comparison failed refer Comparison Failure", false);
-                        }
-
+                        assertComparison(JsonStreamComparator.compareActual(resource,
+                                jsonRequestActual, mapson, JsonStreamComparator.getMaxFailures()));
                     } else {
                         assertTrue("Standard " + type + " has no response validation ", false);
                     }
@@ -1077,22 +1349,19 @@ public class BaseStepDefinition {
             throws Throwable {
         if (!this.skipScenario) {
             attachResponse(validatableResponse);
-            StandardProcessing processing = stdProcessorMap.get(type);
+            StreamingStandardProcessing processing = stdProcessorMap.get(type);
             if (processing != null) {
                 if (validatableResponse != null
-                        && validatableResponse.extract().body().asString() != null) {
+                        && responseDocument().getBytes() != null) {
                     String body = HelperApiUtil.readFileAsString(file);
-                    String jsonRequestActual = processing
-                            .postResponseProcessing(validatableResponse.extract().body().asString());
-                    String jsonRequestExpected = processing.postResponseProcessing(body);
+                    String jsonRequestActual = StandardProcessingCache.postResponseProcessing(
+                            processing, responseDocument().reader());
+                    String jsonRequestExpected = StandardProcessingCache
+                            .postResponseProcessing(processing, file, body);
                     if (jsonRequestExpected != null && jsonRequestActual != null) {
                         Map<String, String> mapson = Mapson.buildMAPsonFromJson(jsonRequestExpected);
-                        Map<String, String> mapsonExpected = Mapson.buildMAPsonFromJson(jsonRequestActual);
-                        if (areEqualKeyValues(resource, mapson, mapsonExpected, true)) {
-                            Assert.assertTrue("Comparison success", true);
-                        } else {
-                            Assert.assertTrue("Comparison failed refer Comparison Failure", false);
-                        }
+                        assertComparison(JsonStreamComparator.compareExpected(resource, mapson,
+                                jsonRequestActual, JsonStreamComparator.getMaxFailures()));
                     } else {
                         assertTrue("Standard " + type + " has no response validation ", false);
                     }
@@ -1116,57 +1385,19 @@ public class BaseStepDefinition {
     public void verifyResponseMapson(String resource, DataTable data) throws Throwable {
         if (!this.skipScenario) {
             attachResponse(validatableResponse);
-            Map<String, String> mapson = Mapson.buildMAPsonFromJson(
-                    validatableResponse.extract().body().asString());
-            if (areEqualKeyValues(resource,
-                    data.asMap(String.class, String.class), mapson, false)) {
-                Assert.assertTrue("Comparison success", true);
-            } else {
-                Assert.assertTrue("Comparison failed refer Comparison Failure", false);
-            }
+            assertComparison(JsonStreamComparator.compareExpected(resource,
+                    data.asMap(String.class, String.class), responseDocument().asString(),
+                    JsonStreamComparator.getMaxFailures()));
         }
     }
 
-    private boolean areEqualKeyValues(
-            String resource, Map<String, String> first,
-            Map<String, String> second, boolean isActual) {
-        String actual = isActual ? "expected" : "actual";
-        String expected = isActual ? "actual" : "expected";
-        Map<String, JSONObject> result = first.entrySet().stream()
-                .filter(y -> (!ExcludeConfiguration.shouldSkip(resource, y.getKey())))
-                .filter(e ->
-                        !((e.getValue() != null && second.get(e.getKey()) != null && StepDefinitionHelper.getActualValue(e.getValue().trim())
-                                .equals(second.get(e.getKey()).trim()))
-                                || (e.getValue() == null && (e.getValue() == second.get(e.getKey()) || ""
-                                .equals(second.get(e.getKey()))))))
-                .collect(Collectors.toMap(e -> e.getKey(),
-                        e -> {
-                            JSONObject object = new JSONObject();
-                            object.put(
-                                    expected, e.getValue() != null ? StepDefinitionHelper
-                                            .getActualValue(e.getValue().trim()) : null);
-                            object.put(actual, second
-                                    .get(e.getKey()));
-                            return object;
-                        }));
-        if (!result.isEmpty()) {
-            List<JSONObject> values = result.values().stream()
-                    .filter(x -> !(x.optString("expected").replace("\\r", "\r")
-                            .equals(x.optString("actual")))).collect(Collectors.toList());
-            if (!values.isEmpty()) {
-                JSONArray array = new JSONArray();
-                result.entrySet().forEach(x -> {
-                    JSONObject object = new JSONObject();
-                    object.put(x.getKey(), x.getValue());
-                    array.put(object);
-                });
-                scenario.attach(array.toString(4), "application/json", "Comparison Failure");
-
-            } else {
-                return values.isEmpty();
-            }
+    private void assertComparison(JSONArray failures) {
+        if (failures.length() == 0) {
+            Assert.assertTrue("Comparison success", true);
+        } else {
+            report.attach(() -> failures.toString(4), "application/json", "Comparison Failure");
+            Assert.assertTrue("Comparison failed refer Comparison Failure", false);
         }
-        return result.isEmpty();
     }
 
 
@@ -1183,7 +1414,7 @@ public class BaseStepDefinition {
             attachResponse(validatableResponse);
             String listString = xmlString.stream().map(Object::toString)
                     .collect(Collectors.joining());
-            HelperApiUtil.assertXMLEquals(listString, response.asString());
+            HelperApiUtil.assertXMLEquals(listString, responseDocument());
         }
     }
 
@@ -1201,7 +1432,7 @@ public class BaseStepDefinition {
             attachResponse(validatableResponse);
             String body = HelperApiUtil.readFileAsString(fileBody);
             if (body != null) {
-                HelperApiUtil.assertXMLEquals(body, response.asString());
+                HelperApiUtil.assertXMLEquals(body, responseDocument());
             } else {
                 Assert.assertTrue(fileBody + "  file is missing :", false);
             }
@@ -1227,9 +1458,9 @@ public class BaseStepDefinition {
             attachResponse(validatableResponse);
             if (body != null) {
                 if (contentType.contains("xml")) {
-                    HelperApiUtil.assertXpathsEqual(xpaths, body, response.asString());
+                    HelperApiUtil.assertXpathsEqual(xpaths, body, responseDocument().xml());
                 } else {
-                    HelperApiUtil.assertJsonpathEqual(xpaths, body, response.asString());
+                    HelperApiUtil.assertJsonpathEqual(xpaths, body, responseDocument().asString());
                 }
             } else {
                 Assert.assertTrue(fileBody + "  file is missing :", false);
@@ -1248,8 +1479,7 @@ public class BaseStepDefinition {
         if (!this.skipScenario) {
             attachResponse(validatableResponse);
             String output =
-                    validatableResponse.extract().body().asString() != null ? validatableResponse.extract()
-                            .body().asString().trim() : null;
+                    responseDocument().asString() != null ? responseDocument().asString().trim() : null;
             assertEquals(context.trim(), output.trim());
         }
     }
@@ -1265,7 +1495,7 @@ public class BaseStepDefinition {
     public void verify(String path, List<String> csvson)
         throws Exception {
         HelperApiUtil
-            .verifyCSVSON(validatableResponse, path, csvson, JSONCompareMode.LENIENT, scenario);
+            .verifyCSVSON(responseDocument(), path, csvson, JSONCompareMode.LENIENT, report);
     }
 
     /**
@@ -1279,7 +1509,7 @@ public class BaseStepDefinition {
     public void verifyExactOrderMatch(String path, List<String> csvson)
         throws Exception {
         HelperApiUtil
-            .verifyCSVSON(validatableResponse, path, csvson, JSONCompareMode.STRICT_ORDER, scenario);
+            .verifyCSVSON(responseDocument(), path, csvson, JSONCompareMode.STRICT_ORDER, report);
     }
 
     /**
@@ -1292,7 +1522,7 @@ public class BaseStepDefinition {
     @And("^Verify (.*) response csvson includes exact-match in the response$")
     public void verifyExactMatch(String path, List<String> csvson) throws  Exception{
         HelperApiUtil
-            .verifyCSVSON(validatableResponse, path, csvson, JSONCompareMode.STRICT, scenario);
+            .verifyCSVSON(responseDocument(), path, csvson, JSONCompareMode.STRICT, report);
     }
 
 
@@ -1307,12 +1537,11 @@ public class BaseStepDefinition {
     public void verifyResponse(String dummyString, DataTable data) throws Throwable {
         if (!this.skipScenario) {
             attachResponse(validatableResponse);
+            JsonPath jsonPath = responseDocument().jsonPath();
             data.asMap(String.class, String.class).forEach((k, v) -> {
-                LOGGER
-                        .info(
-                                v + " : " + validatableResponse.extract().body().jsonPath().getString(StepDefinitionHelper.getActualValue((String) k)));
-                assertEquals(StepDefinitionHelper.getActualValue((String) v),
-                        validatableResponse.extract().body().jsonPath().getString(StepDefinitionHelper.getActualValue((String) k)));
+                String actual = jsonPath.getString(StepDefinitionHelper.getActualValue((String) k));
+                LOGGER.info(v + " : " + actual);
+                assertEquals(StepDefinitionHelper.getActualValue((String) v), actual);
             });
         }
     }
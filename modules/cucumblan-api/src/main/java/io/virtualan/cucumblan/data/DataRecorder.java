@@ -0,0 +1,218 @@
+package io.virtualan.cucumblan.data;
+
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.Result;
+import io.cucumber.plugin.event.Status;
+import io.cucumber.plugin.event.TestCase;
+import io.cucumber.plugin.event.TestCaseFinished;
+import io.cucumber.plugin.event.TestCaseStarted;
+import io.cucumber.plugin.event.TestRunFinished;
+import io.cucumber.plugin.event.TestRunStarted;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * The type Data recorder.
+ * <p>
+ * Cucumber plugin aggregating the results of a data driven run by scenario:
+ * the number of rows passed, failed and skipped, and the first failed rows
+ * with their values and error, as one compact report instead of an entry per
+ * row.
+ */
+public class DataRecorder implements ConcurrentEventListener {
+
+  private static final int MAX_FAILURES = 100;
+  private static final int MAX_ERROR_LENGTH = 500;
+
+  private final DataSet dataSet;
+  private final Map<String, Stats> scenarios = new ConcurrentSkipListMap<>();
+  private volatile Instant started;
+  private volatile Instant finished;
+
+  /**
+   * Instantiates a new Data recorder.
+   *
+   * @param dataSet the data set of the run
+   */
+  public DataRecorder(DataSet dataSet) {
+    this.dataSet = dataSet;
+  }
+
+  @Override
+  public void setEventPublisher(EventPublisher eventPublisher) {
+    eventPublisher.registerHandlerFor(TestRunStarted.class, event -> started = event.getInstant());
+    eventPublisher.registerHandlerFor(TestCaseStarted.class,
+        event -> dataSet.started(event.getTestCase().getId().toString()));
+    eventPublisher.registerHandlerFor(TestCaseFinished.class, this::scenarioFinished);
+    eventPublisher.registerHandlerFor(TestRunFinished.class, event -> finished = event.getInstant());
+  }
+
+  private void scenarioFinished(TestCaseFinished event) {
+    TestCase testCase = event.getTestCase();
+    DataSet.Row row = dataSet.finish(testCase.getId().toString());
+    String key = String.format(Locale.ROOT, "%s:%05d", testCase.getUri(), testCase.getLocation()
+        .getLine());
+    scenarios.computeIfAbsent(key, k -> new Stats(testCase.getName(),
+        testCase.getUri().toString(), testCase.getLocation().getLine()))
+        .record(event.getResult(), row);
+  }
+
+  /**
+   * Gets passed.
+   *
+   * @return the number of rows passed by every scenario
+   */
+  public long getPassed() {
+    return scenarios.values().stream().mapToLong(stats -> stats.passed.sum()).sum();
+  }
+
+  /**
+   * Gets failed.
+   *
+   * @return the number of rows failed by any scenario
+   */
+  public long getFailed() {
+    return scenarios.values().stream().mapToLong(stats -> stats.failed.sum()).sum();
+  }
+
+  /**
+   * To json.
+   *
+   * @return the json report
+   */
+  public JSONObject toJson() {
+    JSONObject json = new JSONObject();
+    json.put("data", dataSet.getSource());
+    json.put("rows", dataSet.getRows());
+    json.put("elapsedMs", elapsed().toMillis());
+    JSONArray array = new JSONArray();
+    for (Stats stats : scenarios.values()) {
+      JSONObject scenario = new JSONObject();
+      scenario.put("scenario", stats.name);
+      scenario.put("uri", stats.uri);
+      scenario.put("line", stats.line);
+      scenario.put("rows", stats.rows.sum());
+      scenario.put("passed", stats.passed.sum());
+      scenario.put("failed", stats.failed.sum());
+      scenario.put("skipped", stats.skipped.sum());
+      List<Failure> failures = new ArrayList<>(stats.failures);
+      failures.sort(Comparator.comparingLong(failure -> failure.row));
+      JSONArray failed = new JSONArray();
+      for (Failure failure : failures) {
+        JSONObject entry = new JSONObject();
+        entry.put("row", failure.row);
+        entry.put("status", failure.status);
+        entry.put("error", failure.error);
+        entry.put("values", failure.values);
+        failed.put(entry);
+      }
+      scenario.put("failures", failed);
+      scenario.put("failuresOmitted", Math.max(0, stats.failed.sum() - failures.size()));
+      array.put(scenario);
+    }
+    json.put("scenarios", array);
+    return json;
+  }
+
+  /**
+   * To summary string.
+   *
+   * @return the summary table
+   */
+  public String toSummary() {
+    StringBuilder summary = new StringBuilder(String.format(Locale.ROOT,
+        "%s: %d rows in %.1f s%n", dataSet.getSource(), dataSet.getRows(),
+        elapsed().toMillis() / 1000.0));
+    summary.append(String.format(Locale.ROOT, "%-50s %8s %8s %8s  %s%n",
+        "scenario", "passed", "failed", "skipped", "first failed rows"));
+    for (Stats stats : scenarios.values()) {
+      List<Failure> failures = new ArrayList<>(stats.failures);
+      failures.sort(Comparator.comparingLong(failure -> failure.row));
+      StringBuilder rows = new StringBuilder();
+      for (int i = 0; i < failures.size() && i < 10; i++) {
+        rows.append(i == 0 ? "" : ", ").append(failures.get(i).row);
+      }
+      summary.append(String.format(Locale.ROOT, "%-50s %8d %8d %8d  %s%n",
+          abbreviate(stats.name), stats.passed.sum(), stats.failed.sum(), stats.skipped.sum(),
+          rows));
+    }
+    return summary.toString();
+  }
+
+  private Duration elapsed() {
+    Instant start = started;
+    Instant end = finished != null ? finished : Instant.now();
+    return start != null ? Duration.between(start, end) : Duration.ZERO;
+  }
+
+  private static String abbreviate(String text) {
+    return text.length() > 50 ? text.substring(0, 47) + "..." : text;
+  }
+
+  private static final class Stats {
+
+    private final String name;
+    private final String uri;
+    private final int line;
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder passed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+    private final AtomicInteger kept = new AtomicInteger();
+    private final ConcurrentLinkedQueue<Failure> failures = new ConcurrentLinkedQueue<>();
+
+    private Stats(String name, String uri, int line) {
+      this.name = name;
+      this.uri = uri;
+      this.line = line;
+    }
+
+    private void record(Result result, DataSet.Row row) {
+      rows.increment();
+      Status status = result.getStatus();
+      if (status == Status.PASSED) {
+        passed.increment();
+      } else if (status == Status.SKIPPED) {
+        skipped.increment();
+      } else {
+        failed.increment();
+        if (kept.incrementAndGet() <= MAX_FAILURES) {
+          failures.add(new Failure(row, status, result.getError()));
+        }
+      }
+    }
+  }
+
+  private static final class Failure {
+
+    private final long row;
+    private final String status;
+    private final String error;
+    private final JSONObject values = new JSONObject();
+
+    private Failure(DataSet.Row row, Status status, Throwable error) {
+      this.row = row != null ? row.getNumber() : 0;
+      this.status = status.name();
+      String message = error == null ? "" : error.getMessage() != null ? error.getMessage()
+          : error.getClass().getName();
+      this.error = message.length() > MAX_ERROR_LENGTH
+          ? message.substring(0, MAX_ERROR_LENGTH) + "..." : message;
+      if (row != null) {
+        row.getValues().forEach((key, value) -> values.put(key,
+            key.contains("password") ? "xxxxxxxxxxxx" : value));
+      }
+    }
+  }
+}
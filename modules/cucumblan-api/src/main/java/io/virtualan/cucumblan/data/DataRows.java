@@ -0,0 +1,262 @@
+package io.virtualan.cucumblan.data;
+
+import io.virtualan.cucumblan.props.ApplicationConfiguration;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * The type Data rows.
+ * <p>
+ * Streams the rows of a csv file (the first record names the columns, quoted
+ * fields may hold separators, quotes and line breaks) or of a jsonl file (one
+ * json object per line, flattened to MAPson keys such as category.name). The
+ * file is read from the classpath, or else from the file system, in the
+ * data-file-charset; only the current row is held in memory.
+ */
+public class DataRows implements Iterator<Map<String, String>>, Closeable {
+
+  private final String source;
+  private final BufferedReader reader;
+  private final boolean jsonLines;
+  private List<String> header;
+  private Map<String, String> next;
+  private long rowNumber;
+  private long lineNumber;
+
+  private DataRows(String source, BufferedReader reader, boolean jsonLines) {
+    this.source = source;
+    this.reader = reader;
+    this.jsonLines = jsonLines;
+  }
+
+  /**
+   * Open the data file.
+   *
+   * @param source the classpath resource or file path, .csv or .jsonl
+   * @return the data rows
+   * @throws IOException the io exception
+   */
+  public static DataRows open(String source) throws IOException {
+    String lowerCase = source.toLowerCase();
+    boolean jsonLines = lowerCase.endsWith(".jsonl") || lowerCase.endsWith(".ndjson");
+    if (!jsonLines && !lowerCase.endsWith(".csv")) {
+      throw new IllegalArgumentException(source + " is not a .csv or .jsonl data file");
+    }
+    InputStream stream = Thread.currentThread().getContextClassLoader()
+        .getResourceAsStream(source);
+    if (stream == null) {
+      File file = new File(source);
+      if (!file.isFile()) {
+        throw new IOException(source + " is not found in the classpath or the file system");
+      }
+      stream = new FileInputStream(file);
+    }
+    String charset = ApplicationConfiguration.getProperty("data-file-charset");
+    DataRows rows = new DataRows(source, new BufferedReader(new InputStreamReader(stream,
+        Charset.forName(charset != null ? charset.trim() : "utf-8"))), jsonLines);
+    if (!jsonLines) {
+      rows.header = rows.readRecord();
+      if (rows.header == null) {
+        rows.close();
+        throw new IOException(source + " has no header row");
+      }
+    }
+    return rows;
+  }
+
+  /**
+   * Count the rows of the data file, streaming it once.
+   *
+   * @param source the classpath resource or file path
+   * @return the number of rows
+   * @throws IOException the io exception
+   */
+  public static long count(String source) throws IOException {
+    try (DataRows rows = open(source)) {
+      long count = 0;
+      while (rows.skip()) {
+        count++;
+      }
+      return count;
+    }
+  }
+
+  /**
+   * Gets row number.
+   *
+   * @return the number, from 1, of the last row returned
+   */
+  public long getRowNumber() {
+    return rowNumber;
+  }
+
+  @Override
+  public boolean hasNext() {
+    if (next == null) {
+      try {
+        next = read();
+      } catch (IOException e) {
+        throw new IllegalStateException("Unable to read " + source + " : " + e.getMessage(), e);
+      }
+    }
+    return next != null;
+  }
+
+  @Override
+  public Map<String, String> next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException(source + " has no more rows");
+    }
+    Map<String, String> row = next;
+    next = null;
+    rowNumber++;
+    return row;
+  }
+
+  @Override
+  public void close() throws IOException {
+    reader.close();
+  }
+
+  private boolean skip() throws IOException {
+    if (jsonLines) {
+      return nextLine() != null;
+    }
+    return readRecord() != null;
+  }
+
+  private Map<String, String> read() throws IOException {
+    Map<String, String> row = new LinkedHashMap<>();
+    if (jsonLines) {
+      String line = nextLine();
+      if (line == null) {
+        return null;
+      }
+      try {
+        flatten("", new JSONObject(line), row);
+      } catch (RuntimeException e) {
+        throw new IOException(source + " line " + lineNumber + " is not a json object : "
+            + e.getMessage(), e);
+      }
+      return row;
+    }
+    List<String> record = readRecord();
+    if (record == null) {
+      return null;
+    }
+    for (int i = 0; i < header.size() && i < record.size(); i++) {
+      row.put(header.get(i), record.get(i));
+    }
+    return row;
+  }
+
+  /**
+   * Flattens the json to MAPson keys with the plain values.
+   */
+  private static void flatten(String prefix, Object json, Map<String, String> row) {
+    if (json instanceof JSONObject) {
+      JSONObject object = (JSONObject) json;
+      for (String key : object.keySet()) {
+        flatten(prefix.isEmpty() ? key : prefix + "." + key, object.get(key), row);
+      }
+    } else if (json instanceof JSONArray) {
+      JSONArray array = (JSONArray) json;
+      for (int i = 0; i < array.length(); i++) {
+        flatten(prefix + "[" + i + "]", array.get(i), row);
+      }
+    } else if (json != null && !JSONObject.NULL.equals(json)) {
+      row.put(prefix, String.valueOf(json));
+    }
+  }
+
+  private String nextLine() throws IOException {
+    String line;
+    while ((line = reader.readLine()) != null) {
+      lineNumber++;
+      if (lineNumber == 1) {
+        line = stripBom(line);
+      }
+      if (!line.trim().isEmpty()) {
+        return line;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Reads the next non blank csv record.
+   */
+  private List<String> readRecord() throws IOException {
+    List<String> fields = new ArrayList<>();
+    StringBuilder field = new StringBuilder();
+    boolean quoted = false;
+    boolean any = false;
+    int c;
+    while ((c = reader.read()) != -1) {
+      if (c == '\uFEFF' && lineNumber == 0 && !any) {
+        continue;
+      }
+      any = true;
+      if (quoted) {
+        if (c == '"') {
+          reader.mark(1);
+          if (reader.read() == '"') {
+            field.append('"');
+          } else {
+            reader.reset();
+            quoted = false;
+          }
+        } else {
+          field.append((char) c);
+        }
+      } else if (c == '"') {
+        quoted = true;
+      } else if (c == ',') {
+        fields.add(field.toString());
+        field.setLength(0);
+      } else if (c == '\n' || c == '\r') {
+        if (c == '\r') {
+          reader.mark(1);
+          if (reader.read() != '\n') {
+            reader.reset();
+          }
+        }
+        lineNumber++;
+        if (fields.isEmpty() && field.toString().trim().isEmpty()) {
+          field.setLength(0);
+          continue;
+        }
+        fields.add(field.toString());
+        return fields;
+      } else {
+        field.append((char) c);
+      }
+    }
+    if (quoted) {
+      throw new IOException(source + " has an unterminated quoted field");
+    }
+    if (!any || (fields.isEmpty() && field.toString().trim().isEmpty())) {
+      return null;
+    }
+    fields.add(field.toString());
+    return fields;
+  }
+
+  private static String stripBom(String line) {
+    return line.startsWith("\uFEFF") ? line.substring(1) : line;
+  }
+}
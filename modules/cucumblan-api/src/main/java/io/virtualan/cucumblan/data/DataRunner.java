@@ -0,0 +1,98 @@
+package io.virtualan.cucumblan.data;
+
+import io.cucumber.core.feature.GluePath;
+import io.virtualan.cucumblan.data.binding.DataRowBinder;
+import io.virtualan.cucumblan.load.Workload;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * The type Data runner.
+ * <p>
+ * Data driven mode: runs each selected scenario of the existing feature files
+ * once per row of a csv or jsonl data file, with the columns of the row in the
+ * scenario context (as [column], and the row number as [data-row]). The file
+ * is streamed, a row at a time, instead of being expanded into an Examples
+ * table; the rows run on the cucumber --threads, and the results are
+ * aggregated by scenario into one compact report.
+ * <pre>
+ * java io.virtualan.cucumblan.data.DataRunner --data data/pets.csv --threads 8 \
+ *   --data-report target/pets-data.json \
+ *   --glue io.virtualan.cucumblan.core --name "create pet" classpath:features
+ * </pre>
+ * Every other argument is passed to cucumber, so the scenarios are selected
+ * with the usual feature paths, --name, --tags and line filters.
+ */
+public class DataRunner {
+
+  private String data;
+  private String reportFile = "target/cucumblan-data.json";
+  private final List<String> cucumberArgs;
+  private DataRecorder recorder;
+
+  /**
+   * Instantiates a new Data runner.
+   *
+   * @param args the data and cucumber arguments
+   */
+  public DataRunner(String... args) {
+    Map<String, Consumer<String>> options = new HashMap<>();
+    options.put("--data", value -> data = value);
+    options.put("--data-report", value -> reportFile = value);
+    cucumberArgs = Workload.split(args, options);
+    if (data == null) {
+      throw new IllegalArgumentException("--data expects a csv or jsonl file");
+    }
+  }
+
+  /**
+   * The entry point of application.
+   *
+   * @param args the input arguments
+   * @throws IOException the io exception
+   */
+  public static void main(String... args) throws IOException {
+    System.exit(new DataRunner(args).run());
+  }
+
+  /**
+   * Gets recorder.
+   *
+   * @return the recorder of the run
+   */
+  public DataRecorder getRecorder() {
+    return recorder;
+  }
+
+  /**
+   * Run the scenarios for every row.
+   *
+   * @return the cucumber exit status
+   * @throws IOException the data file is not readable
+   */
+  public byte run() throws IOException {
+    DataSet dataSet = new DataSet(data);
+    if (dataSet.getRows() > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException(data + " has more than " + Integer.MAX_VALUE + " rows");
+    }
+    Workload workload = Workload.of(cucumberArgs, builder ->
+        builder.addGlue(GluePath.parse(DataRowBinder.class.getPackage().getName())));
+    if (workload.exitStatus().isPresent()) {
+      return workload.exitStatus().get();
+    }
+    recorder = new DataRecorder(dataSet);
+    byte status;
+    DataSet.activate(dataSet);
+    try {
+      status = workload.run(workload.features(), (int) dataSet.getRows(), recorder);
+    } finally {
+      DataSet.activate(null);
+      dataSet.close();
+    }
+    Workload.report(reportFile, recorder.toSummary(), recorder.toJson());
+    return status;
+  }
+}
@@ -0,0 +1,182 @@
+package io.virtualan.cucumblan.data;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+/**
+ * The type Data set.
+ * <p>
+ * The rows of a data file handed out to the scenario executions of a data
+ * driven run: every execution of a scenario claims the next row of that
+ * scenario, read from its own stream of the file, so each scenario runs once
+ * per row whatever the number of threads.
+ */
+public class DataSet {
+
+  private final static Logger LOGGER = Logger.getLogger(DataSet.class.getName());
+
+  private static volatile DataSet active;
+
+  private final String source;
+  private final long rows;
+  private final Map<String, DataRows> cursors = new ConcurrentHashMap<>();
+  private final Map<String, Row> running = new ConcurrentHashMap<>();
+  private final ThreadLocal<String> current = new ThreadLocal<>();
+
+  /**
+   * Instantiates a new Data set, counting the rows of the file.
+   *
+   * @param source the classpath resource or file path, .csv or .jsonl
+   * @throws IOException the io exception
+   */
+  public DataSet(String source) throws IOException {
+    this.source = source;
+    this.rows = DataRows.count(source);
+  }
+
+  /**
+   * Activate the data set for the binding hook.
+   *
+   * @param dataSet the data set or null to stop binding
+   */
+  public static void activate(DataSet dataSet) {
+    active = dataSet;
+  }
+
+  /**
+   * Gets active.
+   *
+   * @return the active data set or null
+   */
+  public static DataSet getActive() {
+    return active;
+  }
+
+  /**
+   * Gets source.
+   *
+   * @return the data file
+   */
+  public String getSource() {
+    return source;
+  }
+
+  /**
+   * Gets rows.
+   *
+   * @return the number of rows of the data file
+   */
+  public long getRows() {
+    return rows;
+  }
+
+  /**
+   * Scenario started on the current thread.
+   *
+   * @param testCaseId the test case id of the scenario execution
+   */
+  public void started(String testCaseId) {
+    current.set(testCaseId);
+  }
+
+  /**
+   * Claim the next row of the scenario for the execution started on the
+   * current thread; an execution that already has its row (binding glue
+   * scanned twice) gets the same row.
+   *
+   * @param scenarioId the scenario id (uri:line)
+   * @return the row or null when no data driven execution is running
+   * @throws IOException the io exception
+   */
+  public Row bind(String scenarioId) throws IOException {
+    String testCaseId = current.get();
+    if (testCaseId == null) {
+      return null;
+    }
+    Row row = running.get(testCaseId);
+    if (row != null) {
+      return row;
+    }
+    DataRows cursor = cursors.get(scenarioId);
+    if (cursor == null) {
+      cursor = cursors.computeIfAbsent(scenarioId, k -> {
+        try {
+          return DataRows.open(source);
+        } catch (IOException e) {
+          throw new IllegalStateException("Unable to open " + source + " : " + e.getMessage(), e);
+        }
+      });
+    }
+    synchronized (cursor) {
+      if (!cursor.hasNext()) {
+        throw new IllegalStateException(source + " has no more rows for " + scenarioId);
+      }
+      row = new Row(cursor.next(), cursor.getRowNumber());
+      if (!cursor.hasNext()) {
+        cursor.close();
+      }
+    }
+    running.put(testCaseId, row);
+    return row;
+  }
+
+  /**
+   * Finish the scenario execution.
+   *
+   * @param testCaseId the test case id
+   * @return the row of the execution or null
+   */
+  public Row finish(String testCaseId) {
+    current.remove();
+    return running.remove(testCaseId);
+  }
+
+  /**
+   * Close the streams of the file.
+   */
+  public void close() {
+    for (DataRows cursor : cursors.values()) {
+      try {
+        cursor.close();
+      } catch (IOException e) {
+        LOGGER.warning("Unable to close " + source + " : " + e.getMessage());
+      }
+    }
+    cursors.clear();
+  }
+
+  /**
+   * The row of a data file.
+   */
+  public static final class Row {
+
+    private final Map<String, String> values;
+    private final long number;
+
+    private Row(Map<String, String> values, long number) {
+      this.values = Collections.unmodifiableMap(values);
+      this.number = number;
+    }
+
+    /**
+     * Gets values.
+     *
+     * @return the values by column
+     */
+    public Map<String, String> getValues() {
+      return values;
+    }
+
+    /**
+     * Gets number.
+     *
+     * @return the row number, from 1
+     */
+    public long getNumber() {
+      return number;
+    }
+  }
+}
@@ -0,0 +1,47 @@
+package io.virtualan.cucumblan.data.binding;
+
+import io.cucumber.java.After;
+import io.cucumber.java.Before;
+import io.cucumber.java.Scenario;
+import io.virtualan.cucumblan.data.DataSet;
+import io.virtualan.cucumblan.props.util.ScenarioContext;
+import java.io.IOException;
+
+/**
+ * The type Data row binder.
+ * <p>
+ * Glue added by the data runner: binds the columns of the next row into the
+ * scenario context, so the steps resolve them as [column] placeholders. The
+ * context is begun here too, which is a no-op when the step glue already did.
+ */
+public class DataRowBinder {
+
+  /**
+   * Bind the row of the scenario.
+   *
+   * @param scenario the scenario
+   * @throws IOException the io exception
+   */
+  @Before(order = 20000)
+  public void bind(Scenario scenario) throws IOException {
+    DataSet dataSet = DataSet.getActive();
+    if (dataSet != null) {
+      DataSet.Row row = dataSet.bind(scenario.getId());
+      if (row != null) {
+        ScenarioContext.begin(scenario.getId());
+        row.getValues().forEach(ScenarioContext::setContext);
+        ScenarioContext.setContext("data-row", String.valueOf(row.getNumber()));
+      }
+    }
+  }
+
+  /**
+   * End the scenario context.
+   *
+   * @param scenario the scenario
+   */
+  @After(order = 20000)
+  public void end(Scenario scenario) {
+    ScenarioContext.end(scenario.getId());
+  }
+}
@@ -0,0 +1,178 @@
+package io.virtualan.cucumblan.load;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The type Arrival schedule.
+ * <p>
+ * Open model schedule: scenarios start at a constant arrival rate, after a
+ * linear ramp-up from 0, whatever the response time. Each scenario claims the
+ * next arrival slot and waits for its intended start time; when every worker is
+ * busy the scenario starts late and the delay is kept, so latencies can be
+ * measured from the intended start (corrected for coordinated omission).
+ */
+public class ArrivalSchedule {
+
+  private static volatile ArrivalSchedule active;
+
+  private final double rate;
+  private final double rampUpSeconds;
+  private final int rampUpArrivals;
+  private final int arrivals;
+  private final AtomicInteger next = new AtomicInteger();
+  private final AtomicLong startNanos = new AtomicLong(Long.MIN_VALUE);
+  private final Map<String, Slot> slots = new ConcurrentHashMap<>();
+  private final LongAdder lateStarts = new LongAdder();
+  private final ThreadLocal<String> current = new ThreadLocal<>();
+
+  /**
+   * Instantiates a new Arrival schedule.
+   *
+   * @param rate          the steady arrival rate per second
+   * @param rampUpSeconds the ramp-up duration in seconds
+   * @param steadySeconds the steady state duration in seconds
+   */
+  public ArrivalSchedule(double rate, double rampUpSeconds, double steadySeconds) {
+    if (rate <= 0 || rampUpSeconds < 0 || steadySeconds < 0) {
+      throw new IllegalArgumentException("Invalid arrival rate " + rate + "/s, ramp-up "
+          + rampUpSeconds + "s, duration " + steadySeconds + "s");
+    }
+    this.rate = rate;
+    this.rampUpSeconds = rampUpSeconds;
+    this.rampUpArrivals = (int) Math.floor(rate * rampUpSeconds / 2);
+    this.arrivals = Math.max(1, rampUpArrivals + (int) Math.floor(rate * steadySeconds));
+  }
+
+  /**
+   * Activate the schedule for the pacing hook.
+   *
+   * @param schedule the schedule or null to stop pacing
+   */
+  public static void activate(ArrivalSchedule schedule) {
+    active = schedule;
+  }
+
+  /**
+   * Gets active.
+   *
+   * @return the active schedule or null
+   */
+  public static ArrivalSchedule getActive() {
+    return active;
+  }
+
+  /**
+   * Gets rate.
+   *
+   * @return the steady arrival rate per second
+   */
+  public double getRate() {
+    return rate;
+  }
+
+  /**
+   * Gets arrivals.
+   *
+   * @return the number of arrivals of the ramp-up and steady phases
+   */
+  public int getArrivals() {
+    return arrivals;
+  }
+
+  /**
+   * Gets late starts.
+   *
+   * @return the number of scenarios started more than a millisecond late
+   */
+  public long getLateStarts() {
+    return lateStarts.sum();
+  }
+
+  /**
+   * Offset of the arrival from the start of the schedule.
+   *
+   * @param arrival the arrival index
+   * @return the offset in nanoseconds
+   */
+  public long offsetNanos(int arrival) {
+    double seconds = arrival < rampUpArrivals
+        ? Math.sqrt(2 * rampUpSeconds * arrival / rate)
+        : rampUpSeconds + (arrival - rampUpArrivals) / rate;
+    return (long) (seconds * 1e9);
+  }
+
+  /**
+   * Scenario started on the current thread.
+   *
+   * @param scenarioId the test case id of the scenario
+   */
+  public void started(String scenarioId) {
+    current.set(scenarioId);
+  }
+
+  /**
+   * Claim the next arrival slot for the scenario started on the current thread
+   * and wait for its intended start time; a scenario that already has its slot
+   * (pacing glue scanned twice) does not wait.
+   *
+   * @throws InterruptedException the interrupted exception
+   */
+  public void await() throws InterruptedException {
+    String scenarioId = current.get();
+    if (scenarioId == null || slots.containsKey(scenarioId)) {
+      return;
+    }
+    int arrival = next.getAndIncrement();
+    startNanos.compareAndSet(Long.MIN_VALUE, System.nanoTime());
+    long intended = startNanos.get() + offsetNanos(arrival);
+    long wait;
+    while ((wait = intended - System.nanoTime()) > 0) {
+      TimeUnit.NANOSECONDS.sleep(wait);
+    }
+    long actual = System.nanoTime();
+    if (actual - intended > TimeUnit.MILLISECONDS.toNanos(1)) {
+      lateStarts.increment();
+    }
+    slots.put(scenarioId, new Slot(intended, actual));
+  }
+
+  /**
+   * Gets start delay.
+   *
+   * @param scenarioId the scenario id
+   * @return the nanoseconds the scenario started after its intended start, 0 when not paced
+   */
+  public long getStartDelay(String scenarioId) {
+    Slot slot = slots.get(scenarioId);
+    return slot != null ? Math.max(0, slot.actual - slot.intended) : 0;
+  }
+
+  /**
+   * Finish the scenario.
+   *
+   * @param scenarioId the scenario id
+   * @param now        the System.nanoTime of the end of the scenario
+   * @return the service and corrected (from the intended start) times in nanoseconds, or null when not paced
+   */
+  public long[] finish(String scenarioId, long now) {
+    current.remove();
+    Slot slot = slots.remove(scenarioId);
+    return slot != null ? new long[]{now - slot.actual, now - slot.intended} : null;
+  }
+
+  private static final class Slot {
+
+    private final long intended;
+    private final long actual;
+
+    private Slot(long intended, long actual) {
+      this.intended = intended;
+      this.actual = actual;
+    }
+  }
+}
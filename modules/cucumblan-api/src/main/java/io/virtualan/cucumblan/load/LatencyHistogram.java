@@ -0,0 +1,115 @@
+package io.virtualan.cucumblan.load;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The type Latency histogram.
+ * <p>
+ * Concurrent log-linear histogram of non negative values (microseconds), in the
+ * spirit of HdrHistogram: values below 128 are counted exactly and larger values
+ * in 64 linear buckets per power of two, so a reported percentile is at most
+ * 1/64 above the recorded value.
+ */
+public class LatencyHistogram {
+
+  private static final int SUB_BUCKETS = 64;
+  private static final int BUCKETS = 58 * SUB_BUCKETS;
+
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+  private final LongAdder total = new LongAdder();
+  private final LongAdder sum = new LongAdder();
+  private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+  private final AtomicLong max = new AtomicLong(0);
+
+  /**
+   * Record the value.
+   *
+   * @param value the value
+   */
+  public void record(long value) {
+    long recorded = Math.max(0, value);
+    counts.incrementAndGet(index(recorded));
+    total.increment();
+    sum.add(recorded);
+    min.accumulateAndGet(recorded, Math::min);
+    max.accumulateAndGet(recorded, Math::max);
+  }
+
+  /**
+   * Gets count.
+   *
+   * @return the count
+   */
+  public long getCount() {
+    return total.sum();
+  }
+
+  /**
+   * Gets min.
+   *
+   * @return the min or 0 when empty
+   */
+  public long getMin() {
+    return getCount() == 0 ? 0 : min.get();
+  }
+
+  /**
+   * Gets max.
+   *
+   * @return the max
+   */
+  public long getMax() {
+    return max.get();
+  }
+
+  /**
+   * Gets mean.
+   *
+   * @return the mean or 0 when empty
+   */
+  public double getMean() {
+    long count = getCount();
+    return count == 0 ? 0 : (double) sum.sum() / count;
+  }
+
+  /**
+   * Gets value at percentile.
+   *
+   * @param percentile the percentile from 0 to 100
+   * @return the highest value equivalent to the percentile, capped to the max
+   */
+  public long getValueAtPercentile(double percentile) {
+    long count = getCount();
+    if (count == 0) {
+      return 0;
+    }
+    long target = Math.max(1, (long) Math.ceil(Math.min(100, percentile) / 100 * count));
+    long cumulative = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      cumulative += counts.get(i);
+      if (cumulative >= target) {
+        return Math.min(highestEquivalent(i), getMax());
+      }
+    }
+    return getMax();
+  }
+
+  static int index(long value) {
+    if (value < 2 * SUB_BUCKETS) {
+      return (int) value;
+    }
+    int shift = 63 - Long.numberOfLeadingZeros(value) - 6;
+    return shift * SUB_BUCKETS + (int) (value >>> shift);
+  }
+
+  static long highestEquivalent(int index) {
+    if (index < 2 * SUB_BUCKETS) {
+      return index;
+    }
+    int shift = index / SUB_BUCKETS - 1;
+    long subBucket = index - (long) shift * SUB_BUCKETS;
+    return ((subBucket + 1) << shift) - 1;
+  }
+}
@@ -0,0 +1,241 @@
+package io.virtualan.cucumblan.load;
+
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.PickleStepTestStep;
+import io.cucumber.plugin.event.Status;
+import io.cucumber.plugin.event.TestCaseFinished;
+import io.cucumber.plugin.event.TestCaseStarted;
+import io.cucumber.plugin.event.TestRunFinished;
+import io.cucumber.plugin.event.TestRunStarted;
+import io.cucumber.plugin.event.TestStepFinished;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * The type Load recorder.
+ * <p>
+ * Cucumber plugin recording the latency of every scenario and step of a load
+ * run in {@link LatencyHistogram}s, with the number of failed executions. With
+ * an {@link ArrivalSchedule} the latencies are also recorded from the intended
+ * start of the scenario, corrected for coordinated omission.
+ */
+public class LoadRecorder implements ConcurrentEventListener {
+
+  private static final double[] PERCENTILES = {50, 95, 99, 99.9};
+  private static final String[] PERCENTILE_NAMES = {"p50", "p95", "p99", "p999"};
+
+  private final ArrivalSchedule schedule;
+  private final Stats scenarios = new Stats("scenario", 0);
+  private final Map<String, Stats> steps = new ConcurrentSkipListMap<>();
+  private volatile Instant started;
+  private volatile Instant finished;
+
+  /**
+   * Instantiates a new Load recorder of a closed model run.
+   */
+  public LoadRecorder() {
+    this(null);
+  }
+
+  /**
+   * Instantiates a new Load recorder.
+   *
+   * @param schedule the arrival schedule of an open model run, or null
+   */
+  public LoadRecorder(ArrivalSchedule schedule) {
+    this.schedule = schedule;
+  }
+
+  @Override
+  public void setEventPublisher(EventPublisher eventPublisher) {
+    eventPublisher.registerHandlerFor(TestRunStarted.class, event -> started = event.getInstant());
+    if (schedule != null) {
+      eventPublisher.registerHandlerFor(TestCaseStarted.class,
+          event -> schedule.started(event.getTestCase().getId().toString()));
+    }
+    eventPublisher.registerHandlerFor(TestStepFinished.class, this::stepFinished);
+    eventPublisher.registerHandlerFor(TestCaseFinished.class, this::scenarioFinished);
+    eventPublisher.registerHandlerFor(TestRunFinished.class, event -> finished = event.getInstant());
+  }
+
+  private void stepFinished(TestStepFinished event) {
+    if (event.getTestStep() instanceof PickleStepTestStep
+        && event.getResult().getStatus() != Status.SKIPPED) {
+      PickleStepTestStep step = (PickleStepTestStep) event.getTestStep();
+      String key = String.format(Locale.ROOT, "%s:%05d", step.getUri(), step.getStepLine());
+      Stats stats = steps.computeIfAbsent(key, k -> new Stats(
+          step.getStep().getKeyword().trim() + " " + step.getStepText(), step.getStepLine()));
+      stats.record(event.getResult().getDuration(), event.getResult().getStatus());
+      if (schedule != null) {
+        stats.corrected.record((event.getResult().getDuration().toNanos()
+            + schedule.getStartDelay(event.getTestCase().getId().toString())) / 1000);
+      }
+    }
+  }
+
+  private void scenarioFinished(TestCaseFinished event) {
+    long[] times = schedule != null
+        ? schedule.finish(event.getTestCase().getId().toString(), System.nanoTime()) : null;
+    if (times == null) {
+      scenarios.record(event.getResult().getDuration(), event.getResult().getStatus());
+    } else {
+      scenarios.record(Duration.ofNanos(times[0]), event.getResult().getStatus());
+      scenarios.corrected.record(times[1] / 1000);
+    }
+  }
+
+  /**
+   * Gets the scenario histogram.
+   *
+   * @return the scenario latencies in microseconds
+   */
+  public LatencyHistogram getScenarios() {
+    return scenarios.latency;
+  }
+
+  /**
+   * Gets elapsed.
+   *
+   * @return the wall clock time of the run
+   */
+  public Duration getElapsed() {
+    if (started == null) {
+      return Duration.ZERO;
+    }
+    return Duration.between(started, finished != null ? finished : Instant.now());
+  }
+
+  /**
+   * To json.
+   *
+   * @param users the number of virtual users
+   * @return the report
+   */
+  public JSONObject toJson(int users) {
+    double seconds = Math.max(getElapsed().toNanos() / 1e9, 1e-9);
+    JSONObject report = new JSONObject();
+    report.put(schedule != null ? "maxInFlight" : "users", users);
+    if (schedule != null) {
+      report.put("targetRate", schedule.getRate());
+      report.put("lateStarts", schedule.getLateStarts());
+    }
+    report.put("elapsedMs", getElapsed().toMillis());
+    report.put("throughput", round(scenarios.latency.getCount() / seconds));
+    report.put("scenarios", scenarios.toJson());
+    JSONArray stepArray = new JSONArray();
+    for (Stats step : steps.values()) {
+      JSONObject json = step.toJson();
+      json.put("step", step.name);
+      json.put("line", step.line);
+      stepArray.put(json);
+    }
+    report.put("steps", stepArray);
+    return report;
+  }
+
+  /**
+   * To summary.
+   *
+   * @param users the number of virtual users
+   * @return the human readable report
+   */
+  public String toSummary(int users) {
+    JSONObject report = toJson(users);
+    StringBuilder summary = new StringBuilder();
+    summary.append(String.format(Locale.ROOT,
+        "%d scenarios by %d %s in %d ms, %.2f scenarios/s%n",
+        scenarios.latency.getCount(), users, schedule != null ? "workers" : "users",
+        report.getLong("elapsedMs"), report.getDouble("throughput")));
+    if (schedule != null) {
+      summary.append(String.format(Locale.ROOT,
+          "target %.2f scenarios/s, %d started more than 1 ms late%n",
+          schedule.getRate(), schedule.getLateStarts()));
+    }
+    summary.append(String.format(Locale.ROOT, "%-50s %8s %7s %9s %9s %9s %9s %9s%n",
+        "latency (ms)", "count", "errors", "mean", "p50", "p95", "p99", "p99.9"));
+    summary.append(row(scenarios, scenarios.latency));
+    for (Stats step : steps.values()) {
+      summary.append(row(step, step.latency));
+    }
+    if (schedule != null) {
+      summary.append(String.format(Locale.ROOT, "%-50s%n",
+          "from the intended start (coordinated omission corrected)"));
+      summary.append(row(scenarios, scenarios.corrected));
+      for (Stats step : steps.values()) {
+        summary.append(row(step, step.corrected));
+      }
+    }
+    return summary.toString();
+  }
+
+  private static String row(Stats stats, LatencyHistogram latency) {
+    String name = stats.line > 0 ? stats.line + " " + stats.name : stats.name;
+    return String.format(Locale.ROOT, "%-50s %8d %6.2f%% %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+        name.length() > 50 ? name.substring(0, 47) + "..." : name, latency.getCount(),
+        stats.errorRate() * 100, latency.getMean() / 1000,
+        latency.getValueAtPercentile(50) / 1000.0, latency.getValueAtPercentile(95) / 1000.0,
+        latency.getValueAtPercentile(99) / 1000.0, latency.getValueAtPercentile(99.9) / 1000.0);
+  }
+
+  private static double round(double value) {
+    return Math.round(value * 10000) / 10000.0;
+  }
+
+  private static final class Stats {
+
+    private final String name;
+    private final int line;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LatencyHistogram corrected = new LatencyHistogram();
+    private final LongAdder errors = new LongAdder();
+
+    private Stats(String name, int line) {
+      this.name = name;
+      this.line = line;
+    }
+
+    private void record(Duration duration, Status status) {
+      latency.record(duration.toNanos() / 1000);
+      if (status == Status.FAILED || status == Status.UNDEFINED || status == Status.AMBIGUOUS) {
+        errors.increment();
+      }
+    }
+
+    private double errorRate() {
+      long count = latency.getCount();
+      return count == 0 ? 0 : (double) errors.sum() / count;
+    }
+
+    private JSONObject toJson() {
+      JSONObject json = new JSONObject();
+      json.put("count", latency.getCount());
+      json.put("errors", errors.sum());
+      json.put("errorRate", round(errorRate()));
+      json.put("minUs", latency.getMin());
+      json.put("meanUs", round(latency.getMean()));
+      json.put("maxUs", latency.getMax());
+      percentiles(json, latency);
+      if (corrected.getCount() > 0) {
+        JSONObject correctedJson = new JSONObject();
+        correctedJson.put("meanUs", round(corrected.getMean()));
+        correctedJson.put("maxUs", corrected.getMax());
+        percentiles(correctedJson, corrected);
+        json.put("corrected", correctedJson);
+      }
+      return json;
+    }
+
+    private static void percentiles(JSONObject json, LatencyHistogram histogram) {
+      for (int i = 0; i < PERCENTILES.length; i++) {
+        json.put(PERCENTILE_NAMES[i] + "Us", histogram.getValueAtPercentile(PERCENTILES[i]));
+      }
+    }
+  }
+}
@@ -0,0 +1,146 @@
+package io.virtualan.cucumblan.load;
+
+import io.cucumber.core.feature.GluePath;
+import io.cucumber.core.filter.Filters;
+import io.cucumber.core.gherkin.Feature;
+import io.virtualan.cucumblan.load.pacing.ArrivalPacer;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * The type Load runner.
+ * <p>
+ * Closed model load mode: runs the selected scenarios of the existing feature
+ * files the given number of iterations by a fixed number of virtual users (the
+ * cucumber threads), each user starting the next scenario as soon as its
+ * previous one finishes. Prints the latency summary of the scenarios and steps
+ * and writes it as json.
+ * <pre>
+ * java io.virtualan.cucumblan.load.LoadRunner --iterations 100 --users 10 \
+ *   --load-report target/load-report.json \
+ *   --glue io.virtualan.cucumblan.core --name "pet" classpath:features
+ * </pre>
+ * With --rate the scenarios run as an open model instead: they start at the
+ * given rate per second (after a linear --ramp-up in seconds, for --duration
+ * seconds, rounded up to whole iterations of the selected scenarios) whatever
+ * the response time, by at most --max-in-flight workers, and the latencies are
+ * also reported from the intended start of each scenario.
+ * <pre>
+ * java io.virtualan.cucumblan.load.LoadRunner --rate 500 --ramp-up 30 --duration 120 \
+ *   --max-in-flight 200 --glue io.virtualan.cucumblan.core classpath:features
+ * </pre>
+ * Every other argument is passed to cucumber, so the scenarios are selected
+ * with the usual feature paths, --name, --tags and line filters.
+ */
+public class LoadRunner {
+
+  private int iterations = 1;
+  private int users = 1;
+  private double rate;
+  private double rampUp;
+  private double duration = 60;
+  private int maxInFlight;
+  private String reportFile = "target/cucumblan-load.json";
+  private final List<String> cucumberArgs;
+  private LoadRecorder recorder = new LoadRecorder();
+
+  /**
+   * Instantiates a new Load runner.
+   *
+   * @param args the load and cucumber arguments
+   */
+  public LoadRunner(String... args) {
+    Map<String, Consumer<String>> options = new HashMap<>();
+    options.put("--iterations", value -> iterations = positive("--iterations", value));
+    options.put("--users", value -> users = positive("--users", value));
+    options.put("--rate", value -> rate = number("--rate", value, false));
+    options.put("--ramp-up", value -> rampUp = number("--ramp-up", value, true));
+    options.put("--duration", value -> duration = number("--duration", value, true));
+    options.put("--max-in-flight", value -> maxInFlight = positive("--max-in-flight", value));
+    options.put("--load-report", value -> reportFile = value);
+    cucumberArgs = Workload.split(args, options);
+  }
+
+  /**
+   * The entry point of application.
+   *
+   * @param args the input arguments
+   */
+  public static void main(String... args) {
+    System.exit(new LoadRunner(args).run());
+  }
+
+  /**
+   * Gets recorder.
+   *
+   * @return the recorder of the run
+   */
+  public LoadRecorder getRecorder() {
+    return recorder;
+  }
+
+  private static int positive(String option, String value) {
+    try {
+      int number = Integer.parseInt(value.trim());
+      if (number > 0) {
+        return number;
+      }
+    } catch (NumberFormatException e) {
+      //fall through
+    }
+    throw new IllegalArgumentException(option + " expects a positive number : " + value);
+  }
+
+  private static double number(String option, String value, boolean zero) {
+    try {
+      double number = Double.parseDouble(value.trim());
+      if (number > 0 || (zero && number == 0)) {
+        return number;
+      }
+    } catch (NumberFormatException e) {
+      //fall through
+    }
+    throw new IllegalArgumentException(option + " expects a positive number : " + value);
+  }
+
+  /**
+   * Run the load.
+   *
+   * @return the cucumber exit status
+   */
+  public byte run() {
+    ArrivalSchedule schedule = rate > 0 ? new ArrivalSchedule(rate, rampUp, duration) : null;
+    int workers = schedule == null ? users
+        : maxInFlight > 0 ? maxInFlight : Math.max(users, (int) Math.ceil(rate));
+    Workload workload = Workload.of(cucumberArgs, builder -> {
+      builder.setThreads(workers);
+      if (schedule != null) {
+        builder.addGlue(GluePath.parse(ArrivalPacer.class.getPackage().getName()));
+      }
+    });
+    if (workload.exitStatus().isPresent()) {
+      return workload.exitStatus().get();
+    }
+    List<Feature> features = workload.features();
+    int runs = iterations;
+    if (schedule != null) {
+      Filters filters = new Filters(workload.getOptions());
+      long perIteration = features.stream().flatMap(feature -> feature.getPickles().stream())
+          .filter(filters).count();
+      runs = perIteration == 0 ? 0
+          : (int) ((schedule.getArrivals() + perIteration - 1) / perIteration);
+    }
+    recorder = new LoadRecorder(schedule);
+    byte status;
+    ArrivalSchedule.activate(schedule);
+    try {
+      status = workload.run(features, runs, recorder);
+    } finally {
+      ArrivalSchedule.activate(null);
+    }
+    Workload.report(reportFile, recorder.toSummary(workers), recorder.toJson(workers));
+    return status;
+  }
+}
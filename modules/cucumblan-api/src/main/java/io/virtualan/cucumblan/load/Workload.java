@@ -0,0 +1,158 @@
+package io.virtualan.cucumblan.load;
+
+import io.cucumber.core.feature.FeatureParser;
+import io.cucumber.core.gherkin.Feature;
+import io.cucumber.core.options.CommandlineOptionsParser;
+import io.cucumber.core.options.RuntimeOptions;
+import io.cucumber.core.options.RuntimeOptionsBuilder;
+import io.cucumber.core.runtime.FeaturePathFeatureSupplier;
+import io.cucumber.core.runtime.Runtime;
+import io.cucumber.plugin.Plugin;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+import org.json.JSONObject;
+
+/**
+ * The type Workload.
+ * <p>
+ * The cucumber side shared by the load and data runners: splits the runner
+ * options from the cucumber arguments, builds the runtime options, runs the
+ * selected features the given number of times with the recorder of the run,
+ * and writes the summary and json report. The runners keep only their own
+ * options, the number of runs and the pacing or row binding.
+ */
+public class Workload {
+
+  private final static Logger LOGGER = Logger.getLogger(Workload.class.getName());
+
+  private final CommandlineOptionsParser parser;
+  private final RuntimeOptions options;
+  private final Supplier<ClassLoader> classLoaderSupplier;
+
+  private Workload(CommandlineOptionsParser parser, RuntimeOptions options) {
+    this.parser = parser;
+    this.options = options;
+    ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+    this.classLoaderSupplier = () -> classLoader;
+  }
+
+  /**
+   * Split the arguments: the value of each runner option is given to its
+   * consumer, every other argument is kept for cucumber.
+   *
+   * @param args    the runner and cucumber arguments
+   * @param options the consumers of the runner options by name
+   * @return the cucumber arguments
+   */
+  public static List<String> split(String[] args, Map<String, Consumer<String>> options) {
+    List<String> cucumberArgs = new ArrayList<>();
+    for (int i = 0; i < args.length; i++) {
+      Consumer<String> option = options.get(args[i]);
+      if (option != null && i + 1 < args.length) {
+        option.accept(args[++i]);
+      } else {
+        cucumberArgs.add(args[i]);
+      }
+    }
+    return cucumberArgs;
+  }
+
+  /**
+   * Parse the cucumber arguments, with the default glue and feature path.
+   *
+   * @param cucumberArgs the cucumber arguments
+   * @param configure    the runner settings, such as the threads and glue
+   * @return the workload
+   */
+  public static Workload of(List<String> cucumberArgs, Consumer<RuntimeOptionsBuilder> configure) {
+    CommandlineOptionsParser parser = new CommandlineOptionsParser(System.out);
+    RuntimeOptionsBuilder builder = parser.parse(cucumberArgs.toArray(new String[0]))
+        .addDefaultGlueIfAbsent()
+        .addDefaultFeaturePathIfAbsent();
+    configure.accept(builder);
+    return new Workload(parser, builder.build());
+  }
+
+  /**
+   * Gets the exit status of the argument parsing.
+   *
+   * @return the exit status when cucumber must not run, such as for --help
+   */
+  public Optional<Byte> exitStatus() {
+    return parser.exitStatus();
+  }
+
+  /**
+   * Gets options.
+   *
+   * @return the runtime options
+   */
+  public RuntimeOptions getOptions() {
+    return options;
+  }
+
+  /**
+   * Load the selected features.
+   *
+   * @return the features
+   */
+  public List<Feature> features() {
+    return new FeaturePathFeatureSupplier(classLoaderSupplier, options,
+        new FeatureParser(UUID::randomUUID)).get();
+  }
+
+  /**
+   * Run the features the given number of times.
+   *
+   * @param features the features
+   * @param runs     the number of runs
+   * @param recorder the recorder of the run
+   * @return the cucumber exit status
+   */
+  public byte run(List<Feature> features, int runs, Plugin recorder) {
+    List<Feature> workload = new ArrayList<>(features.size() * runs);
+    for (int i = 0; i < runs; i++) {
+      workload.addAll(features);
+    }
+    Runtime runtime = Runtime.builder()
+        .withRuntimeOptions(options)
+        .withClassLoader(classLoaderSupplier)
+        .withFeatureSupplier(() -> Collections.unmodifiableList(workload))
+        .withAdditionalPlugins(recorder)
+        .build();
+    runtime.run();
+    return runtime.exitStatus();
+  }
+
+  /**
+   * Print the summary and write the json report.
+   *
+   * @param reportFile the report file
+   * @param summary    the summary
+   * @param report     the json report
+   */
+  public static void report(String reportFile, String summary, JSONObject report) {
+    System.out.println(summary);
+    try {
+      File file = new File(reportFile);
+      if (file.getParentFile() != null) {
+        file.getParentFile().mkdirs();
+      }
+      Files.write(file.toPath(), report.toString(2).getBytes(StandardCharsets.UTF_8));
+      LOGGER.info("Report written to " + file.getAbsolutePath());
+    } catch (IOException e) {
+      LOGGER.warning("Unable to write the report " + reportFile + " : " + e.getMessage());
+    }
+  }
+}
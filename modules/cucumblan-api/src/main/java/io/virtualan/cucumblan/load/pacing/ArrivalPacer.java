@@ -0,0 +1,26 @@
+package io.virtualan.cucumblan.load.pacing;
+
+import io.cucumber.java.Before;
+import io.virtualan.cucumblan.load.ArrivalSchedule;
+
+/**
+ * The type Arrival pacer.
+ * <p>
+ * Glue added by the load runner in arrival rate mode: holds every scenario
+ * until the intended start time of its arrival slot.
+ */
+public class ArrivalPacer {
+
+  /**
+   * Pace the scenario.
+   *
+   * @throws InterruptedException the interrupted exception
+   */
+  @Before(order = Integer.MIN_VALUE)
+  public void pace() throws InterruptedException {
+    ArrivalSchedule schedule = ArrivalSchedule.getActive();
+    if (schedule != null) {
+      schedule.await();
+    }
+  }
+}
@@ -4,21 +4,43 @@ import io.swagger.models.Path;
 import io.swagger.models.Swagger;
 import io.swagger.parser.Swagger20Parser;
 import io.swagger.v3.oas.models.OpenAPI;
-import io.swagger.v3.oas.models.PathItem;
 import io.swagger.v3.oas.models.Paths;
 import io.swagger.v3.parser.OpenAPIV3Parser;
 import io.virtualan.cucumblan.exception.ParserError;
 import io.virtualan.cucumblan.props.ApplicationConfiguration;
+import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.logging.Logger;
+import java.util.regex.Pattern;
+import org.apache.commons.io.IOUtils;
 
 /**
  * The type Open api parser.
+ * <p>
+ * Generates conf/endpoint.&lt;system&gt;.properties from the api spec of
+ * each system. The specs are loaded in parallel; the version of a spec is
+ * detected from its content and the hash of the content is kept in the first
+ * line of the endpoint file, so a spec is parsed again only when it changes.
  *
  * @author Elan Thangamani
  */
@@ -27,6 +49,12 @@ public class OpenAPIParser {
 
   private final static Logger LOGGER = Logger.getLogger(OpenAPIParser.class.getName());
 
+  private static final String HASH_PREFIX = "#spec-hash=";
+  private static final Pattern OPENAPI_VERSION = Pattern
+      .compile("(^|[{,])\\s*[\"']?openapi[\"']?\\s*:", Pattern.MULTILINE);
+  private static final Pattern SWAGGER_VERSION = Pattern
+      .compile("(^|[{,])\\s*[\"']?swagger[\"']?\\s*:", Pattern.MULTILINE);
+
   /**
    * Loader.
    *
@@ -34,12 +62,50 @@ public class OpenAPIParser {
    */
   public static void loader() throws ParserError {
     Map<String,String> properties = ApplicationConfiguration.getProperties();
-      for(Map.Entry<String, String> property : properties.entrySet()) {
-        if (property.getKey().indexOf(".api.spec.") != -1) {
-          init(property.getKey().substring(property.getKey().indexOf(".api.spec.") + 10),
-              property.getValue());
+    Map<String, String> specs = new LinkedHashMap<>();
+    for(Map.Entry<String, String> property : properties.entrySet()) {
+      if (property.getKey().indexOf(".api.spec.") != -1) {
+        specs.put(property.getKey().substring(property.getKey().indexOf(".api.spec.") + 10),
+            property.getValue());
+      }
+    }
+    if (specs.size() < 2) {
+      for (Map.Entry<String, String> spec : specs.entrySet()) {
+        init(spec.getKey(), spec.getValue());
+      }
+      return;
+    }
+    ExecutorService executor = Executors.newFixedThreadPool(
+        Math.min(specs.size(), Runtime.getRuntime().availableProcessors() * 2));
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (Map.Entry<String, String> spec : specs.entrySet()) {
+        futures.add(executor.submit(() -> {
+          init(spec.getKey(), spec.getValue());
+          return null;
+        }));
+      }
+      ParserError error = null;
+      for (Future<?> future : futures) {
+        try {
+          future.get();
+        } catch (ExecutionException e) {
+          if (error == null) {
+            error = e.getCause() instanceof ParserError ? (ParserError) e.getCause()
+                : new ParserError("Unable to create endpoint mapping url mapping : "
+                    + e.getCause().getMessage());
+          }
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new ParserError("Interrupted while loading the api specs");
         }
       }
+      if (error != null) {
+        throw error;
+      }
+    } finally {
+      executor.shutdown();
+    }
   }
 
   /**
@@ -50,47 +116,113 @@ public class OpenAPIParser {
    * @throws ParserError the parser error
    */
   public static void init(String system, String url) throws ParserError {
+    File endpointFile = new File("conf/endpoint." + system + ".properties");
     try {
-      if (!new File("conf/endpoint." + system + ".properties").exists()) {
-        OpenAPI openAPI = null;
-        try {
-          openAPI = new OpenAPIV3Parser().read(url);
-        }catch (Exception e){
-          //skip
-        }
-        if (openAPI == null) {
-          Swagger swagger = new Swagger20Parser().read(url, null);
-          Map<String, Path> path2s = swagger.getPaths();
-          try (Writer writer = new BufferedWriter(new OutputStreamWriter(
-              new FileOutputStream("conf/endpoint." + system + ".properties"), "utf-8"))) {
-            for (Map.Entry<String, Path> mapPath : path2s.entrySet()) {
-              writer.write(
-                  mapPath.getKey().substring(1).replaceAll("/", "_").replace("-", "_")
-                      .replace("{", "")
-                      .replace("}", "")
-                      + "=" + mapPath.getKey());
-              writer.write("\n");
-            }
-          }
+      String content = readSpec(url);
+      String hash = content != null ? hash(content) : null;
+      if (endpointFile.exists() && (hash == null || hash.equals(readHash(endpointFile)))) {
+        return;
+      }
+      Set<String> paths = isSwagger2(content) ? swaggerPaths(url, content)
+          : openApiPaths(url, content);
+      try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+          new FileOutputStream(endpointFile), "utf-8"))) {
+        if (hash != null) {
+          writer.write(HASH_PREFIX + hash);
+          writer.write("\n");
         }
-        else {
-          Paths paths = openAPI.getPaths();
-          try (Writer writer = new BufferedWriter(new OutputStreamWriter(
-              new FileOutputStream("conf/endpoint." + system + ".properties"), "utf-8"))) {
-            for (Map.Entry<String, PathItem> mapPath : paths.entrySet()) {
-              writer.write(
-                  mapPath.getKey().substring(1).replaceAll("/", "_").replace("-", "_")
-                      .replace("{", "")
-                      .replace("}", "")
-                      + "=" + mapPath.getKey());
-              writer.write("\n");
-            }
-          }
+        for (String path : paths) {
+          writer.write(
+              path.substring(1).replaceAll("/", "_").replace("-", "_")
+                  .replace("{", "")
+                  .replace("}", "")
+                  + "=" + path);
+          writer.write("\n");
         }
       }
+      LOGGER.info("Generated " + endpointFile + " from " + url);
     }catch (Exception e) {
       LOGGER.fine("Unable to create endpoint mapping url mapping : "+ e.getMessage());
       throw new ParserError("Unable to create endpoint mapping url mapping : "+ e.getMessage());
     }
   }
+
+  private static boolean isSwagger2(String content) {
+    return content != null && !OPENAPI_VERSION.matcher(content).find()
+        && SWAGGER_VERSION.matcher(content).find();
+  }
+
+  /**
+   * The paths of an open api 3 spec. The content already read and hashed is
+   * parsed, so the spec is not fetched a second time; the url is read only
+   * when the content could not be read.
+   */
+  private static Set<String> openApiPaths(String url, String content) throws IOException {
+    OpenAPI openAPI = null;
+    try {
+      openAPI = content != null ? new OpenAPIV3Parser().readContents(content).getOpenAPI()
+          : new OpenAPIV3Parser().read(url);
+    }catch (Exception e){
+      //skip
+    }
+    if (openAPI == null) {
+      return swaggerPaths(url, content);
+    }
+    Paths paths = openAPI.getPaths();
+    return paths.keySet();
+  }
+
+  private static Set<String> swaggerPaths(String url, String content) throws IOException {
+    Swagger swagger = content != null ? new Swagger20Parser().parse(content)
+        : new Swagger20Parser().read(url, null);
+    if (swagger == null) {
+      throw new IOException("Unable to parse the api spec " + url);
+    }
+    Map<String, Path> path2s = swagger.getPaths();
+    return path2s.keySet();
+  }
+
+  private static String readSpec(String url) {
+    try {
+      byte[] bytes = null;
+      if (url.startsWith("http://") || url.startsWith("https://") || url.startsWith("file:")) {
+        try (InputStream stream = new URL(url).openStream()) {
+          bytes = IOUtils.toByteArray(stream);
+        }
+      } else if (new File(url).exists()) {
+        bytes = Files.readAllBytes(new File(url).toPath());
+      } else {
+        InputStream stream = Thread.currentThread().getContextClassLoader()
+            .getResourceAsStream(url.startsWith("/") ? url.substring(1) : url);
+        if (stream != null) {
+          try (InputStream resource = stream) {
+            bytes = IOUtils.toByteArray(resource);
+          }
+        }
+      }
+      return bytes != null ? new String(bytes, StandardCharsets.UTF_8) : null;
+    } catch (IOException e) {
+      LOGGER.warning("Unable to read the api spec " + url + " : " + e.getMessage());
+      return null;
+    }
+  }
+
+  private static String readHash(File endpointFile) throws IOException {
+    try (BufferedReader reader = Files.newBufferedReader(endpointFile.toPath(),
+        StandardCharsets.UTF_8)) {
+      String line = reader.readLine();
+      return line != null && line.startsWith(HASH_PREFIX)
+          ? line.substring(HASH_PREFIX.length()).trim() : null;
+    }
+  }
+
+  private static String hash(String content) throws NoSuchAlgorithmException {
+    byte[] digest = MessageDigest.getInstance("SHA-256")
+        .digest(content.getBytes(StandardCharsets.UTF_8));
+    StringBuilder hex = new StringBuilder();
+    for (byte b : digest) {
+      hex.append(String.format("%02x", b));
+    }
+    return hex.toString();
+  }
 }
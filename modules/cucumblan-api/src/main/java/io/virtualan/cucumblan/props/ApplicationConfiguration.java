@@ -1,43 +1,90 @@
 package io.virtualan.cucumblan.props;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.net.URL;
 import java.util.Map;
-import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.logging.Logger;
+import org.apache.commons.io.IOUtils;
 
 /**
  * The type Application configuration.
+ * <p>
+ * cucumblan.properties is loaded once into an immutable {@link ConfigurationSnapshot}.
+ * Getters read the current snapshot without locking; {@link #reload()} swaps it
+ * only when the file content changed.
  *
  * @author Elan Thangamani
  */
 public class ApplicationConfiguration {
   private final static Logger LOGGER = Logger.getLogger(ApplicationConfiguration.class.getName());
 
-  private static Properties properties = new Properties();
+  private static final String CONFIGURATION_FILE = "cucumblan.properties";
 
+  private static final AtomicReference<ConfigurationSnapshot> snapshot =
+      new AtomicReference<>(ConfigurationSnapshot.EMPTY);
 
-  public static  void reload(){
+  private static final Map<String, String> overrides = new ConcurrentHashMap<>();
+
+  static {
+    reload();
+    if (snapshot.get().isConfigWatch()) {
+      ConfigurationWatcher.start(getResource());
+    }
+  }
+
+  private static URL getResource() {
+    URL url = Thread.currentThread().getContextClassLoader().getResource(CONFIGURATION_FILE);
+    if (url == null) {
+      url = ApplicationConfiguration.class.getClassLoader().getResource(CONFIGURATION_FILE);
+    }
+    return url;
+  }
+
+  /**
+   * Reload cucumblan.properties. The snapshot is replaced only when the content changed.
+   */
+  public static synchronized void reload() {
     try {
-      InputStream stream = Thread.currentThread().getContextClassLoader().getResourceAsStream("cucumblan.properties");
-      if(stream == null) {
-        stream = ApplicationConfiguration.class.getClassLoader().getResourceAsStream("cucumblan.properties");
-      }
-      if(stream != null) {
-        properties.load(stream);
-      } else {
+      URL url = getResource();
+      if (url == null) {
         LOGGER.warning("unable to load cucumblan.properties");
+        return;
+      }
+      byte[] content;
+      try (InputStream stream = url.openStream()) {
+        content = IOUtils.toByteArray(stream);
       }
-    } catch (Exception e) {
+      if (snapshot.get() == ConfigurationSnapshot.EMPTY
+          || !snapshot.get().isSameContent(content)) {
+        snapshot.set(ConfigurationSnapshot.of(content, overrides));
+        LOGGER.fine("cucumblan.properties (re)loaded");
+      }
+    } catch (IOException e) {
       LOGGER.warning("cucumblan.properties not found");
     }
   }
 
   /**
-   * Gets properties.
+   * Gets the current configuration snapshot.
+   *
+   * @return the snapshot
+   */
+  public static ConfigurationSnapshot getSnapshot() {
+    return snapshot.get();
+  }
+
+  /**
+   * Sets property. The value survives later reloads of cucumblan.properties.
    *
+   * @param key   the key
+   * @param value the value
    */
-  public static void setProperty(String key, String value) {
-    properties.put(key, value);
+  public static synchronized void setProperty(String key, String value) {
+    overrides.put(key, value);
+    snapshot.set(snapshot.get().with(key, value));
   }
 
   /**
@@ -46,9 +93,7 @@ public class ApplicationConfiguration {
    * @return the property
    */
   public static boolean getInline() {
-    ApplicationConfiguration.reload();
-    return properties.getProperty("data-inline") != null ?
-        properties.getProperty("data-inline").equalsIgnoreCase("true") : true;
+    return snapshot.get().isInline();
   }
 
   /**
@@ -57,9 +102,7 @@ public class ApplicationConfiguration {
    * @return the property
    */
   public static boolean isProdMode() {
-    ApplicationConfiguration.reload();
-    return properties.getProperty("prod-mode") != null ?
-        properties.getProperty("prod-mode").equalsIgnoreCase("true") : false;
+    return snapshot.get().isProdMode();
   }
 
 
@@ -69,21 +112,16 @@ public class ApplicationConfiguration {
    * @return the property
    */
   public static String getStandardPackage() {
-    ApplicationConfiguration.reload();
-    return properties.getProperty("standard-package") != null ?
-        properties.getProperty("standard-package") : "io.virtualan.cucumblan.standard";
+    return snapshot.get().getStandardPackage();
   }
-  /**
 
-   /**
+  /**
    * Gets property.
    *
    * @return the property
    */
   public static String getMessageTypePackage() {
-    ApplicationConfiguration.reload();
-    return properties.getProperty("message-package") != null ?
-        properties.getProperty("message-package") : "io.virtualan.cucumblan.message.typeimpl";
+    return snapshot.get().getMessageTypePackage();
   }
 
   /**
@@ -92,35 +130,27 @@ public class ApplicationConfiguration {
    * @return the property
    */
   public static String getActionPackage() {
-    ApplicationConfiguration.reload();
-    return properties.getProperty("action-package") != null ?
-        properties.getProperty("action-package") : "io.virtualan.cucumblan.ui.actionimpl";
+    return snapshot.get().getActionPackage();
   }
-  /**
 
-
-   /**
+  /**
    * Gets property.
    *
    * @param keyName the key name
    * @return the property
    */
   public static boolean getBoolean(String keyName) {
-    ApplicationConfiguration.reload();
-    return properties.getProperty(keyName) != null ?
-        properties.getProperty(keyName).equalsIgnoreCase("true") : false;
+    return snapshot.get().getBoolean(keyName);
   }
 
 
   /**
    * Gets properties.
    *
-   * @return the properties
+   * @return the unmodifiable properties
    */
   public static Map<String, String> getProperties() {
-
-    ApplicationConfiguration.reload();
-    return (Map)properties;
+    return snapshot.get().getProperties();
   }
 
   /**
@@ -130,14 +160,15 @@ public class ApplicationConfiguration {
    * @return the property
    */
   public static String getProperty(String keyName) {
-
-    ApplicationConfiguration.reload();
-    return properties.getProperty(keyName);
+    return snapshot.get().getProperty(keyName);
   }
 
+  /**
+   * Gets message count.
+   *
+   * @return the message count
+   */
   public static int getMessageCount() {
-    ApplicationConfiguration.reload();
-    return properties.getProperty("wait-message-count") != null ?
-        Integer.parseInt(properties.getProperty("wait-message-count")) : 2;
+    return snapshot.get().getMessageCount();
   }
 }
@@ -0,0 +1,213 @@
+package io.virtualan.cucumblan.props;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.logging.Logger;
+
+/**
+ * The type Configuration snapshot.
+ * <p>
+ * Immutable, typed view of cucumblan.properties. A snapshot is built once per
+ * change of the file content and shared by all the scenarios, so reads never
+ * touch the classpath and never need a lock.
+ */
+public final class ConfigurationSnapshot {
+
+  private final static Logger LOGGER = Logger.getLogger(ConfigurationSnapshot.class.getName());
+
+  /**
+   * The empty snapshot used before cucumblan.properties is loaded.
+   */
+  static final ConfigurationSnapshot EMPTY = new ConfigurationSnapshot(new byte[0],
+      Collections.emptyMap());
+
+  private final byte[] digest;
+  private final Map<String, String> properties;
+  private final boolean inline;
+  private final boolean prodMode;
+  private final boolean configWatch;
+  private final String standardPackage;
+  private final String messageTypePackage;
+  private final String actionPackage;
+  private final int messageCount;
+
+  private ConfigurationSnapshot(byte[] digest, Map<String, String> properties) {
+    this.digest = digest;
+    this.properties = Collections.unmodifiableMap(properties);
+    this.inline = properties.get("data-inline") == null
+        || properties.get("data-inline").equalsIgnoreCase("true");
+    this.prodMode = "true".equalsIgnoreCase(properties.get("prod-mode"));
+    this.configWatch = "true".equalsIgnoreCase(properties.get("config-watch"));
+    this.standardPackage = properties.getOrDefault("standard-package",
+        "io.virtualan.cucumblan.standard");
+    this.messageTypePackage = properties.getOrDefault("message-package",
+        "io.virtualan.cucumblan.message.typeimpl");
+    this.actionPackage = properties.getOrDefault("action-package",
+        "io.virtualan.cucumblan.ui.actionimpl");
+    this.messageCount = parseInt(properties.get("wait-message-count"), 2);
+  }
+
+  /**
+   * Builds a snapshot from the raw cucumblan.properties content. The overrides
+   * (set through {@link ApplicationConfiguration#setProperty(String, String)})
+   * take precedence over the file.
+   *
+   * @param content   the content
+   * @param overrides the overrides
+   * @return the configuration snapshot
+   * @throws IOException the io exception
+   */
+  static ConfigurationSnapshot of(byte[] content, Map<String, String> overrides)
+      throws IOException {
+    Properties loaded = new Properties();
+    loaded.load(new ByteArrayInputStream(content));
+    Map<String, String> values = new HashMap<>();
+    for (String name : loaded.stringPropertyNames()) {
+      values.put(name, loaded.getProperty(name));
+    }
+    values.putAll(overrides);
+    return new ConfigurationSnapshot(digest(content), values);
+  }
+
+  /**
+   * Returns a copy of this snapshot with one more property.
+   *
+   * @param key   the key
+   * @param value the value
+   * @return the configuration snapshot
+   */
+  ConfigurationSnapshot with(String key, String value) {
+    Map<String, String> values = new HashMap<>(properties);
+    values.put(key, value);
+    return new ConfigurationSnapshot(digest, values);
+  }
+
+  /**
+   * Is same content boolean.
+   *
+   * @param content the content
+   * @return true when the snapshot was built from the same file content
+   */
+  boolean isSameContent(byte[] content) {
+    return Arrays.equals(digest, digest(content));
+  }
+
+  private static byte[] digest(byte[] content) {
+    try {
+      return MessageDigest.getInstance("SHA-256").digest(content);
+    } catch (NoSuchAlgorithmException e) {
+      return content.clone();
+    }
+  }
+
+  private static int parseInt(String value, int defaultValue) {
+    if (value == null) {
+      return defaultValue;
+    }
+    try {
+      return Integer.parseInt(value.trim());
+    } catch (NumberFormatException e) {
+      LOGGER.warning("invalid number (" + value + ") using default : " + defaultValue);
+      return defaultValue;
+    }
+  }
+
+  /**
+   * Gets properties.
+   *
+   * @return the unmodifiable properties
+   */
+  public Map<String, String> getProperties() {
+    return properties;
+  }
+
+  /**
+   * Gets property.
+   *
+   * @param keyName the key name
+   * @return the property
+   */
+  public String getProperty(String keyName) {
+    return properties.get(keyName);
+  }
+
+  /**
+   * Gets boolean.
+   *
+   * @param keyName the key name
+   * @return the boolean
+   */
+  public boolean getBoolean(String keyName) {
+    return "true".equalsIgnoreCase(properties.get(keyName));
+  }
+
+  /**
+   * Is inline boolean.
+   *
+   * @return the boolean
+   */
+  public boolean isInline() {
+    return inline;
+  }
+
+  /**
+   * Is prod mode boolean.
+   *
+   * @return the boolean
+   */
+  public boolean isProdMode() {
+    return prodMode;
+  }
+
+  /**
+   * Is config watch boolean.
+   *
+   * @return the boolean
+   */
+  public boolean isConfigWatch() {
+    return configWatch;
+  }
+
+  /**
+   * Gets standard package.
+   *
+   * @return the standard package
+   */
+  public String getStandardPackage() {
+    return standardPackage;
+  }
+
+  /**
+   * Gets message type package.
+   *
+   * @return the message type package
+   */
+  public String getMessageTypePackage() {
+    return messageTypePackage;
+  }
+
+  /**
+   * Gets action package.
+   *
+   * @return the action package
+   */
+  public String getActionPackage() {
+    return actionPackage;
+  }
+
+  /**
+   * Gets message count.
+   *
+   * @return the message count
+   */
+  public int getMessageCount() {
+    return messageCount;
+  }
+}
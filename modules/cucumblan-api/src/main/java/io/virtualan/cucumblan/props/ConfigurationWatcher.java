@@ -0,0 +1,94 @@
+package io.virtualan.cucumblan.props;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+
+import java.net.URL;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.logging.Logger;
+
+/**
+ * The type Configuration watcher.
+ * <p>
+ * Opt-in (config-watch=true) watcher of cucumblan.properties. Only works when
+ * the file is on the file system (not packaged in a jar). Every change event
+ * triggers {@link ApplicationConfiguration#reload()}, which swaps the snapshot
+ * only when the content really changed.
+ */
+class ConfigurationWatcher implements Runnable {
+
+  private final static Logger LOGGER = Logger.getLogger(ConfigurationWatcher.class.getName());
+
+  private static volatile Thread watcherThread;
+
+  private final WatchService watchService;
+  private final Path file;
+
+  private ConfigurationWatcher(WatchService watchService, Path file) {
+    this.watchService = watchService;
+    this.file = file;
+  }
+
+  /**
+   * Start watching the given configuration resource once.
+   *
+   * @param resource the resource
+   */
+  static synchronized void start(URL resource) {
+    if (watcherThread != null || resource == null) {
+      return;
+    }
+    if (!"file".equalsIgnoreCase(resource.getProtocol())) {
+      LOGGER.warning("config-watch is enabled but " + resource + " is not a file; skipping watch");
+      return;
+    }
+    try {
+      Path file = Paths.get(resource.toURI());
+      WatchService watchService = FileSystems.getDefault().newWatchService();
+      file.getParent().register(watchService, ENTRY_CREATE, ENTRY_MODIFY);
+      Thread thread = new Thread(new ConfigurationWatcher(watchService, file),
+          "cucumblan-config-watcher");
+      thread.setDaemon(true);
+      thread.start();
+      watcherThread = thread;
+      LOGGER.info("watching " + file + " for changes");
+    } catch (Exception e) {
+      LOGGER.warning("unable to watch cucumblan.properties : " + e.getMessage());
+    }
+  }
+
+  @Override
+  public void run() {
+    try {
+      while (!Thread.currentThread().isInterrupted()) {
+        WatchKey key = watchService.take();
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+          Object context = event.context();
+          if (context instanceof Path && file.getFileName().equals(context)) {
+            changed = true;
+          }
+        }
+        if (changed) {
+          ApplicationConfiguration.reload();
+        }
+        if (!key.reset()) {
+          break;
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      try {
+        watchService.close();
+      } catch (Exception e) {
+        LOGGER.fine("unable to close watch service : " + e.getMessage());
+      }
+    }
+  }
+}
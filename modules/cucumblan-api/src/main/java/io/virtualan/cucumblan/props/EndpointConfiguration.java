@@ -1,18 +1,23 @@
 package io.virtualan.cucumblan.props;
 
-import io.cucumber.java.af.En;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FilenameFilter;
 import java.io.IOException;
 import java.io.InputStreamReader;
-import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * The type Endpoint configuration.
+ * <p>
+ * Holds conf/endpoint.&lt;system&gt;.properties and the {@link EndpointIndex}
+ * built from them, which is rebuilt when the endpoints are loaded again or the
+ * application configuration changes.
  *
  * @author Elan Thangamani
  */
@@ -22,7 +27,9 @@ public class EndpointConfiguration {
 
 	}
 
-	private static EndpointConfiguration endpointConfiguration = null;
+	private static class Holder {
+		private static final EndpointConfiguration INSTANCE = new EndpointConfiguration();
+	}
 
   /**
    * Gets instance.
@@ -30,18 +37,17 @@ public class EndpointConfiguration {
    * @return the instance
    */
   public static EndpointConfiguration getInstance() {
-		if (endpointConfiguration == null) {
-			endpointConfiguration  = new EndpointConfiguration();
-		}
-		return endpointConfiguration;
+		return Holder.INSTANCE;
 	}
 
-	private static Map<String, Properties> propertiesMap = new HashMap<String, Properties>();
+	private volatile Map<String, Properties> propertiesMap = Collections.emptyMap();
+
+	private final AtomicReference<EndpointIndex> index = new AtomicReference<>();
 
   /**
    * Load endpoints.
    */
-  public  void loadEndpoints() {
+  public synchronized void loadEndpoints() {
 
   	File directory = new File("conf/");
 		String[] myFiles = directory.list(new FilenameFilter() {
@@ -49,18 +55,20 @@ public class EndpointConfiguration {
 				return fileName.matches("endpoint.*.properties");
 			}
 		});
-		int i = 0;
+		Map<String, Properties> endpoints = new HashMap<>(propertiesMap);
 		if(myFiles != null) {
 			for (String file : myFiles) {
 				Properties resourceEndPoint = new Properties();
-				try {
-					resourceEndPoint.load(new InputStreamReader(new FileInputStream("conf/" + file)));
-					propertiesMap
+				try (InputStreamReader reader = new InputStreamReader(
+						new FileInputStream("conf/" + file), StandardCharsets.UTF_8)) {
+					resourceEndPoint.load(reader);
+					endpoints
 							.put(file.substring(file.indexOf(".") + 1, file.lastIndexOf(".")), resourceEndPoint);
 				} catch (IOException e) {
 				}
 			}
 		}
+		propertiesMap = Collections.unmodifiableMap(endpoints);
 	}
 
   /**
@@ -72,6 +80,23 @@ public class EndpointConfiguration {
   public Properties getProperty(String keyName) {
 		return propertiesMap.get(keyName);
 	}
+
+  /**
+   * Gets index.
+   *
+   * @return the endpoint index of the current application configuration
+   */
+  public EndpointIndex getIndex() {
+		ConfigurationSnapshot snapshot = ApplicationConfiguration.getSnapshot();
+		Map<String, Properties> endpoints = propertiesMap;
+		EndpointIndex current = index.get();
+		if (current == null || !current.isBuiltFrom(snapshot, endpoints)) {
+			EndpointIndex built = EndpointIndex.build(snapshot, endpoints);
+			index.compareAndSet(current, built);
+			return built;
+		}
+		return current;
+	}
 	
 }
 
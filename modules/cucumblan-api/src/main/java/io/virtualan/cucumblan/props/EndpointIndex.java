@@ -0,0 +1,126 @@
+package io.virtualan.cucumblan.props;
+
+import io.virtualan.cucumblan.props.util.PlaceholderTemplate;
+import io.virtualan.cucumblan.props.util.ScenarioContext;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * The type Endpoint index.
+ * <p>
+ * Immutable (system, resource key) to url index built from a configuration
+ * snapshot and the endpoint properties. Each url is kept with its compiled
+ * placeholder template, so resolving a request only renders the placeholders.
+ * Resources that are not listed in the endpoint properties are resolved from
+ * the snapshot on each call.
+ */
+public final class EndpointIndex {
+
+  private final ConfigurationSnapshot snapshot;
+  private final Map<String, Properties> endpoints;
+  private final Map<String, Map<String, ResolvedResource>> resources;
+
+  private EndpointIndex(ConfigurationSnapshot snapshot, Map<String, Properties> endpoints,
+      Map<String, Map<String, ResolvedResource>> resources) {
+    this.snapshot = snapshot;
+    this.endpoints = endpoints;
+    this.resources = resources;
+  }
+
+  /**
+   * Build the index.
+   *
+   * @param snapshot  the configuration snapshot
+   * @param endpoints the endpoint properties by system
+   * @return the endpoint index
+   */
+  static EndpointIndex build(ConfigurationSnapshot snapshot, Map<String, Properties> endpoints) {
+    Map<String, Map<String, ResolvedResource>> resources = new HashMap<>();
+    for (Map.Entry<String, Properties> endpoint : endpoints.entrySet()) {
+      String system = endpoint.getKey();
+      Map<String, ResolvedResource> systemResources = new HashMap<>();
+      for (String key : endpoint.getValue().stringPropertyNames()) {
+        ResolvedResource resource = resolve(snapshot, system, endpoint.getValue()
+            .getProperty(key));
+        if (resource != null) {
+          systemResources.put(key, resource);
+        }
+      }
+      resources.put(system, Collections.unmodifiableMap(systemResources));
+    }
+    return new EndpointIndex(snapshot, endpoints, Collections.unmodifiableMap(resources));
+  }
+
+  /**
+   * Is built from boolean.
+   *
+   * @param snapshot  the snapshot
+   * @param endpoints the endpoint properties by system
+   * @return true when the index was built from the snapshot and endpoints
+   */
+  boolean isBuiltFrom(ConfigurationSnapshot snapshot, Map<String, Properties> endpoints) {
+    return this.snapshot == snapshot && this.endpoints == endpoints;
+  }
+
+  /**
+   * Gets host name.
+   *
+   * @param resourceKey the resource key
+   * @param system      the system
+   * @return the service.api.&lt;system&gt; url, the service.api url or the resource key
+   */
+  public String getHostName(String resourceKey, String system) {
+    String host = snapshot.getProperty("service.api." + system);
+    if (host == null) {
+      host = snapshot.getProperty("service.api");
+    }
+    return host != null ? host : resourceKey;
+  }
+
+  /**
+   * Gets actual resource.
+   *
+   * @param resourceKey the resource key
+   * @param system      the system
+   * @return the url or null when neither service.api.&lt;system&gt; nor service.api is set
+   */
+  public String getActualResource(String resourceKey, String system) {
+    Map<String, ResolvedResource> systemResources = resources.get(system);
+    ResolvedResource resource = systemResources != null ? systemResources.get(resourceKey) : null;
+    if (resource == null) {
+      resource = resolve(snapshot, system, resourceKey);
+    }
+    return resource != null ? resource.render() : null;
+  }
+
+  private static ResolvedResource resolve(ConfigurationSnapshot snapshot, String system,
+      String path) {
+    String host = snapshot.getProperty("service.api." + system);
+    if (host != null) {
+      return new ResolvedResource(host + path, true);
+    }
+    host = snapshot.getProperty("service.api");
+    return host != null ? new ResolvedResource(host + path, false) : null;
+  }
+
+  /**
+   * Url of a resource with its placeholders split up front.
+   */
+  private static final class ResolvedResource {
+
+    private final String url;
+    private final PlaceholderTemplate template;
+
+    private ResolvedResource(String url, boolean resolvePlaceholders) {
+      this.url = url;
+      this.template = resolvePlaceholders && url.indexOf('[') != -1
+          ? PlaceholderTemplate.compile(url) : null;
+    }
+
+    private String render() {
+      return template != null ? template.render(ScenarioContext.getContext()) : url;
+    }
+  }
+}
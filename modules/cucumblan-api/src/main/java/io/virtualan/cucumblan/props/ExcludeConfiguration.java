@@ -3,12 +3,14 @@ package io.virtualan.cucumblan.props;
 
 import java.io.InputStream;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Logger;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 /**
  * The type Application configuration.
+ * <p>
+ * exclude-response.properties is compiled once into an {@link ExcludeMatcher}
+ * that is rebuilt on reload.
  *
  * @author Elan Thangamani
  */
@@ -28,11 +30,18 @@ public class ExcludeConfiguration {
   static String excludes = null;
   private final static Logger LOGGER = Logger.getLogger(ExcludeConfiguration.class.getName());
 
+  private static final int MAX_COMPILED_MAPS = 16;
+  private static volatile ExcludeMatcher matcher = ExcludeMatcher.compile(excludeProperties);
+  private static final Map<Map<String, String>, ExcludeMatcher> compiledMaps = new ConcurrentHashMap<>();
+
   static {
     reload();
   }
 
-  public static  void reload() {
+  /**
+   * Reload exclude-response.properties and recompile the matcher.
+   */
+  public static synchronized void reload() {
     try {
       InputStream stream = Thread.currentThread().getContextClassLoader().getResourceAsStream("exclude-response.properties");
       if(stream == null) {
@@ -47,24 +56,7 @@ public class ExcludeConfiguration {
     } catch (Exception e) {
       LOGGER.warning("exclude-response.properties is not loaded");
     }
-  }
-
-  private static boolean findMatch(Map<String,String> excludeProperties, String actual) {
-    for (Map.Entry entry : excludeProperties.entrySet()) {
-      if (actual.matches(entry.getKey().toString())){
-        return entry.getValue().toString().equalsIgnoreCase("IGNORE");
-      }
-    }
-    return false;
-  }
-
-  private static boolean findMatch(String actual) {
-    for (Map.Entry entry : excludeProperties.entrySet()) {
-      if (actual.matches(entry.getKey().toString())){
-        return entry.getValue().toString().equalsIgnoreCase("IGNORE");
-      }
-    }
-    return false;
+    matcher = ExcludeMatcher.compile(excludeProperties);
   }
 
   /**
@@ -75,36 +67,19 @@ public class ExcludeConfiguration {
    * @return the property
    */
   public static boolean shouldSkip(String resource,String keyName) {
-    String excludes = excludeProperties.getProperty(resource);
-    if(excludes != null &&  excludes.equalsIgnoreCase("IGNORE")) {
-      LOGGER.info(" Skipping response comparison for resource : "+ resource );
-      return true;
-    }else if (excludes != null && keyName != null && !excludes.trim().isEmpty()) {
-      excludeList = Stream.of(excludes.split(",")).collect(Collectors.toList());
-      return excludeList.contains(keyName) || excludeList.stream().anyMatch(x -> keyName.contains(x));
-    } else if(excludes == null && findMatch(resource)){
-      LOGGER.info(" Skipping comparison for resource based on pattern : " + resource);
-      return true;
-    }
-    return false;
+    return matcher.shouldSkip(resource, keyName);
   }
 
   public static boolean shouldSkip(Map<String,String> excludeProperties, String resource, String keyName) {
-    String excludes = excludeProperties.get(resource);
-    if (excludes != null && excludes.equalsIgnoreCase("IGNORE")) {
-      LOGGER.info(" Skipping response comparison for resource : " + resource);
-      return true;
-    } else if (excludes != null && keyName != null && !excludes.trim().isEmpty()) {
-      List<String> excludeList = (List)Stream.of(excludes.split(",")).collect(Collectors.toList());
-      return excludeList.contains(keyName) || excludeList.stream().anyMatch((x) -> {
-        return keyName.contains(x);
-      });
-    } else if (excludes == null && findMatch(excludeProperties, resource)) {
-      LOGGER.info(" Skipping comparison for resource based on pattern : " + resource);
-      return true;
-    } else {
-      return false;
+    ExcludeMatcher compiled = compiledMaps.get(excludeProperties);
+    if (compiled == null) {
+      if (compiledMaps.size() >= MAX_COMPILED_MAPS) {
+        compiledMaps.clear();
+      }
+      compiled = ExcludeMatcher.compile(excludeProperties);
+      compiledMaps.put(new LinkedHashMap<>(excludeProperties), compiled);
     }
+    return compiled.shouldSkip(resource, keyName);
   }
 
 
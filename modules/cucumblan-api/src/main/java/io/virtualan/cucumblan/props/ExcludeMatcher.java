@@ -0,0 +1,214 @@
+package io.virtualan.cucumblan.props;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * The type Exclude matcher.
+ * <p>
+ * Compiled form of the exclude-response properties. Resources listed by name
+ * get a substring automaton over their comma separated keys, the other entries
+ * are compiled once as resource patterns, and the (resource, key) decisions are
+ * memoized so the flattened keys of a wide response are checked in linear time.
+ */
+final class ExcludeMatcher {
+
+  private final static Logger LOGGER = Logger.getLogger(ExcludeMatcher.class.getName());
+
+  private static final String IGNORE = "IGNORE";
+  private static final int MAX_KEYS_PER_RESOURCE = 10000;
+
+  private final Map<String, Rule> rules = new HashMap<>();
+  private final List<Pattern> patterns = new ArrayList<>();
+  private final List<Boolean> patternIgnores = new ArrayList<>();
+  private final Map<String, Boolean> resourceDecisions = new ConcurrentHashMap<>();
+
+  private ExcludeMatcher() {
+  }
+
+  /**
+   * Compile the exclude properties. The resource patterns are tried in the
+   * iteration order of the given map.
+   *
+   * @param properties the properties
+   * @return the exclude matcher
+   */
+  static ExcludeMatcher compile(Map<?, ?> properties) {
+    ExcludeMatcher matcher = new ExcludeMatcher();
+    for (Map.Entry<?, ?> entry : properties.entrySet()) {
+      String resource = entry.getKey().toString();
+      String excludes = entry.getValue().toString();
+      matcher.rules.put(resource, new Rule(resource, excludes));
+      try {
+        matcher.patterns.add(Pattern.compile(resource));
+        matcher.patternIgnores.add(excludes.equalsIgnoreCase(IGNORE));
+      } catch (PatternSyntaxException e) {
+        LOGGER.warning("exclude-response entry " + resource + " is not a valid pattern : "
+            + e.getDescription());
+      }
+    }
+    return matcher;
+  }
+
+  /**
+   * Should skip boolean.
+   *
+   * @param resource the resource
+   * @param keyName  the key name
+   * @return the boolean
+   */
+  boolean shouldSkip(String resource, String keyName) {
+    Rule rule = rules.get(resource);
+    if (rule != null) {
+      return rule.shouldSkip(keyName);
+    }
+    return resourceDecisions.computeIfAbsent(resource, this::matchResource);
+  }
+
+  private boolean matchResource(String resource) {
+    for (int i = 0; i < patterns.size(); i++) {
+      if (patterns.get(i).matcher(resource).matches()) {
+        if (patternIgnores.get(i)) {
+          LOGGER.info(" Skipping comparison for resource based on pattern : " + resource);
+        }
+        return patternIgnores.get(i);
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Exclude rule of a resource listed by name.
+   */
+  private static final class Rule {
+
+    private final String resource;
+    private final boolean ignore;
+    private final SubstringAutomaton keys;
+    private final Map<String, Boolean> decisions = new ConcurrentHashMap<>();
+    private volatile boolean logged;
+
+    private Rule(String resource, String excludes) {
+      this.resource = resource;
+      this.ignore = excludes.equalsIgnoreCase(IGNORE);
+      this.keys = ignore || excludes.trim().isEmpty() ? null
+          : new SubstringAutomaton(excludes.split(","));
+    }
+
+    private boolean shouldSkip(String keyName) {
+      if (ignore) {
+        if (!logged) {
+          logged = true;
+          LOGGER.info(" Skipping response comparison for resource : " + resource);
+        }
+        return true;
+      } else if (keys == null || keyName == null) {
+        return false;
+      }
+      Boolean decision = decisions.get(keyName);
+      if (decision == null) {
+        decision = keys.matchesAny(keyName);
+        if (decisions.size() < MAX_KEYS_PER_RESOURCE) {
+          decisions.put(keyName, decision);
+        }
+      }
+      return decision;
+    }
+  }
+
+  /**
+   * Aho-Corasick automaton telling whether any of the words occurs in a text.
+   */
+  static final class SubstringAutomaton {
+
+    private final List<Map<Character, Integer>> transitions = new ArrayList<>();
+    private final List<Integer> failures = new ArrayList<>();
+    private final List<Boolean> terminals = new ArrayList<>();
+    private final boolean matchesEverything;
+
+    SubstringAutomaton(String... words) {
+      boolean empty = false;
+      addState();
+      for (String word : words) {
+        if (word.isEmpty()) {
+          empty = true;
+          continue;
+        }
+        int state = 0;
+        for (int i = 0; i < word.length(); i++) {
+          Integer next = transitions.get(state).get(word.charAt(i));
+          if (next == null) {
+            next = addState();
+            transitions.get(state).put(word.charAt(i), next);
+          }
+          state = next;
+        }
+        terminals.set(state, true);
+      }
+      matchesEverything = empty;
+      buildFailures();
+    }
+
+    private int addState() {
+      transitions.add(new HashMap<>());
+      failures.add(0);
+      terminals.add(false);
+      return transitions.size() - 1;
+    }
+
+    private void buildFailures() {
+      Queue<Integer> queue = new ArrayDeque<>(transitions.get(0).values());
+      while (!queue.isEmpty()) {
+        int state = queue.poll();
+        for (Map.Entry<Character, Integer> edge : transitions.get(state).entrySet()) {
+          int child = edge.getValue();
+          int failure = failures.get(state);
+          while (failure != 0 && !transitions.get(failure).containsKey(edge.getKey())) {
+            failure = failures.get(failure);
+          }
+          Integer target = transitions.get(failure).get(edge.getKey());
+          failure = target != null && target != child ? target : 0;
+          failures.set(child, failure);
+          if (terminals.get(failure)) {
+            terminals.set(child, true);
+          }
+          queue.add(child);
+        }
+      }
+    }
+
+    /**
+     * Matches any boolean.
+     *
+     * @param text the text
+     * @return true when one of the words is a substring of the text
+     */
+    boolean matchesAny(String text) {
+      if (matchesEverything) {
+        return true;
+      }
+      int state = 0;
+      for (int i = 0; i < text.length(); i++) {
+        char c = text.charAt(i);
+        Integer next = transitions.get(state).get(c);
+        while (next == null && state != 0) {
+          state = failures.get(state);
+          next = transitions.get(state).get(c);
+        }
+        state = next == null ? 0 : next;
+        if (terminals.get(state)) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+}
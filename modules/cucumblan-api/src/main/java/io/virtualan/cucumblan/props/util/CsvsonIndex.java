@@ -0,0 +1,101 @@
+package io.virtualan.cucumblan.props.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.skyscreamer.jsonassert.JSONCompare;
+import org.skyscreamer.jsonassert.JSONCompareMode;
+
+/**
+ * The type Csvson index.
+ * <p>
+ * Buckets the actual rows by the values of the scalar fields of an expected
+ * row, so the full comparison runs only against the rows of the same bucket. A
+ * row can only match when those fields are equal (numbers as doubles, like
+ * JSONCompare), in every compare mode. One index is built per distinct set of
+ * scalar fields of the expected rows.
+ */
+final class CsvsonIndex {
+
+  private static final Object MISSING = new Object();
+
+  private final JSONArray actualArray;
+  private final Map<List<String>, Map<List<Object>, List<JSONObject>>> indexes = new HashMap<>();
+
+  /**
+   * Instantiates a new Csvson index.
+   *
+   * @param actualArray the actual rows
+   */
+  CsvsonIndex(JSONArray actualArray) {
+    this.actualArray = actualArray;
+  }
+
+  /**
+   * Is match found boolean.
+   *
+   * @param expected the expected row
+   * @param mode     the mode
+   * @return true when one of the actual rows matches the expected row
+   */
+  boolean isMatchFound(JSONObject expected, JSONCompareMode mode) {
+    List<String> fields = scalarFields(expected);
+    List<JSONObject> bucket = indexes.computeIfAbsent(fields, this::index)
+        .getOrDefault(values(expected, fields), Collections.emptyList());
+    for (JSONObject actual : bucket) {
+      if (JSONCompare.compareJSON(expected, actual, mode).passed()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private Map<List<Object>, List<JSONObject>> index(List<String> fields) {
+    Map<List<Object>, List<JSONObject>> index = new HashMap<>();
+    for (int i = 0; i < actualArray.length(); i++) {
+      JSONObject actual = actualArray.optJSONObject(i);
+      if (actual != null) {
+        List<Object> values = values(actual, fields);
+        if (!values.contains(MISSING)) {
+          index.computeIfAbsent(values, k -> new ArrayList<>()).add(actual);
+        }
+      }
+    }
+    return index;
+  }
+
+  private static List<String> scalarFields(JSONObject row) {
+    TreeSet<String> fields = new TreeSet<>();
+    for (String key : row.keySet()) {
+      Object value = row.opt(key);
+      if (!(value instanceof JSONObject || value instanceof JSONArray)) {
+        fields.add(key);
+      }
+    }
+    return new ArrayList<>(fields);
+  }
+
+  private static List<Object> values(JSONObject row, List<String> fields) {
+    Object[] values = new Object[fields.size()];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = normalize(row.has(fields.get(i)) ? row.opt(fields.get(i)) : MISSING);
+    }
+    return Arrays.asList(values);
+  }
+
+  private static Object normalize(Object value) {
+    if (value instanceof Number) {
+      double number = ((Number) value).doubleValue();
+      return number == 0 ? 0d : number;
+    } else if (value instanceof JSONObject || value instanceof JSONArray) {
+      return MISSING;
+    }
+    return value;
+  }
+}
@@ -4,28 +4,17 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
-import com.jayway.jsonpath.DocumentContext;
-import com.jayway.jsonpath.JsonPath;
 import io.cucumber.java.Scenario;
 import io.restassured.response.ValidatableResponse;
 import io.virtualan.csvson.Csvson;
-import io.virtualan.cucumblan.props.ApplicationConfiguration;
 import io.virtualan.cucumblan.props.ExcludeConfiguration;
 import io.virtualan.jassert.VirtualJSONAssert;
 import io.virtualan.mapson.Mapson;
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
+import java.io.ByteArrayInputStream;
 import java.io.StringReader;
 import java.util.List;
 import java.util.Map;
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
 import lombok.extern.slf4j.Slf4j;
-import org.custommonkey.xmlunit.DetailedDiff;
-import org.custommonkey.xmlunit.XMLUnit;
-import org.custommonkey.xmlunit.XpathEngine;
 import org.json.JSONArray;
 import org.json.JSONObject;
 import org.junit.Assert;
@@ -33,7 +22,6 @@ import org.skyscreamer.jsonassert.JSONCompare;
 import org.skyscreamer.jsonassert.JSONCompareMode;
 import org.skyscreamer.jsonassert.JSONCompareResult;
 import org.w3c.dom.Document;
-import org.xml.sax.InputSource;
 
 /**
  * The type Helper util.
@@ -42,25 +30,6 @@ import org.xml.sax.InputSource;
 public class HelperApiUtil {
 
 
-  private static String convertStreamToString(InputStream is) throws IOException {
-    if (is != null) {
-      StringBuilder sb = new StringBuilder();
-      String line;
-
-      try {
-        BufferedReader reader = new BufferedReader(new InputStreamReader(is, "UTF-8"));
-        while ((line = reader.readLine()) != null) {
-          sb.append(line);
-        }
-      } finally {
-        is.close();
-      }
-      return sb.toString();
-    } else {
-      return null;
-    }
-  }
-
   /**
    * Read file as string string.
    *
@@ -68,28 +37,11 @@ public class HelperApiUtil {
    * @return the string
    */
   public static String readFileAsString(String fileBody) {
-    String body = null;
-    InputStream stream = Thread.currentThread().getContextClassLoader()
-        .getResourceAsStream(fileBody);
-    if (stream == null) {
-      stream = ApplicationConfiguration.class.getClassLoader().getResourceAsStream(fileBody);
-    }
-    if (stream != null) {
-      try {
-        body = convertStreamToString(stream);
-      } catch (IOException e) {
-      }
-    }
-    return body;
+    return ResourceBodyCache.read(fileBody);
   }
 
   private static Document getDocument(String xmlData) throws Exception {
-    DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-    factory.setNamespaceAware(true);
-    DocumentBuilder builder = factory.newDocumentBuilder();
-    InputSource inputSource = new InputSource(new StringReader(xmlData));
-    Document doc = builder.parse(inputSource);
-    return doc;
+    return XmlHelper.parse(xmlData);
   }
 
   /**
@@ -102,11 +54,22 @@ public class HelperApiUtil {
    */
   public static void assertXpathsEqual(List<String> xpaths, String expectedXML, String actualXML)
       throws Exception {
-    Document expectedDoc = getDocument(expectedXML);
-    Document actualDoc = getDocument(actualXML);
+    assertXpathsEqual(xpaths, expectedXML, getDocument(actualXML));
+  }
+
+  /**
+   * Assert xpaths equal.
+   *
+   * @param xpaths      the xpaths
+   * @param expectedXML the expected xml
+   * @param actualDoc   the parsed actual xml
+   * @throws Exception the exception
+   */
+  public static void assertXpathsEqual(List<String> xpaths, String expectedXML, Document actualDoc)
+      throws Exception {
     for (String xpathStr : xpaths) {
-      XpathEngine xpath = XMLUnit.newXpathEngine();
-      Assert.assertEquals(xpathStr, xpath.evaluate(xpathStr, expectedDoc), xpath.evaluate(xpathStr, actualDoc));
+      Assert.assertEquals(xpathStr, XmlHelper.evaluateExpected(xpathStr, null, expectedXML),
+          XmlHelper.evaluate(xpathStr, null, actualDoc));
     }
   }
 
@@ -118,10 +81,7 @@ public class HelperApiUtil {
    * @return the object
    */
   public static Object getJSON(String jsonString, String path){
-    DocumentContext docCtx = JsonPath.parse(jsonString);
-    JsonPath jsonPath = JsonPath.compile(path);
-    Object value =docCtx.read(jsonPath);
-    return value;
+    return JsonPathEvaluator.of(jsonString).read(path);
   }
 
   /**
@@ -162,9 +122,11 @@ public class HelperApiUtil {
    * @param actualjson   the actualjson
    */
   public static void assertJsonpathEqual(List<String> jsonPath, String expectedjson, String actualjson) {
+    JsonPathEvaluator expectedDoc = JsonPathEvaluator.of(expectedjson);
+    JsonPathEvaluator actualDoc = JsonPathEvaluator.of(actualjson);
     for (String jpath : jsonPath) {
-     Object expected = getJSON(expectedjson, jpath);
-     Object actual = getJSON(actualjson, jpath);
+     Object expected = expectedDoc.read(jpath);
+     Object actual = actualDoc.read(jpath);
      if (expected instanceof  JSONObject){
        Assert.assertTrue(jpath, VirtualJSONAssert.jAssertObject((JSONObject) expected, (JSONObject) actual, JSONCompareMode.LENIENT));
      } else if (expected instanceof  JSONArray){
@@ -183,13 +145,30 @@ public class HelperApiUtil {
    * @throws Exception the exception
    */
   public static void assertXMLEquals(String expectedXML, String actualXML) throws Exception {
-    XMLUnit.setIgnoreWhitespace(true);
-    XMLUnit.setIgnoreAttributeOrder(true);
-    DetailedDiff diff = new DetailedDiff(XMLUnit.compareXML(expectedXML, actualXML));
-    List<?> allDifferences = diff.getAllDifferences();
-    Assert.assertEquals("Differences found: " + diff.toString(), 0, allDifferences.size());
+    assertXMLEquals(xmlComparator().compare(expectedXML, actualXML));
   }
 
+  /**
+   * Assert xml equals, reading the response while it is compared.
+   *
+   * @param expectedXML the expected xml
+   * @param actual      the parsed response
+   * @throws Exception the exception
+   */
+  public static void assertXMLEquals(String expectedXML, ResponseDocument actual)
+      throws Exception {
+    assertXMLEquals(xmlComparator().compare(new StringReader(expectedXML),
+        new ByteArrayInputStream(actual.getBytes()), actual.getCharset()));
+  }
+
+  private static XmlStreamComparator xmlComparator() {
+    return new XmlStreamComparator().ignoreWhitespace(true)
+        .maxDifferences(JsonStreamComparator.getMaxFailures());
+  }
+
+  private static void assertXMLEquals(List<String> differences) {
+    Assert.assertEquals("Differences found: " + differences, 0, differences.size());
+  }
 
   /**
    * Verify csvson.
@@ -204,22 +183,45 @@ public class HelperApiUtil {
   public static void verifyCSVSON(ValidatableResponse validatableResponse, String path,
       List<String> csvson, JSONCompareMode mode, Scenario scenario)
       throws Exception {
+    ScenarioReport report = ScenarioReport.of(scenario);
+    try {
+      verifyCSVSON(ResponseDocument.of(validatableResponse.extract().response()), path, csvson,
+          mode, report);
+    } catch (AssertionError e) {
+      report.flush();
+      throw e;
+    }
+  }
+
+  /**
+   * Verify csvson.
+   *
+   * @param document the parsed response
+   * @param path     the path
+   * @param csvson   the csvson
+   * @param mode     the mode
+   * @param report   the scenario report
+   * @throws Exception the exception
+   */
+  public static void verifyCSVSON(ResponseDocument document, String path,
+      List<String> csvson, JSONCompareMode mode, ScenarioReport report)
+      throws Exception {
     JSONArray expectedArray = Csvson.buildCSVson(csvson, ScenarioContext
-        .getContext(String.valueOf(Thread.currentThread().getId())));
-    Object objJson = StepDefinitionHelper.getJSON(validatableResponse.extract().body().asString());
+        .getContext());
+    Object objJson = document.json();
     JSONCompareResult result = null;
-    scenario.attach(expectedArray.toString(), "application/json", "Expected json");
+    report.attach(expectedArray::toString, "application/json", "Expected json");
     JSONArray notFoundArray = null;
     if (objJson instanceof JSONArray) {
-      JSONArray actualArray = new JSONArray(validatableResponse.extract().body().asString());
-      scenario.attach(actualArray.toString(), "application/json", "Actual json");
+      JSONArray actualArray = (JSONArray) objJson;
+      report.attach(actualArray::toString, "application/json", "Actual json");
       if(expectedArray.length() == actualArray.length()) {
         result = JSONCompare.compareJSON(expectedArray, actualArray, mode);
       } else {
         notFoundArray = getUnmatchedElement(mode, expectedArray, actualArray);
       }
     } else if (objJson instanceof JSONObject) {
-      JSONObject actualArray = new JSONObject(validatableResponse.extract().body().asString());
+      JSONObject actualArray = (JSONObject) objJson;
       if (actualArray.optJSONArray(path) != null && actualArray.optJSONArray(path).length() > 0) {
         if(expectedArray.length() == actualArray.getJSONArray(path).length()) {
           result = JSONCompare.compareJSON(expectedArray, actualArray.getJSONArray(path), mode);
@@ -229,36 +231,38 @@ public class HelperApiUtil {
       } else {
         result = JSONCompare.compareJSON(expectedArray.getJSONObject(0), actualArray, mode);
       }
-      scenario.attach(actualArray.toString(), "application/json", "Actual json");
+      report.attach(actualArray::toString, "application/json", "Actual json");
     }
     if (result == null && notFoundArray == null) {
       Assert.assertTrue("Actual input is not a valid JSON Object", false);
     } else if (result != null && result.failed()) {
-      scenario.attach(result.getMessage(), "text/plain", "Unmatched csvson");
+      report.attach(result.getMessage(), "text/plain", "Unmatched csvson");
       assertTrue("Csvson record does not match", result.passed());
     } else if (notFoundArray != null && notFoundArray.length() > 0) {
-      scenario.attach(notFoundArray.toString(2), "application/json", "Unmatched csvson");
+      JSONArray unmatched = notFoundArray;
+      report.attach(() -> unmatched.toString(2), "application/json", "Unmatched csvson");
       assertTrue("Csvson record does not match and see unmatched records", false);
     } else {
       assertTrue("Csvson record matches", true);
     }
   }
 
-  private static boolean isMatchNotFound(JSONObject actual, JSONArray expectedArray, JSONCompareMode mode){
-    for (int j = 0; j < expectedArray.length(); j++) {
-      JSONCompareResult result = JSONCompare.compareJSON(actual,expectedArray.getJSONObject(j), mode);
-      if(result.passed()){
-        return false;
-      }
-    }
-    return true;
-  }
-
-  private static JSONArray getUnmatchedElement(JSONCompareMode mode, JSONArray expectedArray,
+  /**
+   * Gets the expected rows that match none of the actual rows. The actual rows
+   * are indexed by the scalar fields of the expected rows, so only rows with
+   * the same values are compared in full.
+   *
+   * @param mode          the mode
+   * @param expectedArray the expected array
+   * @param actualArray   the actual array
+   * @return the unmatched expected rows
+   */
+  public static JSONArray getUnmatchedElement(JSONCompareMode mode, JSONArray expectedArray,
       JSONArray actualArray) {
+    CsvsonIndex index = new CsvsonIndex(actualArray);
     JSONArray notFoundArray = new JSONArray();
     for (int i = 0; i < expectedArray.length(); i++) {
-      if(isMatchNotFound(expectedArray.getJSONObject(i), actualArray, mode)){
+      if (!index.isMatchFound(expectedArray.getJSONObject(i), mode)) {
         notFoundArray.put(expectedArray.getJSONObject(i));
       }
     }
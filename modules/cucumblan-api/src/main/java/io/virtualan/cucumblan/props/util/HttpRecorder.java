@@ -0,0 +1,295 @@
+package io.virtualan.cucumblan.props.util;
+
+import io.restassured.assertion.CookieMatcher;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import io.virtualan.cucumblan.props.ApplicationConfiguration;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+/**
+ * The type Http recorder.
+ * <p>
+ * Records the http exchanges of a system to replay them later without the
+ * network. The mode is read from cucumblan.properties:
+ * <pre>
+ * http-record-mode=record               # off, record or replay (default off)
+ * http-replay-unrecorded=fail           # fail or pass (through to the system) a request never recorded (default fail)
+ * http-record-dir=conf/recordings       # the recordings, one &lt;system&gt;.jsonl.gz per system (default conf/recordings)
+ * http-record-ignore-headers=x-trace-id # request headers left out of the key (default date, user-agent, authorization...)
+ * </pre>
+ * A request is keyed by its method, resolved url, sorted request headers and
+ * the hash of its body. In record mode the response of the system is stored
+ * under the key; in replay mode the filter stubs the system: a recorded
+ * request is answered in process with the recorded status, headers, cookies
+ * and body, without opening a connection, so the steps run unchanged.
+ */
+public class HttpRecorder implements OrderedFilter {
+
+  private final static Logger LOGGER = Logger.getLogger(HttpRecorder.class.getName());
+
+  private static final Set<String> DEFAULT_IGNORED_HEADERS = new HashSet<>(Arrays.asList(
+      "authorization", "connection", "content-length", "cookie", "date", "host",
+      "accept-encoding", "user-agent", "x-request-id"));
+
+  private static final Set<String> REPLAY_SKIPPED_HEADERS = new HashSet<>(Arrays.asList(
+      "connection", "content-encoding", "content-length", "keep-alive", "transfer-encoding"));
+
+  private static final Map<String, HttpRecorder> recorders = new ConcurrentHashMap<>();
+  private static boolean shutdownHook;
+
+  private final String system;
+  private final boolean replay;
+  private final boolean passUnrecorded;
+  private final Set<String> ignoredHeaders;
+  private final RecordingStore store;
+
+  private HttpRecorder(String system, boolean replay) {
+    this.system = system;
+    this.replay = replay;
+    this.passUnrecorded = "pass".equalsIgnoreCase(property("http-replay-unrecorded", "fail"));
+    this.ignoredHeaders = ignoredHeaders();
+    this.store = new RecordingStore(property("http-record-dir", "conf/recordings"), system);
+    LOGGER.info((replay ? "Replaying " : "Recording ") + system + " from " + store.getFile()
+        .getPath() + " (" + store.size() + " recorded)");
+  }
+
+  /**
+   * Gets the recorder of the system.
+   *
+   * @param system the system
+   * @return the recorder or null when http-record-mode is off
+   */
+  public static HttpRecorder of(String system) {
+    String mode = property("http-record-mode", "off").toLowerCase(Locale.ROOT);
+    if (!"record".equals(mode) && !"replay".equals(mode)) {
+      return null;
+    }
+    boolean replay = "replay".equals(mode);
+    HttpRecorder recorder = recorders.get(system);
+    if (recorder != null && recorder.replay == replay) {
+      return recorder;
+    }
+    if (!replay) {
+      addShutdownHook();
+    }
+    return recorders.compute(system, (name, current) ->
+        current != null && current.replay == replay ? current : new HttpRecorder(name, replay));
+  }
+
+  /**
+   * Save the recordings of every system.
+   */
+  public static void flush() {
+    for (HttpRecorder recorder : recorders.values()) {
+      try {
+        recorder.store.save();
+      } catch (IOException e) {
+        LOGGER.warning("Unable to save the recordings " + recorder.store.getFile().getPath()
+            + " : " + e.getMessage());
+      }
+    }
+  }
+
+  /**
+   * Save the recordings and forget the recorders.
+   */
+  public static synchronized void shutdown() {
+    flush();
+    recorders.clear();
+  }
+
+  /**
+   * Gets store.
+   *
+   * @return the recordings of the system
+   */
+  public RecordingStore getStore() {
+    return store;
+  }
+
+  @Override
+  public int getOrder() {
+    return LOWEST_PRECEDENCE;
+  }
+
+  @Override
+  public Response filter(FilterableRequestSpecification requestSpec,
+      FilterableResponseSpecification responseSpec, FilterContext ctx) {
+    String url = requestSpec.getURI();
+    String key = key(requestSpec.getMethod(), url, headers(requestSpec), body(requestSpec));
+    if (!replay) {
+      Response response = ctx.next(requestSpec, responseSpec);
+      List<String[]> headers = new ArrayList<>();
+      for (Header header : response.getHeaders()) {
+        headers.add(new String[]{header.getName(), header.getValue()});
+      }
+      store.put(new RecordingStore.Exchange(key, requestSpec.getMethod(), url,
+          response.getStatusCode(), headers, response.asByteArray()));
+      return response;
+    }
+    RecordingStore.Exchange recorded = store.get(key);
+    if (recorded == null) {
+      if (passUnrecorded) {
+        return ctx.next(requestSpec, responseSpec);
+      }
+      throw new AssertionError("No recorded response for " + requestSpec.getMethod() + " "
+          + url + " of " + system + " in " + store.getFile().getPath()
+          + " (record it with http-record-mode=record)");
+    }
+    return replay(recorded);
+  }
+
+  /**
+   * Answers the request with its recording, without a network hop.
+   */
+  private static Response replay(RecordingStore.Exchange recorded) {
+    List<Header> headers = new ArrayList<>();
+    List<String> setCookies = new ArrayList<>();
+    String contentType = null;
+    for (String[] header : recorded.getHeaders()) {
+      String name = header[0].toLowerCase(Locale.ROOT);
+      if (REPLAY_SKIPPED_HEADERS.contains(name)) {
+        continue;
+      }
+      headers.add(new Header(header[0], header[1]));
+      if ("content-type".equals(name)) {
+        contentType = header[1];
+      } else if ("set-cookie".equals(name)) {
+        setCookies.add(header[1]);
+      }
+    }
+    headers.add(new Header("Content-Length", String.valueOf(recorded.getBody().length)));
+    ResponseBuilder builder = new ResponseBuilder()
+        .setStatusCode(recorded.getStatus())
+        .setStatusLine("HTTP/1.1 " + recorded.getStatus())
+        .setHeaders(new Headers(headers))
+        .setBody(recorded.getBody());
+    if (contentType != null) {
+      builder.setContentType(contentType);
+    }
+    if (!setCookies.isEmpty()) {
+      builder.setCookies(CookieMatcher.getCookies(setCookies));
+    }
+    return builder.build();
+  }
+
+  /**
+   * The key of a request.
+   *
+   * @param method  the method
+   * @param url     the resolved url
+   * @param headers the normalized request headers
+   * @param body    the request body
+   * @return the sha-256 of the request, in hex
+   */
+  static String key(String method, String url, String headers, byte[] body) {
+    MessageDigest digest = sha256();
+    digest.update((method.toUpperCase(Locale.ROOT) + "\n" + url + "\n" + headers + "\n")
+        .getBytes(StandardCharsets.UTF_8));
+    digest.update(hex(sha256().digest(body)).getBytes(StandardCharsets.UTF_8));
+    return hex(digest.digest());
+  }
+
+  /**
+   * The request headers, lower cased and sorted, without the ignored ones.
+   */
+  private String headers(FilterableRequestSpecification requestSpec) {
+    Map<String, List<String>> headers = new TreeMap<>();
+    for (Header header : requestSpec.getHeaders()) {
+      String name = header.getName().toLowerCase(Locale.ROOT);
+      if (!ignoredHeaders.contains(name)) {
+        headers.computeIfAbsent(name, k -> new ArrayList<>()).add(header.getValue());
+      }
+    }
+    if (requestSpec.getContentType() != null && !ignoredHeaders.contains("content-type")) {
+      headers.putIfAbsent("content-type", new ArrayList<>(
+          Arrays.asList(requestSpec.getContentType())));
+    }
+    StringBuilder normalized = new StringBuilder();
+    headers.forEach((name, values) -> {
+      values.sort(null);
+      for (String value : values) {
+        normalized.append(name).append(':').append(value.trim()).append('\n');
+      }
+    });
+    return normalized.toString();
+  }
+
+  private static byte[] body(FilterableRequestSpecification requestSpec) {
+    Object body = requestSpec.getBody();
+    StringBuilder form = new StringBuilder();
+    new TreeMap<>(requestSpec.getFormParams()).forEach((name, value) ->
+        form.append(name).append('=').append(value).append('&'));
+    byte[] content = body == null ? new byte[0] : body instanceof byte[] ? (byte[]) body
+        : String.valueOf(body).getBytes(StandardCharsets.UTF_8);
+    if (form.length() == 0) {
+      return content;
+    }
+    byte[] params = form.toString().getBytes(StandardCharsets.UTF_8);
+    byte[] all = Arrays.copyOf(content, content.length + params.length);
+    System.arraycopy(params, 0, all, content.length, params.length);
+    return all;
+  }
+
+  private static Set<String> ignoredHeaders() {
+    String value = ApplicationConfiguration.getProperty("http-record-ignore-headers");
+    if (value == null) {
+      return DEFAULT_IGNORED_HEADERS;
+    }
+    Set<String> headers = new HashSet<>();
+    for (String name : value.split(",")) {
+      if (!name.trim().isEmpty()) {
+        headers.add(name.trim().toLowerCase(Locale.ROOT));
+      }
+    }
+    return headers;
+  }
+
+  private static synchronized void addShutdownHook() {
+    if (!shutdownHook) {
+      shutdownHook = true;
+      Runtime.getRuntime().addShutdownHook(new Thread(HttpRecorder::flush,
+          "cucumblan-record-flush"));
+    }
+  }
+
+  private static String property(String key, String defaultValue) {
+    String value = ApplicationConfiguration.getProperty(key);
+    return value != null && !value.trim().isEmpty() ? value.trim() : defaultValue;
+  }
+
+  private static MessageDigest sha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static String hex(byte[] bytes) {
+    StringBuilder hex = new StringBuilder(bytes.length * 2);
+    for (byte b : bytes) {
+      hex.append(String.format("%02x", b));
+    }
+    return hex.toString();
+  }
+}
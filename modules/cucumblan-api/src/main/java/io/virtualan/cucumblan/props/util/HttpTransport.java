@@ -0,0 +1,307 @@
+package io.virtualan.cucumblan.props.util;
+
+import io.restassured.config.HttpClientConfig;
+import io.virtualan.cucumblan.props.ApplicationConfiguration;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.security.KeyManagementException;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSocket;
+import org.apache.http.HttpConnection;
+import org.apache.http.client.params.ClientPNames;
+import org.apache.http.conn.ClientConnectionManager;
+import org.apache.http.conn.scheme.PlainSocketFactory;
+import org.apache.http.conn.scheme.Scheme;
+import org.apache.http.conn.scheme.SchemeRegistry;
+import org.apache.http.conn.ssl.SSLSocketFactory;
+import org.apache.http.impl.NoConnectionReuseStrategy;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.BasicClientConnectionManager;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.params.BasicHttpParams;
+import org.apache.http.params.DefaultedHttpParams;
+import org.apache.http.params.HttpConnectionParams;
+import org.apache.http.params.HttpParams;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.protocol.HttpCoreContext;
+
+/**
+ * The type Http transport.
+ * <p>
+ * One keep-alive connection pool per target system, shared by every scenario
+ * that calls the system; each request gets a light client over the pool. The settings are read from
+ * cucumblan.properties next to service.api.&lt;system&gt; when the system is
+ * first used:
+ * <pre>
+ * service.api.pet.pool-size=20            # max connections (default 20)
+ * service.api.pet.keep-alive=30000        # idle keep-alive in ms, 0 closes after each call (default 30000)
+ * service.api.pet.connect-timeout=5000    # ms to connect or lease a pooled connection, 0 waits forever (default 0)
+ * service.api.pet.read-timeout=30000      # ms, 0 waits forever (default 0)
+ * service.api.pet.tls-session-reuse=true  # resume tls sessions (default true)
+ * </pre>
+ * The response body must be read for the connection to return to the pool.
+ */
+@SuppressWarnings("deprecation")
+public class HttpTransport {
+
+  private final static Logger LOGGER = Logger.getLogger(HttpTransport.class.getName());
+
+  private static final Map<String, HttpTransport> transports = new ConcurrentHashMap<>();
+  private static final ThreadLocal<Long> deadline = new ThreadLocal<>();
+
+  private final String system;
+  private final PoolingClientConnectionManager connectionManager;
+  private final BasicHttpParams params;
+  private final long keepAlive;
+  private final boolean sessionReuse;
+
+  private HttpTransport(String system) {
+    this.system = system;
+    int poolSize = getInt(system, "pool-size", 20);
+    keepAlive = getInt(system, "keep-alive", 30000);
+    sessionReuse = getBoolean(system, "tls-session-reuse", true);
+    connectionManager = new PoolingClientConnectionManager(schemeRegistry(),
+        keepAlive > 0 ? keepAlive : -1, TimeUnit.MILLISECONDS);
+    connectionManager.setMaxTotal(poolSize);
+    connectionManager.setDefaultMaxPerRoute(poolSize);
+    params = new BasicHttpParams();
+    DefaultHttpClient.setDefaultHttpParams(params);
+    int connectTimeout = getInt(system, "connect-timeout", 0);
+    HttpConnectionParams.setConnectionTimeout(params, connectTimeout);
+    if (connectTimeout > 0) {
+      params.setLongParameter(ClientPNames.CONN_MANAGER_TIMEOUT, connectTimeout);
+    }
+    HttpConnectionParams.setSoTimeout(params, getInt(system, "read-timeout", 0));
+    LOGGER.info("Http transport for " + system + " : pool-size " + poolSize
+        + ", keep-alive " + keepAlive);
+  }
+
+  private SchemeRegistry schemeRegistry() {
+    SchemeRegistry registry = new SchemeRegistry();
+    registry.register(new Scheme("http", 80, new TimedPlainSocketFactory()));
+    registry.register(new Scheme("https", 443, sslSocketFactory(sessionReuse)));
+    return registry;
+  }
+
+  /**
+   * A new client for one request. RestAssured changes the client it sends
+   * with (content decoders, proxy, tls scheme), so only the connection
+   * manager is shared; each client gets its own copy of the settings.
+   */
+  private DefaultHttpClient newClient(ClientConnectionManager manager) {
+    BasicHttpParams copy = new BasicHttpParams();
+    for (String name : params.getNames()) {
+      copy.setParameter(name, params.getParameter(name));
+    }
+    DefaultHttpClient client = new DefaultHttpClient(manager, copy);
+    client.addRequestInterceptor((request, context) -> {
+      RequestTimings.requestSending(context);
+      HttpConnection connection = (HttpConnection) context.getAttribute(
+          HttpCoreContext.HTTP_CONNECTION);
+      if (deadline.get() != null && connection != null) {
+        connection.setSocketTimeout(bounded(connection.getSocketTimeout()));
+      }
+    });
+    client.addResponseInterceptor((response, context) -> RequestTimings.responseReceived(context));
+    if (keepAlive > 0) {
+      client.setKeepAliveStrategy((response, context) -> {
+        long duration = DefaultConnectionKeepAliveStrategy.INSTANCE
+            .getKeepAliveDuration(response, context);
+        return duration > 0 ? Math.min(duration, keepAlive) : keepAlive;
+      });
+    } else {
+      client.setReuseStrategy(new NoConnectionReuseStrategy());
+    }
+    return client;
+  }
+
+  /**
+   * Http client config that sends the requests of the system through its
+   * connection pool; the other settings of the given config are kept.
+   *
+   * @param system the system
+   * @param config the config
+   * @return the http client config
+   */
+  public static HttpClientConfig httpClientConfig(String system, HttpClientConfig config) {
+    return httpClientConfig(system, config, false);
+  }
+
+  /**
+   * Http client config of the system. A request with a client certificate or
+   * its own trust or key store gets an unpooled client, so its tls scheme and
+   * its connections are not shared with the other requests of the system.
+   *
+   * @param system    the system
+   * @param config    the config
+   * @param isolated  the request has its own ssl settings
+   * @return the http client config
+   */
+  public static HttpClientConfig httpClientConfig(String system, HttpClientConfig config,
+      boolean isolated) {
+    HttpTransport transport = transports.computeIfAbsent(system, HttpTransport::new);
+    if (isolated) {
+      return config.httpClientFactory(
+          () -> transport.newClient(new BasicClientConnectionManager(transport.schemeRegistry())));
+    }
+    return config.httpClientFactory(() -> transport.newClient(transport.connectionManager));
+  }
+
+  /**
+   * Gets pool stats of the system.
+   *
+   * @param system the system
+   * @return the leased, available and pending connections or null when the system was not called
+   */
+  public static PoolStats getPoolStats(String system) {
+    HttpTransport transport = transports.get(system);
+    return transport != null ? transport.connectionManager.getTotalStats() : null;
+  }
+
+  /**
+   * Gets pool metrics of all the systems.
+   *
+   * @return the metrics by system
+   */
+  public static Map<String, Map<String, Integer>> getPoolMetrics() {
+    Map<String, Map<String, Integer>> metrics = new LinkedHashMap<>();
+    transports.forEach((system, transport) -> {
+      PoolStats stats = transport.connectionManager.getTotalStats();
+      Map<String, Integer> values = new LinkedHashMap<>();
+      values.put("leased", stats.getLeased());
+      values.put("available", stats.getAvailable());
+      values.put("pending", stats.getPending());
+      values.put("max", stats.getMax());
+      metrics.put(system, values);
+    });
+    return metrics;
+  }
+
+  /**
+   * Sets the deadline of the requests of the current thread: the connect and
+   * read timeouts of each request are cut to the time left, and a request
+   * started after the deadline fails.
+   *
+   * @param nanoTime the deadline as {@link System#nanoTime()}, or null to clear it
+   */
+  public static void setDeadline(Long nanoTime) {
+    if (nanoTime == null) {
+      deadline.remove();
+    } else {
+      deadline.set(nanoTime);
+    }
+  }
+
+  /**
+   * The timeout cut to the deadline of the current thread.
+   */
+  private static int bounded(int timeout) throws SocketTimeoutException {
+    Long until = deadline.get();
+    if (until == null) {
+      return timeout;
+    }
+    long remaining = TimeUnit.NANOSECONDS.toMillis(until - System.nanoTime());
+    if (remaining <= 0) {
+      throw new SocketTimeoutException("Request deadline passed");
+    }
+    return timeout > 0 && timeout < remaining ? timeout : (int) Math.min(remaining,
+        Integer.MAX_VALUE);
+  }
+
+  private static HttpParams bounded(HttpParams params) throws SocketTimeoutException {
+    if (deadline.get() == null) {
+      return params;
+    }
+    HttpParams local = new BasicHttpParams();
+    HttpConnectionParams.setConnectionTimeout(local,
+        bounded(HttpConnectionParams.getConnectionTimeout(params)));
+    HttpConnectionParams.setSoTimeout(local, bounded(HttpConnectionParams.getSoTimeout(params)));
+    return new DefaultedHttpParams(local, params);
+  }
+
+  /**
+   * Close the pooled connections of all the systems.
+   */
+  public static void shutdown() {
+    transports.forEach((system, transport) -> transport.connectionManager.shutdown());
+    transports.clear();
+  }
+
+  private static SSLSocketFactory sslSocketFactory(boolean sessionReuse) {
+    SSLContext context;
+    try {
+      context = SSLContext.getInstance("TLS");
+      context.init(null, null, null);
+    } catch (NoSuchAlgorithmException | KeyManagementException e) {
+      LOGGER.warning("Unable to create tls context, using the default : " + e.getMessage());
+      return SSLSocketFactory.getSocketFactory();
+    }
+    return new SSLSocketFactory(context, SSLSocketFactory.BROWSER_COMPATIBLE_HOSTNAME_VERIFIER) {
+      @Override
+      protected void prepareSocket(SSLSocket socket) throws IOException {
+        if (!sessionReuse) {
+          socket.addHandshakeCompletedListener(event -> event.getSession().invalidate());
+        }
+      }
+
+      @Override
+      public Socket connectSocket(Socket socket, InetSocketAddress remoteAddress,
+          InetSocketAddress localAddress, HttpParams params) throws IOException {
+        long start = System.nanoTime();
+        try {
+          return super.connectSocket(socket, remoteAddress, localAddress, bounded(params));
+        } finally {
+          RequestTimings.connected(System.nanoTime() - start);
+        }
+      }
+    };
+  }
+
+  /**
+   * Plain socket factory reporting the connect time of the current request.
+   */
+  private static final class TimedPlainSocketFactory extends PlainSocketFactory {
+
+    @Override
+    public Socket connectSocket(Socket socket, InetSocketAddress remoteAddress,
+        InetSocketAddress localAddress, HttpParams params) throws IOException {
+      long start = System.nanoTime();
+      try {
+        return super.connectSocket(socket, remoteAddress, localAddress, bounded(params));
+      } finally {
+        RequestTimings.connected(System.nanoTime() - start);
+      }
+    }
+  }
+
+  private static int getInt(String system, String key, int defaultValue) {
+    String value = ApplicationConfiguration.getProperty("service.api." + system + "." + key);
+    if (value != null) {
+      try {
+        return Integer.parseInt(value.trim());
+      } catch (NumberFormatException e) {
+        LOGGER.warning("service.api." + system + "." + key + " is not a number : " + value);
+      }
+    }
+    return defaultValue;
+  }
+
+  private static boolean getBoolean(String system, String key, boolean defaultValue) {
+    String value = ApplicationConfiguration.getProperty("service.api." + system + "." + key);
+    return value != null ? Boolean.parseBoolean(value.trim()) : defaultValue;
+  }
+
+  @Override
+  public String toString() {
+    return system + " " + connectionManager.getTotalStats();
+  }
+}
@@ -0,0 +1,112 @@
+package io.virtualan.cucumblan.props.util;
+
+import com.jayway.jsonpath.Configuration;
+import com.jayway.jsonpath.DocumentContext;
+import com.jayway.jsonpath.JsonPath;
+import com.jayway.jsonpath.spi.json.JacksonJsonProvider;
+import com.jayway.jsonpath.spi.mapper.JacksonMappingProvider;
+import io.virtualan.cucumblan.props.ApplicationConfiguration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * The type Json path evaluator.
+ * <p>
+ * Parses a json document once to read any number of paths. The compiled paths
+ * are kept in a global LRU cache. With jsonpath-provider=jackson the documents
+ * are parsed with Jackson instead of json-smart.
+ */
+public class JsonPathEvaluator {
+
+  private final static Logger LOGGER = Logger.getLogger(JsonPathEvaluator.class.getName());
+
+  private static final int MAX_PATHS = 1024;
+
+  private static final Map<String, JsonPath> compiledPaths = Collections
+      .synchronizedMap(new LinkedHashMap<String, JsonPath>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, JsonPath> eldest) {
+          return size() > MAX_PATHS;
+        }
+      });
+
+  private static volatile Configuration configuration;
+
+  private final DocumentContext document;
+
+  private JsonPathEvaluator(String json) {
+    this.document = JsonPath.using(configuration()).parse(json);
+  }
+
+  /**
+   * Parse the json document.
+   *
+   * @param json the json
+   * @return the json path evaluator
+   */
+  public static JsonPathEvaluator of(String json) {
+    return new JsonPathEvaluator(json);
+  }
+
+  /**
+   * Compile the path, or get it from the cache.
+   *
+   * @param path the path
+   * @return the json path
+   */
+  public static JsonPath compile(String path) {
+    JsonPath jsonPath = compiledPaths.get(path);
+    if (jsonPath == null) {
+      jsonPath = JsonPath.compile(path);
+      compiledPaths.put(path, jsonPath);
+    }
+    return jsonPath;
+  }
+
+  /**
+   * Read the path.
+   *
+   * @param path the path
+   * @return the value
+   */
+  public Object read(String path) {
+    return document.read(compile(path));
+  }
+
+  /**
+   * Read the paths.
+   *
+   * @param paths the paths
+   * @return the values by path
+   */
+  public Map<String, Object> readAll(List<String> paths) {
+    Map<String, Object> values = new LinkedHashMap<>();
+    for (String path : paths) {
+      values.put(path, read(path));
+    }
+    return values;
+  }
+
+  private static Configuration configuration() {
+    if (configuration == null) {
+      configuration = "jackson".equalsIgnoreCase(
+          ApplicationConfiguration.getProperty("jsonpath-provider")) ? jackson()
+          : Configuration.defaultConfiguration();
+    }
+    return configuration;
+  }
+
+  private static Configuration jackson() {
+    try {
+      Class.forName("com.fasterxml.jackson.databind.ObjectMapper");
+      return Configuration.builder().jsonProvider(new JacksonJsonProvider())
+          .mappingProvider(new JacksonMappingProvider()).build();
+    } catch (ClassNotFoundException e) {
+      LOGGER.warning("jsonpath-provider=jackson needs jackson-databind, using json-smart");
+      return Configuration.defaultConfiguration();
+    }
+  }
+}
@@ -0,0 +1,253 @@
+package io.virtualan.cucumblan.props.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import io.virtualan.cucumblan.props.ApplicationConfiguration;
+import io.virtualan.cucumblan.props.ExcludeConfiguration;
+import io.virtualan.mapson.DataTypeHelper;
+import io.virtualan.mapson.Mapson;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.logging.Logger;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * The type Json stream comparator.
+ * <p>
+ * Compares a json document with the flattened (mapson) key values without
+ * building the flattened map of the document: the document is read with a
+ * streaming parser, every path is checked against the exclude-response
+ * properties as it is read, and the comparison stops after
+ * verify-max-failures mismatches (0, the default, reports all of them).
+ * Documents the strict parser rejects are flattened with Mapson as before.
+ */
+public class JsonStreamComparator {
+
+  private final static Logger LOGGER = Logger.getLogger(JsonStreamComparator.class.getName());
+
+  private static final JsonFactory FACTORY = new JsonFactory();
+
+  private JsonStreamComparator() {
+  }
+
+  /**
+   * Gets max failures.
+   *
+   * @return the verify-max-failures property, 0 when not set
+   */
+  public static int getMaxFailures() {
+    String value = ApplicationConfiguration.getProperty("verify-max-failures");
+    if (value != null) {
+      try {
+        return Integer.parseInt(value.trim());
+      } catch (NumberFormatException e) {
+        LOGGER.warning("verify-max-failures is not a number : " + value);
+      }
+    }
+    return 0;
+  }
+
+  /**
+   * Flatten the json document into the same key values as
+   * Mapson.buildMAPsonFromJson, one pair at a time.
+   *
+   * @param json    the json
+   * @param visitor the visitor of the key and value
+   */
+  public static void flatten(String json, BiConsumer<String, String> visitor) {
+    if (!stream(json, visitor)) {
+      Mapson.buildMAPsonFromJson(json).forEach(visitor);
+    }
+  }
+
+  /**
+   * Compare every expected key value with the document.
+   *
+   * @param resource    the resource
+   * @param expected    the expected key values
+   * @param actualJson  the actual json
+   * @param maxFailures the max failures, 0 is unlimited
+   * @return the mismatches, empty when the document matches
+   */
+  public static JSONArray compareExpected(String resource, Map<String, String> expected,
+      String actualJson, int maxFailures) {
+    return compare(actualJson, new Comparison(resource, expected, true, maxFailures));
+  }
+
+  /**
+   * Compare every key value of the document with the expected key values.
+   *
+   * @param resource    the resource
+   * @param actualJson  the actual json
+   * @param expected    the expected key values
+   * @param maxFailures the max failures, 0 is unlimited
+   * @return the mismatches, empty when the document matches
+   */
+  public static JSONArray compareActual(String resource, String actualJson,
+      Map<String, String> expected, int maxFailures) {
+    return compare(actualJson, new Comparison(resource, expected, false, maxFailures));
+  }
+
+  private static JSONArray compare(String actualJson, Comparison comparison) {
+    try {
+      if (!stream(actualJson, comparison)) {
+        comparison.reset();
+        Mapson.buildMAPsonFromJson(actualJson).forEach(comparison);
+      }
+      comparison.finish();
+    } catch (MaxFailuresReached e) {
+      LOGGER.warning("Comparison stopped after verify-max-failures " + comparison.maxFailures
+          + " mismatches");
+    }
+    return comparison.failures;
+  }
+
+  private static boolean stream(String json, BiConsumer<String, String> visitor) {
+    if (json == null) {
+      return true;
+    }
+    try (JsonParser parser = FACTORY.createParser(json)) {
+      JsonToken token = parser.nextToken();
+      if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+        value(parser, token, token == JsonToken.START_ARRAY ? "" : null, visitor);
+      }
+      return true;
+    } catch (JsonProcessingException e) {
+      return false;
+    } catch (IOException e) {
+      LOGGER.warning("Unable to read the json : " + e.getMessage());
+      return false;
+    }
+  }
+
+  private static void value(JsonParser parser, JsonToken token, String path,
+      BiConsumer<String, String> visitor) throws IOException {
+    if (token == JsonToken.START_OBJECT) {
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        String key = parser.getCurrentName();
+        value(parser, parser.nextToken(), childPath(path, key), visitor);
+      }
+    } else if (token == JsonToken.START_ARRAY) {
+      int index = 0;
+      JsonToken next;
+      while ((next = parser.nextToken()) != JsonToken.END_ARRAY) {
+        value(parser, next, path + "[" + index++ + "]", visitor);
+      }
+    } else {
+      Object scalar = scalar(parser, token);
+      visitor.accept(path, DataTypeHelper.getPrefixType(scalar) + scalar);
+    }
+  }
+
+  private static String childPath(String path, String key) {
+    if (path == null) {
+      return key;
+    } else if (key.contains(".")) {
+      String[] parts = key.split("\\.");
+      return path + "." + (parts.length > 0 ? parts[0] : "")
+          + "['" + (parts.length > 1 ? parts[1] : "") + "']";
+    }
+    return path + "." + key;
+  }
+
+  private static Object scalar(JsonParser parser, JsonToken token) throws IOException {
+    switch (token) {
+      case VALUE_STRING:
+        return parser.getText();
+      case VALUE_NUMBER_INT:
+      case VALUE_NUMBER_FLOAT:
+        return JSONObject.stringToValue(parser.getText());
+      case VALUE_TRUE:
+        return Boolean.TRUE;
+      case VALUE_FALSE:
+        return Boolean.FALSE;
+      default:
+        return JSONObject.NULL;
+    }
+  }
+
+  private static boolean matches(String expected, String actual) {
+    if (expected == null) {
+      return actual == null || actual.isEmpty();
+    } else if (actual != null && expected.equals(actual.trim())) {
+      return true;
+    }
+    return expected.replace("\\r", "\r").equals(actual == null ? "" : actual);
+  }
+
+  /**
+   * Comparison of the flattened key values as they are read.
+   */
+  private static final class Comparison implements BiConsumer<String, String> {
+
+    private final String resource;
+    private final Map<String, String> expected;
+    private final boolean expectedDriven;
+    private final int maxFailures;
+    private final Set<String> seen = new HashSet<>();
+    private JSONArray failures = new JSONArray();
+
+    private Comparison(String resource, Map<String, String> expected, boolean expectedDriven,
+        int maxFailures) {
+      this.resource = resource;
+      this.expected = expected;
+      this.expectedDriven = expectedDriven;
+      this.maxFailures = maxFailures;
+    }
+
+    @Override
+    public void accept(String key, String actual) {
+      if (expectedDriven) {
+        if (!expected.containsKey(key) || !seen.add(key)) {
+          return;
+        }
+      }
+      if (!ExcludeConfiguration.shouldSkip(resource, key)) {
+        check(key, expected.get(key), actual);
+      }
+    }
+
+    private void finish() {
+      if (expectedDriven) {
+        for (Map.Entry<String, String> entry : expected.entrySet()) {
+          if (!seen.contains(entry.getKey())
+              && !ExcludeConfiguration.shouldSkip(resource, entry.getKey())) {
+            check(entry.getKey(), entry.getValue(), null);
+          }
+        }
+      }
+    }
+
+    private void reset() {
+      seen.clear();
+      failures = new JSONArray();
+    }
+
+    private void check(String key, String expectedValue, String actual) {
+      String value = expectedValue != null ? StepDefinitionHelper
+          .getActualValue(expectedValue.trim()) : null;
+      if (!matches(value, actual)) {
+        JSONObject object = new JSONObject();
+        object.put("expected", value);
+        object.put("actual", actual);
+        failures.put(new JSONObject().put(key, object));
+        if (maxFailures > 0 && failures.length() >= maxFailures) {
+          throw new MaxFailuresReached();
+        }
+      }
+    }
+  }
+
+  private static final class MaxFailuresReached extends RuntimeException {
+
+    private MaxFailuresReached() {
+      super(null, null, false, false);
+    }
+  }
+}
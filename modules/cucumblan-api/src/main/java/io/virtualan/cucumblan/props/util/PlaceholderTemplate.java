@@ -0,0 +1,162 @@
+package io.virtualan.cucumblan.props.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * The type Placeholder template.
+ * <p>
+ * A string with [key] or [key1,key2] placeholders parsed once into literal and
+ * placeholder segments. Compiled templates are kept in a bounded LRU cache keyed
+ * by the raw string, and rendered in a single pass against the scenario context.
+ * A placeholder whose key (or any of its comma separated keys) is missing in the
+ * context is kept as is. Values that contain placeholders are resolved as well.
+ */
+public final class PlaceholderTemplate {
+
+  private final static Logger LOGGER = Logger.getLogger(PlaceholderTemplate.class.getName());
+
+  private static final int MAX_CACHE_SIZE = 4096;
+  private static final int MAX_DEPTH = 10;
+
+  private static final Map<String, PlaceholderTemplate> cache = Collections.synchronizedMap(
+      new LinkedHashMap<String, PlaceholderTemplate>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, PlaceholderTemplate> eldest) {
+          return size() > MAX_CACHE_SIZE;
+        }
+      });
+
+  private final String raw;
+  private final String[] literals;
+  private final String[][] keys;
+
+  private PlaceholderTemplate(String raw, List<String> literals, List<String[]> keys) {
+    this.raw = raw;
+    this.literals = literals.toArray(new String[0]);
+    this.keys = keys.toArray(new String[0][]);
+  }
+
+  /**
+   * Compile the template or get it from the cache.
+   *
+   * @param raw the raw string
+   * @return the placeholder template
+   */
+  public static PlaceholderTemplate compile(String raw) {
+    PlaceholderTemplate template = cache.get(raw);
+    if (template == null) {
+      template = parse(raw);
+      cache.put(raw, template);
+    }
+    return template;
+  }
+
+  private static PlaceholderTemplate parse(String raw) {
+    List<String> literals = new ArrayList<>();
+    List<String[]> keys = new ArrayList<>();
+    StringBuilder literal = new StringBuilder();
+    int index = 0;
+    while (index < raw.length()) {
+      int open = raw.indexOf('[', index);
+      if (open == -1) {
+        break;
+      }
+      int close = raw.indexOf(']', open + 1);
+      if (close == -1) {
+        break;
+      }
+      int innerOpen = raw.lastIndexOf('[', close);
+      literal.append(raw, index, innerOpen);
+      if (close == innerOpen + 1) {
+        literal.append("[]");
+      } else {
+        literals.add(literal.toString());
+        literal.setLength(0);
+        keys.add(raw.substring(innerOpen + 1, close).split(",", -1));
+      }
+      index = close + 1;
+    }
+    literal.append(raw, index, raw.length());
+    literals.add(literal.toString());
+    return new PlaceholderTemplate(raw, literals, keys);
+  }
+
+  /**
+   * Has placeholders boolean.
+   *
+   * @return the boolean
+   */
+  public boolean hasPlaceholders() {
+    return keys.length > 0;
+  }
+
+  /**
+   * Render the template against the context.
+   *
+   * @param context the context
+   * @return the rendered string
+   */
+  public String render(Map<String, String> context) {
+    if (!hasPlaceholders()) {
+      return raw;
+    }
+    StringBuilder builder = new StringBuilder(raw.length() + 16 * keys.length);
+    render(builder, context, 0);
+    return builder.toString();
+  }
+
+  private void render(StringBuilder builder, Map<String, String> context, int depth) {
+    for (int i = 0; i < keys.length; i++) {
+      builder.append(literals[i]);
+      int start = builder.length();
+      if (!appendValues(builder, keys[i], context, depth)) {
+        builder.setLength(start);
+        appendPlaceholder(builder, keys[i]);
+      }
+    }
+    builder.append(literals[keys.length]);
+  }
+
+  private static boolean appendValues(StringBuilder builder, String[] tokens,
+      Map<String, String> context, int depth) {
+    for (int j = 0; j < tokens.length; j++) {
+      String value = context != null ? context.get(tokens[j]) : null;
+      if (value == null) {
+        if (tokens.length == 1) {
+          LOGGER.warning("Value missing... for the key : " + tokens[j]);
+        }
+        return false;
+      }
+      if (j > 0) {
+        builder.append(',');
+      }
+      if (depth < MAX_DEPTH && value.indexOf('[') != -1) {
+        compile(value).render(builder, context, depth + 1);
+      } else {
+        builder.append(value);
+      }
+    }
+    return true;
+  }
+
+  private static void appendPlaceholder(StringBuilder builder, String[] tokens) {
+    builder.append('[');
+    for (int j = 0; j < tokens.length; j++) {
+      if (j > 0) {
+        builder.append(',');
+      }
+      builder.append(tokens[j]);
+    }
+    builder.append(']');
+  }
+
+  @Override
+  public String toString() {
+    return raw;
+  }
+}
@@ -0,0 +1,122 @@
+package io.virtualan.cucumblan.props.util;
+
+import io.virtualan.cucumblan.props.ApplicationConfiguration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Predicate;
+
+/**
+ * The type Poller.
+ * <p>
+ * Repeats an attempt on the thread of the caller until its result meets the
+ * condition or the deadline passes. The delay between the attempts grows
+ * exponentially from await-initial-delay (ms) by await-multiplier up to
+ * await-max-delay (ms), with up to await-jitter of it taken off at random so
+ * parallel scenarios do not poll in step; await-timeout (ms) is the total
+ * deadline, and no delay runs past it. The caller is released as soon as an
+ * attempt meets the condition. An attempt is not interrupted at the deadline,
+ * so a blocking attempt must bound itself (the await step sets the deadline
+ * on the http transport).
+ */
+public class Poller {
+
+  private final long initialDelayMs;
+  private final long maxDelayMs;
+  private final double multiplier;
+  private final double jitter;
+  private final long timeoutMs;
+
+  /**
+   * Instantiates a new Poller.
+   *
+   * @param initialDelayMs the delay after the first attempt in ms
+   * @param maxDelayMs     the longest delay between two attempts in ms
+   * @param multiplier     the growth of the delay after each attempt
+   * @param jitter         the fraction (0 to 1) of the delay taken off at random
+   * @param timeoutMs      the total deadline in ms
+   */
+  public Poller(long initialDelayMs, long maxDelayMs, double multiplier, double jitter,
+      long timeoutMs) {
+    if (initialDelayMs < 0 || maxDelayMs < initialDelayMs || multiplier < 1
+        || jitter < 0 || jitter > 1 || timeoutMs < 0) {
+      throw new IllegalArgumentException("Invalid await delay " + initialDelayMs + "-"
+          + maxDelayMs + " ms x" + multiplier + ", jitter " + jitter + ", timeout " + timeoutMs
+          + " ms");
+    }
+    this.initialDelayMs = initialDelayMs;
+    this.maxDelayMs = maxDelayMs;
+    this.multiplier = multiplier;
+    this.jitter = jitter;
+    this.timeoutMs = timeoutMs;
+  }
+
+  /**
+   * Poller of the configuration.
+   *
+   * @return the poller
+   */
+  public static Poller fromConfiguration() {
+    return new Poller((long) number("await-initial-delay", 100),
+        (long) number("await-max-delay", 5000), number("await-multiplier", 2),
+        number("await-jitter", 0.5), (long) number("await-timeout", 30000));
+  }
+
+  private static double number(String key, double defaultValue) {
+    String value = ApplicationConfiguration.getProperty(key);
+    try {
+      return value != null ? Double.parseDouble(value.trim()) : defaultValue;
+    } catch (NumberFormatException e) {
+      return defaultValue;
+    }
+  }
+
+  /**
+   * Gets timeout ms.
+   *
+   * @return the total deadline in ms
+   */
+  public long getTimeoutMs() {
+    return timeoutMs;
+  }
+
+  /**
+   * Delay after the attempt.
+   *
+   * @param attempt the attempt number, from 1
+   * @return the delay in ms before the next attempt, jitter included
+   */
+  public long delayMs(int attempt) {
+    double delay = Math.min(maxDelayMs,
+        initialDelayMs * Math.pow(multiplier, Math.min(attempt - 1, 62)));
+    return (long) (delay * (1 - jitter * ThreadLocalRandom.current().nextDouble()));
+  }
+
+  /**
+   * Repeat the attempt until its result meets the condition. The attempts run
+   * on the thread of the caller, which waits out the delay between them.
+   *
+   * @param <T>       the result type
+   * @param attempt   the attempt
+   * @param condition the condition
+   * @return the result meeting the condition
+   * @throws TimeoutException the deadline passed before the condition was met
+   * @throws Exception        the failure of an attempt
+   */
+  public <T> T await(Callable<T> attempt, Predicate<T> condition) throws Exception {
+    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+    for (int count = 1; ; count++) {
+      T value = attempt.call();
+      if (condition.test(value)) {
+        return value;
+      }
+      long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+      if (remaining <= 0) {
+        throw new TimeoutException(
+            "Condition not met after " + count + " attempts in " + timeoutMs + " ms");
+      }
+      TimeUnit.MILLISECONDS.sleep(Math.min(delayMs(count), remaining));
+    }
+  }
+}
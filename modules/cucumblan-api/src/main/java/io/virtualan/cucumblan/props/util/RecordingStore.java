@@ -0,0 +1,279 @@
+package io.virtualan.cucumblan.props.util;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * The type Recording store.
+ * <p>
+ * The recorded responses of a system, by request key, kept in memory and
+ * persisted as one gzipped json line per exchange in
+ * &lt;http-record-dir&gt;/&lt;system&gt;.jsonl.gz. The file is read once when
+ * the system is first used; new recordings are merged into it on
+ * {@link #save()}, which rewrites the file only when something changed and
+ * leaves a file that could not be read untouched.
+ */
+public class RecordingStore {
+
+  private final static Logger LOGGER = Logger.getLogger(RecordingStore.class.getName());
+
+  private final File file;
+  private final Map<String, Exchange> exchanges = new ConcurrentSkipListMap<>();
+  private final AtomicLong version = new AtomicLong();
+  private volatile long savedVersion;
+  private volatile boolean unreadable;
+
+  /**
+   * Instantiates a new Recording store, loading the recordings of the system.
+   *
+   * @param directory the recording directory
+   * @param system    the system
+   */
+  public RecordingStore(String directory, String system) {
+    this.file = new File(directory, system.replaceAll("[^A-Za-z0-9._-]", "_") + ".jsonl.gz");
+    load();
+  }
+
+  /**
+   * Gets file.
+   *
+   * @return the recording file
+   */
+  public File getFile() {
+    return file;
+  }
+
+  /**
+   * Gets the recorded exchange.
+   *
+   * @param key the request key
+   * @return the exchange or null when the request was never recorded
+   */
+  public Exchange get(String key) {
+    return exchanges.get(key);
+  }
+
+  /**
+   * Record the exchange, replacing an earlier recording of the same request.
+   *
+   * @param exchange the exchange
+   */
+  public void put(Exchange exchange) {
+    exchanges.put(exchange.getKey(), exchange);
+    version.incrementAndGet();
+  }
+
+  /**
+   * Gets size.
+   *
+   * @return the number of recorded exchanges
+   */
+  public int size() {
+    return exchanges.size();
+  }
+
+  /**
+   * Save the recordings when they changed. A file that could not be read is
+   * never overwritten.
+   *
+   * @throws IOException the io exception
+   */
+  public synchronized void save() throws IOException {
+    long current = version.get();
+    if (current == savedVersion) {
+      return;
+    }
+    if (unreadable) {
+      throw new IOException(file.getPath() + " could not be read, it is kept and the "
+          + (current - savedVersion) + " new recordings are not saved");
+    }
+    if (file.getParentFile() != null) {
+      file.getParentFile().mkdirs();
+    }
+    File temp = new File(file.getPath() + ".tmp");
+    try (Writer writer = new OutputStreamWriter(new GZIPOutputStream(
+        new FileOutputStream(temp)), StandardCharsets.UTF_8)) {
+      for (Exchange exchange : exchanges.values()) {
+        writer.write(exchange.toJson().toString());
+        writer.write('\n');
+      }
+    }
+    Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    savedVersion = current;
+    LOGGER.info(exchanges.size() + " recorded exchanges written to " + file.getPath());
+  }
+
+  private void load() {
+    if (!file.isFile()) {
+      return;
+    }
+    try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+        new GZIPInputStream(new FileInputStream(file)), StandardCharsets.UTF_8))) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (!line.trim().isEmpty()) {
+          Exchange exchange = Exchange.of(new JSONObject(line));
+          exchanges.put(exchange.getKey(), exchange);
+        }
+      }
+    } catch (IOException | RuntimeException e) {
+      unreadable = true;
+      LOGGER.warning("Unable to read the recordings " + file.getPath() + " : " + e.getMessage());
+    }
+  }
+
+  /**
+   * A recorded request and its response.
+   */
+  public static final class Exchange {
+
+    private final String key;
+    private final String method;
+    private final String url;
+    private final int status;
+    private final List<String[]> headers;
+    private final byte[] body;
+
+    /**
+     * Instantiates a new Exchange.
+     *
+     * @param key     the request key
+     * @param method  the method
+     * @param url     the resolved url
+     * @param status  the response status
+     * @param headers the response headers, as name and value
+     * @param body    the response body
+     */
+    public Exchange(String key, String method, String url, int status, List<String[]> headers,
+        byte[] body) {
+      this.key = key;
+      this.method = method;
+      this.url = url;
+      this.status = status;
+      this.headers = Collections.unmodifiableList(headers);
+      this.body = body != null ? body : new byte[0];
+    }
+
+    private static Exchange of(JSONObject json) {
+      List<String[]> headers = new ArrayList<>();
+      JSONArray array = json.optJSONArray("headers");
+      for (int i = 0; array != null && i < array.length(); i++) {
+        JSONArray header = array.getJSONArray(i);
+        headers.add(new String[]{header.getString(0), header.getString(1)});
+      }
+      byte[] body = json.has("base64") ? Base64.getDecoder().decode(json.getString("base64"))
+          : json.optString("body", "").getBytes(StandardCharsets.UTF_8);
+      return new Exchange(json.getString("key"), json.getString("method"),
+          json.getString("url"), json.getInt("status"), headers, body);
+    }
+
+    private JSONObject toJson() {
+      JSONObject json = new JSONObject();
+      json.put("key", key);
+      json.put("method", method);
+      json.put("url", url);
+      json.put("status", status);
+      JSONArray array = new JSONArray();
+      for (String[] header : headers) {
+        array.put(new JSONArray().put(header[0]).put(header[1]));
+      }
+      json.put("headers", array);
+      String text = utf8(body);
+      if (text != null) {
+        json.put("body", text);
+      } else {
+        json.put("base64", Base64.getEncoder().encodeToString(body));
+      }
+      return json;
+    }
+
+    private static String utf8(byte[] bytes) {
+      try {
+        return StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPORT)
+            .onUnmappableCharacter(CodingErrorAction.REPORT)
+            .decode(ByteBuffer.wrap(bytes)).toString();
+      } catch (CharacterCodingException e) {
+        return null;
+      }
+    }
+
+    /**
+     * Gets key.
+     *
+     * @return the request key
+     */
+    public String getKey() {
+      return key;
+    }
+
+    /**
+     * Gets method.
+     *
+     * @return the method
+     */
+    public String getMethod() {
+      return method;
+    }
+
+    /**
+     * Gets url.
+     *
+     * @return the resolved url
+     */
+    public String getUrl() {
+      return url;
+    }
+
+    /**
+     * Gets status.
+     *
+     * @return the response status
+     */
+    public int getStatus() {
+      return status;
+    }
+
+    /**
+     * Gets headers.
+     *
+     * @return the response headers, as name and value
+     */
+    public List<String[]> getHeaders() {
+      return headers;
+    }
+
+    /**
+     * Gets body.
+     *
+     * @return the response body
+     */
+    public byte[] getBody() {
+      return body;
+    }
+  }
+}
@@ -0,0 +1,164 @@
+package io.virtualan.cucumblan.props.util;
+
+import io.restassured.response.Response;
+import io.virtualan.cucumblan.props.ApplicationConfiguration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The type Request fan out.
+ * <p>
+ * Named requests queued by a scenario and sent together, each on a thread of a
+ * shared pool (fan-out-threads, 16 by default) with the context of the
+ * scenario. The body of every response is read on its thread, so the pooled
+ * connections are released as soon as each call completes, and the requests of
+ * a system resource are timed on their thread too.
+ */
+public class RequestFanOut {
+
+  private static final int DEFAULT_THREADS = 16;
+
+  private final Map<String, Call> calls = new LinkedHashMap<>();
+  private final Map<String, RequestTimings.RequestTiming> timings = new ConcurrentHashMap<>();
+
+  private static class Holder {
+
+    private static final ThreadPoolExecutor EXECUTOR = executor();
+
+    private static ThreadPoolExecutor executor() {
+      int threads = DEFAULT_THREADS;
+      String value = ApplicationConfiguration.getProperty("fan-out-threads");
+      try {
+        threads = value != null ? Math.max(1, Integer.parseInt(value.trim())) : DEFAULT_THREADS;
+      } catch (NumberFormatException e) {
+        //default
+      }
+      AtomicInteger count = new AtomicInteger();
+      ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60,
+          TimeUnit.SECONDS, new LinkedBlockingQueue<>(), task -> {
+        Thread thread = new Thread(task, "cucumblan-fan-out-" + count.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+      });
+      executor.allowCoreThreadTimeOut(true);
+      return executor;
+    }
+  }
+
+  /**
+   * Queue the request.
+   *
+   * @param name the name of the response
+   * @param call the call sending the request
+   */
+  public void add(String name, Callable<Response> call) {
+    add(name, null, null, call);
+  }
+
+  /**
+   * Queue the timed request of a system resource.
+   *
+   * @param name     the name of the response
+   * @param system   the system
+   * @param resource the resource
+   * @param call     the call sending the request
+   */
+  public void add(String name, String system, String resource, Callable<Response> call) {
+    if (calls.containsKey(name)) {
+      throw new IllegalArgumentException(name + " request is already queued");
+    }
+    calls.put(name, new Call(system, resource, call));
+  }
+
+  /**
+   * Gets timings.
+   *
+   * @return the timings of the timed requests of the last send by name
+   */
+  public Map<String, RequestTimings.RequestTiming> getTimings() {
+    return new LinkedHashMap<>(timings);
+  }
+
+  /**
+   * Is empty boolean.
+   *
+   * @return true when no request is queued
+   */
+  public boolean isEmpty() {
+    return calls.isEmpty();
+  }
+
+  /**
+   * Send the queued requests concurrently and wait for all the responses.
+   *
+   * @return the responses by name, in the queued order
+   * @throws Exception the first failure of a request, once every request completed
+   */
+  public Map<String, ResponseDocument> send() throws Exception {
+    List<String> names = new ArrayList<>(calls.keySet());
+    List<Future<ResponseDocument>> futures = new ArrayList<>();
+    timings.clear();
+    for (Map.Entry<String, Call> entry : calls.entrySet()) {
+      String name = entry.getKey();
+      Call call = entry.getValue();
+      futures.add(Holder.EXECUTOR.submit(ScenarioContext.wrap(() -> call.send(name))));
+    }
+    calls.clear();
+    Map<String, ResponseDocument> responses = new LinkedHashMap<>();
+    Throwable failure = null;
+    for (int i = 0; i < futures.size(); i++) {
+      try {
+        responses.put(names.get(i), futures.get(i).get());
+      } catch (ExecutionException e) {
+        if (failure == null) {
+          failure = e.getCause();
+        }
+      }
+    }
+    if (failure instanceof Error) {
+      throw (Error) failure;
+    } else if (failure != null) {
+      throw (Exception) failure;
+    }
+    return responses;
+  }
+
+  private final class Call {
+
+    private final String system;
+    private final String resource;
+    private final Callable<Response> call;
+
+    private Call(String system, String resource, Callable<Response> call) {
+      this.system = system;
+      this.resource = resource;
+      this.call = call;
+    }
+
+    private ResponseDocument send(String name) throws Exception {
+      if (system == null) {
+        return ResponseDocument.of(call.call());
+      }
+      RequestTimings.begin();
+      ResponseDocument document;
+      try {
+        document = ResponseDocument.of(call.call());
+      } catch (Exception | Error e) {
+        RequestTimings.cancel();
+        throw e;
+      }
+      timings.put(name, RequestTimings.end(system, resource, document));
+      return document;
+    }
+  }
+}
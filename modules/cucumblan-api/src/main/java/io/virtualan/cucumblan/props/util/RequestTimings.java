@@ -0,0 +1,264 @@
+package io.virtualan.cucumblan.props.util;
+
+import io.virtualan.cucumblan.load.LatencyHistogram;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.http.HttpConnection;
+import org.apache.http.protocol.ExecutionContext;
+import org.apache.http.protocol.HttpContext;
+import org.json.JSONObject;
+
+/**
+ * The type Request timings.
+ * <p>
+ * Times the request sent by the current thread between {@link #begin()} and
+ * {@link #end(String, String, ResponseDocument)}: connect (new pooled
+ * connections only, tcp and tls), time to the first byte of the response,
+ * total time with the body read, and the request and response body bytes. The
+ * pooled transport reports the connection events; the total times are also
+ * kept for the whole run by system and resource, and counted in the
+ * {@link MetricsRegistry}.
+ */
+public class RequestTimings {
+
+  private static final ThreadLocal<Timing> current = new ThreadLocal<>();
+  private static final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+  private RequestTimings() {
+  }
+
+  /**
+   * Begin timing a request on the current thread.
+   */
+  public static void begin() {
+    current.set(new Timing(System.nanoTime()));
+  }
+
+  /**
+   * A connection was opened for the current request.
+   *
+   * @param nanos the connect duration in nanoseconds
+   */
+  static void connected(long nanos) {
+    Timing timing = current.get();
+    if (timing != null) {
+      timing.connectNanos += nanos;
+    }
+  }
+
+  /**
+   * The request is about to be written on the connection.
+   *
+   * @param context the http context
+   */
+  static void requestSending(HttpContext context) {
+    Timing timing = current.get();
+    HttpConnection connection = connection(context);
+    if (timing != null && connection != null) {
+      timing.sentBefore = connection.getMetrics().getSentBytesCount();
+    }
+  }
+
+  /**
+   * The head of the response was received.
+   *
+   * @param context the http context
+   */
+  static void responseReceived(HttpContext context) {
+    Timing timing = current.get();
+    if (timing != null) {
+      timing.firstByteNanos = System.nanoTime();
+      HttpConnection connection = connection(context);
+      if (connection != null && timing.sentBefore >= 0) {
+        timing.requestBytes = connection.getMetrics().getSentBytesCount() - timing.sentBefore;
+      }
+    }
+  }
+
+  /**
+   * End timing the request of the current thread.
+   *
+   * @param system   the system
+   * @param resource the resource
+   * @param document the response document, with the body read
+   * @return the request timing or null when the request was not timed
+   */
+  public static RequestTiming end(String system, String resource, ResponseDocument document) {
+    Timing timing = current.get();
+    current.remove();
+    if (timing == null) {
+      return null;
+    }
+    long end = System.nanoTime();
+    long firstByte = timing.firstByteNanos > 0 ? timing.firstByteNanos : end;
+    RequestTiming requestTiming = new RequestTiming(system, resource,
+        document != null && document.getResponse() != null
+            ? document.getResponse().getStatusCode() : 0,
+        timing.connectNanos, firstByte - timing.startNanos, end - timing.startNanos,
+        timing.requestBytes, document != null ? document.getBytes().length : 0);
+    histograms.computeIfAbsent(key(system, resource), k -> new LatencyHistogram())
+        .record((end - timing.startNanos) / 1000);
+    MetricsRegistry.counter("cucumblan_http_requests_total", "HTTP requests sent",
+        "system", system, "resource", resource,
+        "status", String.valueOf(requestTiming.statusCode)).increment();
+    MetricsRegistry.timer("cucumblan_http_request_seconds", "HTTP request total time",
+        "system", system, "resource", resource).record(end - timing.startNanos);
+    MetricsRegistry.histogram("cucumblan_http_response_bytes", "HTTP response body bytes",
+        "system", system, "resource", resource).observe(requestTiming.responseBytes);
+    return requestTiming;
+  }
+
+  /**
+   * Stop timing the failed request of the current thread.
+   */
+  public static void cancel() {
+    current.remove();
+  }
+
+  /**
+   * Gets the total time at the percentile of the requests of the run.
+   *
+   * @param system     the system
+   * @param resource   the resource
+   * @param percentile the percentile from 0 to 100
+   * @return the time in ms or -1 when the resource was not called
+   */
+  public static double getPercentile(String system, String resource, double percentile) {
+    LatencyHistogram histogram = histograms.get(key(system, resource));
+    return histogram != null && histogram.getCount() > 0
+        ? histogram.getValueAtPercentile(percentile) / 1000.0 : -1;
+  }
+
+  /**
+   * Gets histograms.
+   *
+   * @return the total times in microseconds by "system resource"
+   */
+  public static Map<String, LatencyHistogram> getHistograms() {
+    return new TreeMap<>(histograms);
+  }
+
+  /**
+   * Clear the timings of the run.
+   */
+  public static void clear() {
+    histograms.clear();
+  }
+
+  private static String key(String system, String resource) {
+    return system + " " + resource;
+  }
+
+  private static HttpConnection connection(HttpContext context) {
+    Object connection = context.getAttribute(ExecutionContext.HTTP_CONNECTION);
+    return connection instanceof HttpConnection ? (HttpConnection) connection : null;
+  }
+
+  private static final class Timing {
+
+    private final long startNanos;
+    private long connectNanos;
+    private long firstByteNanos;
+    private long sentBefore = -1;
+    private long requestBytes;
+
+    private Timing(long startNanos) {
+      this.startNanos = startNanos;
+    }
+  }
+
+  /**
+   * The timing of a request.
+   */
+  public static final class RequestTiming {
+
+    private final String system;
+    private final String resource;
+    private final int statusCode;
+    private final long connectNanos;
+    private final long firstByteNanos;
+    private final long totalNanos;
+    private final long requestBytes;
+    private final long responseBytes;
+
+    private RequestTiming(String system, String resource, int statusCode, long connectNanos,
+        long firstByteNanos, long totalNanos, long requestBytes, long responseBytes) {
+      this.system = system;
+      this.resource = resource;
+      this.statusCode = statusCode;
+      this.connectNanos = connectNanos;
+      this.firstByteNanos = firstByteNanos;
+      this.totalNanos = totalNanos;
+      this.requestBytes = requestBytes;
+      this.responseBytes = responseBytes;
+    }
+
+    /**
+     * Gets connect ms.
+     *
+     * @return the time to open a new connection, 0 for a pooled one
+     */
+    public double getConnectMs() {
+      return millis(connectNanos);
+    }
+
+    /**
+     * Gets time to first byte ms.
+     *
+     * @return the time to the head of the response
+     */
+    public double getFirstByteMs() {
+      return millis(firstByteNanos);
+    }
+
+    /**
+     * Gets total ms.
+     *
+     * @return the time with the response body read
+     */
+    public double getTotalMs() {
+      return millis(totalNanos);
+    }
+
+    /**
+     * Gets request bytes.
+     *
+     * @return the bytes written for the request, head included
+     */
+    public long getRequestBytes() {
+      return requestBytes;
+    }
+
+    /**
+     * Gets response bytes.
+     *
+     * @return the bytes of the response body
+     */
+    public long getResponseBytes() {
+      return responseBytes;
+    }
+
+    /**
+     * To json.
+     *
+     * @return the json object
+     */
+    public JSONObject toJson() {
+      JSONObject json = new JSONObject();
+      json.put("system", system);
+      json.put("resource", resource);
+      json.put("status", statusCode);
+      json.put("connectMs", getConnectMs());
+      json.put("firstByteMs", getFirstByteMs());
+      json.put("totalMs", getTotalMs());
+      json.put("requestBytes", requestBytes);
+      json.put("responseBytes", responseBytes);
+      return json;
+    }
+
+    private static double millis(long nanos) {
+      return Math.round(nanos / 1000.0) / 1000.0;
+    }
+  }
+}
@@ -0,0 +1,172 @@
+package io.virtualan.cucumblan.props.util;
+
+import io.virtualan.cucumblan.props.ApplicationConfiguration;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.logging.Logger;
+
+/**
+ * The type Resource body cache.
+ * <p>
+ * Loads classpath data files as bytes and decodes them with the configured
+ * charset (data-file-charset, utf-8 by default), keeping line breaks as they
+ * are. Bodies are kept in an LRU bounded by their size (data-file-cache-size
+ * bytes); files on the file system are read again when they change.
+ */
+public class ResourceBodyCache {
+
+  private final static Logger LOGGER = Logger.getLogger(ResourceBodyCache.class.getName());
+
+  private static final long DEFAULT_CACHE_SIZE = 64L * 1024 * 1024;
+
+  private static final LinkedHashMap<String, Body> bodies = new LinkedHashMap<>(16, 0.75f, true);
+  private static long cachedBytes;
+
+  private ResourceBodyCache() {
+  }
+
+  /**
+   * Read the resource.
+   *
+   * @param fileName the classpath resource name
+   * @return the body or null when the resource is missing or unreadable
+   */
+  public static String read(String fileName) {
+    if (fileName == null) {
+      return null;
+    }
+    URL url = Thread.currentThread().getContextClassLoader().getResource(fileName);
+    if (url == null) {
+      url = ApplicationConfiguration.class.getClassLoader().getResource(fileName);
+    }
+    if (url == null) {
+      return null;
+    }
+    Charset charset = getCharset();
+    String key = charset.name() + "|" + url;
+    Path path = toPath(url);
+    try {
+      long modified = path != null ? Files.getLastModifiedTime(path).toMillis() : 0;
+      long length = path != null ? Files.size(path) : 0;
+      synchronized (bodies) {
+        Body body = bodies.get(key);
+        if (body != null && body.modified == modified && body.length == length) {
+          return body.content;
+        }
+      }
+      String content = path != null ? readFile(path, charset) : readUrl(url, charset);
+      put(key, new Body(content, modified, length));
+      return content;
+    } catch (IOException e) {
+      LOGGER.warning("Unable to read " + fileName + " : " + e.getMessage());
+      return null;
+    }
+  }
+
+  /**
+   * Clear.
+   */
+  public static void clear() {
+    synchronized (bodies) {
+      bodies.clear();
+      cachedBytes = 0;
+    }
+  }
+
+  private static void put(String key, Body body) {
+    long limit = getLong("data-file-cache-size", DEFAULT_CACHE_SIZE);
+    synchronized (bodies) {
+      Body previous = bodies.remove(key);
+      if (previous != null) {
+        cachedBytes -= previous.size();
+      }
+      if (body.size() > limit / 4) {
+        return;
+      }
+      bodies.put(key, body);
+      cachedBytes += body.size();
+      Iterator<Body> eldest = bodies.values().iterator();
+      while (cachedBytes > limit && eldest.hasNext()) {
+        cachedBytes -= eldest.next().size();
+        eldest.remove();
+      }
+    }
+  }
+
+  private static String readFile(Path path, Charset charset) throws IOException {
+    return stripBom(new String(Files.readAllBytes(path), charset));
+  }
+
+  private static String readUrl(URL url, Charset charset) throws IOException {
+    try (InputStream stream = url.openStream()) {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      byte[] buffer = new byte[8192];
+      int read;
+      while ((read = stream.read(buffer)) != -1) {
+        bytes.write(buffer, 0, read);
+      }
+      return stripBom(new String(bytes.toByteArray(), charset));
+    }
+  }
+
+  private static String stripBom(String content) {
+    return !content.isEmpty() && content.charAt(0) == '\uFEFF' ? content.substring(1) : content;
+  }
+
+  private static Path toPath(URL url) {
+    if (!"file".equals(url.getProtocol())) {
+      return null;
+    }
+    try {
+      return Paths.get(url.toURI());
+    } catch (URISyntaxException | IllegalArgumentException e) {
+      return null;
+    }
+  }
+
+  private static Charset getCharset() {
+    String charset = ApplicationConfiguration.getProperty("data-file-charset");
+    try {
+      return charset != null ? Charset.forName(charset.trim()) : StandardCharsets.UTF_8;
+    } catch (IllegalArgumentException e) {
+      LOGGER.warning("Unsupported data-file-charset " + charset + ", using utf-8");
+      return StandardCharsets.UTF_8;
+    }
+  }
+
+  private static long getLong(String key, long defaultValue) {
+    String value = ApplicationConfiguration.getProperty(key);
+    try {
+      return value != null ? Long.parseLong(value.trim()) : defaultValue;
+    } catch (NumberFormatException e) {
+      return defaultValue;
+    }
+  }
+
+  private static final class Body {
+
+    private final String content;
+    private final long modified;
+    private final long length;
+
+    private Body(String content, long modified, long length) {
+      this.content = content;
+      this.modified = modified;
+      this.length = length;
+    }
+
+    private long size() {
+      return 2L * content.length();
+    }
+  }
+}
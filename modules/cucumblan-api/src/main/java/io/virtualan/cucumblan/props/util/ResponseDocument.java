@@ -0,0 +1,202 @@
+package io.virtualan.cucumblan.props.util;
+
+import io.restassured.path.json.JsonPath;
+import io.restassured.response.Response;
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+import org.w3c.dom.Document;
+
+/**
+ * The type Response document.
+ * <p>
+ * Parse once view of an api response shared by the verify and store steps. It
+ * keeps the raw bytes and parses the text, the json path tree, the json value
+ * and the xml dom on first use only, so a verification table with many rows
+ * reads the same parsed document instead of parsing the body for every row.
+ * The parsed values are shared: callers must not modify them.
+ */
+public class ResponseDocument {
+
+  private final static Logger LOGGER = Logger.getLogger(ResponseDocument.class.getName());
+
+  private final Response response;
+  private final byte[] body;
+  private final String contentType;
+  private final Supplier<String> textSupplier;
+  private final Supplier<JsonPath> jsonPathSupplier;
+
+  private String text;
+  private JsonPath jsonPath;
+  private Object json;
+  private boolean jsonParsed;
+  private Document xml;
+
+  private ResponseDocument(Response response, byte[] body, String contentType,
+      Supplier<String> textSupplier, Supplier<JsonPath> jsonPathSupplier) {
+    this.response = response;
+    this.body = body;
+    this.contentType = contentType;
+    this.textSupplier = textSupplier;
+    this.jsonPathSupplier = jsonPathSupplier;
+  }
+
+  /**
+   * Create the document of the response. The text and json path are read
+   * with the response charset and rest assured json configuration.
+   *
+   * @param response the response
+   * @return the response document
+   */
+  public static ResponseDocument of(Response response) {
+    return new ResponseDocument(response, response.asByteArray(), response.getContentType(),
+        response::asString, response::jsonPath);
+  }
+
+  /**
+   * Create the document of the raw body.
+   *
+   * @param body        the body
+   * @param contentType the content type, the charset parameter is used to read the text
+   * @return the response document
+   */
+  public static ResponseDocument of(byte[] body, String contentType) {
+    String text = new String(body, charset(contentType));
+    return new ResponseDocument(null, body, contentType, () -> text, () -> new JsonPath(text));
+  }
+
+  /**
+   * Is of boolean.
+   *
+   * @param response the response
+   * @return true when the document was created for the response
+   */
+  public boolean isOf(Response response) {
+    return this.response != null && this.response == response;
+  }
+
+  /**
+   * Gets response.
+   *
+   * @return the response or null when created from a raw body
+   */
+  public Response getResponse() {
+    return response;
+  }
+
+  /**
+   * Gets the raw body.
+   *
+   * @return the bytes
+   */
+  public byte[] getBytes() {
+    return body;
+  }
+
+  /**
+   * Gets content type.
+   *
+   * @return the content type
+   */
+  public String getContentType() {
+    return contentType;
+  }
+
+  /**
+   * Gets the charset declared by the content type.
+   *
+   * @return the charset or null when the content type has none
+   */
+  public String getCharset() {
+    return charsetName(contentType);
+  }
+
+  /**
+   * Gets a reader over the raw body in the charset of the content type, so
+   * the body is streamed without being decoded into a string first.
+   *
+   * @return the reader
+   */
+  public Reader reader() {
+    return new InputStreamReader(new ByteArrayInputStream(body), charset(contentType));
+  }
+
+  /**
+   * Gets the body as string.
+   *
+   * @return the string
+   */
+  public synchronized String asString() {
+    if (text == null) {
+      text = textSupplier.get();
+    }
+    return text;
+  }
+
+  /**
+   * Gets the rest assured json path of the body; the json tree is parsed on
+   * the first read and reused by every later path.
+   *
+   * @return the json path
+   */
+  public synchronized JsonPath jsonPath() {
+    if (jsonPath == null) {
+      jsonPath = jsonPathSupplier.get();
+    }
+    return jsonPath;
+  }
+
+  /**
+   * Gets the body as JSONObject or JSONArray.
+   *
+   * @return the json value or null when the body is not json
+   */
+  public synchronized Object json() {
+    if (!jsonParsed) {
+      json = StepDefinitionHelper.getJSON(asString());
+      jsonParsed = true;
+    }
+    return json;
+  }
+
+  /**
+   * Gets the body as namespace aware xml document.
+   *
+   * @return the document
+   * @throws Exception the exception
+   */
+  public synchronized Document xml() throws Exception {
+    if (xml == null) {
+      xml = XmlHelper.parse(asString());
+    }
+    return xml;
+  }
+
+  private static Charset charset(String contentType) {
+    String name = charsetName(contentType);
+    if (name != null) {
+      try {
+        return Charset.forName(name);
+      } catch (IllegalArgumentException e) {
+        LOGGER.warning("Unsupported charset " + name + " using UTF-8");
+      }
+    }
+    return StandardCharsets.UTF_8;
+  }
+
+  private static String charsetName(String contentType) {
+    if (contentType != null) {
+      for (String parameter : contentType.split(";")) {
+        String[] pair = parameter.trim().split("=", 2);
+        if (pair.length == 2 && "charset".equalsIgnoreCase(pair[0].trim())) {
+          return pair[1].trim().replace("\"", "");
+        }
+      }
+    }
+    return null;
+  }
+}
@@ -0,0 +1,168 @@
+package io.virtualan.cucumblan.props.util;
+
+import io.cucumber.java.Scenario;
+import io.virtualan.cucumblan.props.ApplicationConfiguration;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * The type Scenario report.
+ * <p>
+ * Attaches step data to the scenario report. The data is serialized only when
+ * it is attached; with report-mode=lean attachments are capped, kept until the
+ * scenario fails and limited by a budget per scenario:
+ * <pre>
+ * report-mode=lean                        # full (default) or lean
+ * report-attachment-max-bytes=65536       # 0 is unlimited (full: 0, lean: 65536)
+ * report-scenario-max-bytes=1048576       # 0 is unlimited (full: 0, lean: 1048576)
+ * report-on-failure-only=true             # (full: false, lean: true)
+ * </pre>
+ */
+public class ScenarioReport {
+
+  private final static Logger LOGGER = Logger.getLogger(ScenarioReport.class.getName());
+
+  private final Scenario scenario;
+  private final boolean lean;
+  private final long maxAttachmentBytes;
+  private final long maxScenarioBytes;
+  private final boolean onFailureOnly;
+  private final List<Attachment> pending = new ArrayList<>();
+  private long attachedBytes;
+  private int dropped;
+
+  private ScenarioReport(Scenario scenario) {
+    this.scenario = scenario;
+    this.lean = "lean".equalsIgnoreCase(ApplicationConfiguration.getProperty("report-mode"));
+    this.maxAttachmentBytes = getLong("report-attachment-max-bytes", lean ? 65536 : 0);
+    this.maxScenarioBytes = getLong("report-scenario-max-bytes", lean ? 1048576 : 0);
+    String onFailure = ApplicationConfiguration.getProperty("report-on-failure-only");
+    this.onFailureOnly = onFailure != null ? Boolean.parseBoolean(onFailure.trim()) : lean;
+  }
+
+  /**
+   * Create the report of the scenario with the configured reporting mode.
+   *
+   * @param scenario the scenario
+   * @return the scenario report
+   */
+  public static ScenarioReport of(Scenario scenario) {
+    return new ScenarioReport(scenario);
+  }
+
+  /**
+   * Is lean boolean.
+   *
+   * @return true with report-mode=lean
+   */
+  public boolean isLean() {
+    return lean;
+  }
+
+  /**
+   * Attach.
+   *
+   * @param data      the data
+   * @param mediaType the media type
+   * @param name      the name
+   */
+  public void attach(String data, String mediaType, String name) {
+    attach(() -> data, mediaType, name);
+  }
+
+  /**
+   * Attach the data; it is serialized only when it is written to the report.
+   *
+   * @param data      the data
+   * @param mediaType the media type
+   * @param name      the name
+   */
+  public synchronized void attach(Supplier<String> data, String mediaType, String name) {
+    Attachment attachment = new Attachment(data, mediaType, name);
+    if (onFailureOnly) {
+      pending.add(attachment);
+    } else {
+      write(attachment);
+    }
+  }
+
+  /**
+   * Finish the scenario: with report-on-failure-only the kept attachments are
+   * written when the scenario failed and dropped otherwise.
+   */
+  public synchronized void finish() {
+    if (scenario.isFailed()) {
+      flush();
+    }
+    pending.clear();
+    if (dropped > 0) {
+      scenario.log(dropped + " attachment(s) dropped, report-scenario-max-bytes "
+          + maxScenarioBytes + " reached");
+      dropped = 0;
+    }
+  }
+
+  /**
+   * Write the kept attachments now, for callers that detect the failure
+   * themselves.
+   */
+  public synchronized void flush() {
+    pending.forEach(this::write);
+    pending.clear();
+  }
+
+  private void write(Attachment attachment) {
+    String data = attachment.data.get();
+    if (data == null) {
+      return;
+    }
+    byte[] bytes = data.getBytes(StandardCharsets.UTF_8);
+    if (maxAttachmentBytes > 0 && bytes.length > maxAttachmentBytes) {
+      data = truncate(bytes, (int) maxAttachmentBytes);
+      bytes = data.getBytes(StandardCharsets.UTF_8);
+    }
+    if (maxScenarioBytes > 0 && attachedBytes + bytes.length > maxScenarioBytes) {
+      dropped++;
+      return;
+    }
+    attachedBytes += bytes.length;
+    scenario.attach(data, attachment.mediaType, attachment.name);
+  }
+
+  private static String truncate(byte[] bytes, int maxBytes) {
+    String head = new String(bytes, 0, maxBytes, StandardCharsets.UTF_8);
+    if (!head.isEmpty() && head.charAt(head.length() - 1) == '\uFFFD') {
+      head = head.substring(0, head.length() - 1);
+    }
+    return head + "\n...[truncated " + (bytes.length - maxBytes) + " of " + bytes.length
+        + " bytes]";
+  }
+
+  private static long getLong(String key, long defaultValue) {
+    String value = ApplicationConfiguration.getProperty(key);
+    if (value != null) {
+      try {
+        return Long.parseLong(value.trim());
+      } catch (NumberFormatException e) {
+        LOGGER.warning(key + " is not a number : " + value);
+      }
+    }
+    return defaultValue;
+  }
+
+  private static final class Attachment {
+
+    private final Supplier<String> data;
+    private final String mediaType;
+    private final String name;
+
+    private Attachment(Supplier<String> data, String mediaType, String name) {
+      this.data = data;
+      this.mediaType = mediaType;
+      this.name = name;
+    }
+  }
+}
@@ -30,25 +30,26 @@ public class StepDefinitionHelper {
       if (key.contains(",")) {
         StringBuffer keys = new StringBuffer();
         for (String token : key.split(",")) {
-          if (!ScenarioContext.getContext(String.valueOf(Thread.currentThread().getId())).containsKey(token)) {
+          if (!ScenarioContext.getContext().containsKey(token)) {
             System.out.println("Value missing...");
           }
-          keys.append(ScenarioContext.getContext(String.valueOf(Thread.currentThread().getId())).get(token)).append(",");
+          keys.append(ScenarioContext.getContext().get(token)).append(",");
         }
         returnValue = keys.toString().substring(0, keys.toString().length() - 1);
 
       } else {
-        if (!ScenarioContext.getContext(String.valueOf(Thread.currentThread().getId())).containsKey(key)) {
+        if (!ScenarioContext.getContext().containsKey(key)) {
           System.out.println("Value missing...");
         }
-        returnValue = ScenarioContext.getContext(String.valueOf(Thread.currentThread().getId())).get(key);
+        returnValue = ScenarioContext.getContext().get(key);
       }
     }
     return returnValue;
   }
 
   /**
-   * Gets actual value.
+   * Gets actual value. The [key] placeholders are resolved from the scenario
+   * context through the compiled {@link PlaceholderTemplate}.
    *
    * @param object the object
    * @return the actual value
@@ -57,36 +58,12 @@ public class StepDefinitionHelper {
     if (object == null) {
       return null;
     }
-    //TODO validate
-//    if (object instanceof JSONArray) {
-//      return object;
-//    }
-
-    String returnValue = (String) object;
-    String key = "";
-    if (returnValue.contains("[") && returnValue.contains("]")) {
-      key = returnValue.substring(returnValue.indexOf("[") + 1, returnValue.indexOf("]"));
-      if (key.contains(",")) {
-        StringBuffer keys = new StringBuffer();
-        for (String token : key.split(",")) {
-          if (!ScenarioContext.getContext(String.valueOf(Thread.currentThread().getId())).containsKey(token)) {
-            return object.toString();
-          }
-          keys.append(ScenarioContext.getContext(String.valueOf(Thread.currentThread().getId())).get(token)).append(",");
-        }
-        returnValue = keys.toString().substring(0, keys.toString().length() - 1);
-      }
-      else {
-        if (!ScenarioContext.getContext(String.valueOf(Thread.currentThread().getId())).containsKey(key)) {
-          LOGGER.warning(object +" has Value missing... for the key : " + key);
-          return object.toString();
-        } else {
-          returnValue = ScenarioContext.getContext(String.valueOf(Thread.currentThread().getId())).get(key);
-        }
-      }
+    String value = (String) object;
+    if (value.indexOf('[') == -1) {
+      return value;
     }
-    String response = ((String) object).replace("[" + key + "]", returnValue);
-    return response.indexOf("[") != -1 ? getActualValue(response) : response;
+    return PlaceholderTemplate.compile(value)
+        .render(ScenarioContext.getContext());
   }
 
   /**
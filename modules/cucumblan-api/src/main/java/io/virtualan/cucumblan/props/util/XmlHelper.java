@@ -0,0 +1,162 @@
+package io.virtualan.cucumblan.props.util;
+
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.xml.namespace.NamespaceContext;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.xpath.XPath;
+import javax.xml.xpath.XPathExpression;
+import javax.xml.xpath.XPathExpressionException;
+import javax.xml.xpath.XPathFactory;
+import org.w3c.dom.Document;
+import org.xml.sax.InputSource;
+
+/**
+ * The type Xml helper.
+ * <p>
+ * Parses with a namespace-aware DocumentBuilder kept per thread, evaluates
+ * xpaths compiled once per thread (bounded, keyed by expression and namespace
+ * context), and keeps the parsed expected documents with the values of their
+ * xpaths for the whole run.
+ */
+public class XmlHelper {
+
+  private static final int MAX_EXPRESSIONS = 512;
+  private static final int MAX_EXPECTED_DOCUMENTS = 64;
+
+  private static final DocumentBuilderFactory FACTORY = DocumentBuilderFactory.newInstance();
+
+  static {
+    FACTORY.setNamespaceAware(true);
+  }
+
+  private static final ThreadLocal<DocumentBuilder> builders = ThreadLocal.withInitial(() -> {
+    try {
+      synchronized (FACTORY) {
+        return FACTORY.newDocumentBuilder();
+      }
+    } catch (ParserConfigurationException e) {
+      throw new IllegalStateException(e);
+    }
+  });
+
+  private static final ThreadLocal<XPath> xpaths = ThreadLocal
+      .withInitial(() -> XPathFactory.newInstance().newXPath());
+
+  private static final ThreadLocal<Map<List<Object>, XPathExpression>> expressions = ThreadLocal
+      .withInitial(() -> new LinkedHashMap<List<Object>, XPathExpression>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<List<Object>, XPathExpression> eldest) {
+          return size() > MAX_EXPRESSIONS;
+        }
+      });
+
+  private static final Map<String, ExpectedDocument> expectedDocuments = Collections
+      .synchronizedMap(new LinkedHashMap<String, ExpectedDocument>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, ExpectedDocument> eldest) {
+          return size() > MAX_EXPECTED_DOCUMENTS;
+        }
+      });
+
+  private XmlHelper() {
+  }
+
+  /**
+   * Parse the xml with the document builder of the thread.
+   *
+   * @param xml the xml
+   * @return the document
+   * @throws Exception the exception
+   */
+  public static Document parse(String xml) throws Exception {
+    DocumentBuilder builder = builders.get();
+    try {
+      return builder.parse(new InputSource(new StringReader(xml)));
+    } finally {
+      builder.reset();
+    }
+  }
+
+  /**
+   * Evaluate the xpath as a string, as XMLUnit's xpath engine does.
+   *
+   * @param xpath            the xpath
+   * @param namespaceContext the namespace context, may be null
+   * @param document         the document
+   * @return the value
+   * @throws XPathExpressionException the x path expression exception
+   */
+  public static String evaluate(String xpath, NamespaceContext namespaceContext,
+      Document document) throws XPathExpressionException {
+    return compile(xpath, namespaceContext).evaluate(document);
+  }
+
+  /**
+   * Evaluate the xpath on the expected xml. The expected xml is parsed once and
+   * the values of its xpaths are kept for the run.
+   *
+   * @param xpath            the xpath
+   * @param namespaceContext the namespace context, may be null
+   * @param expectedXML      the expected xml
+   * @return the value
+   * @throws Exception the exception
+   */
+  public static String evaluateExpected(String xpath, NamespaceContext namespaceContext,
+      String expectedXML) throws Exception {
+    ExpectedDocument expected = expectedDocuments.get(expectedXML);
+    if (expected == null) {
+      expected = new ExpectedDocument(parse(expectedXML));
+      expectedDocuments.put(expectedXML, expected);
+    }
+    return expected.evaluate(xpath, namespaceContext);
+  }
+
+  private static XPathExpression compile(String xpath, NamespaceContext namespaceContext)
+      throws XPathExpressionException {
+    List<Object> key = Arrays.asList(xpath, namespaceContext);
+    Map<List<Object>, XPathExpression> compiled = expressions.get();
+    XPathExpression expression = compiled.get(key);
+    if (expression == null) {
+      XPath engine = xpaths.get();
+      if (namespaceContext != null) {
+        engine.setNamespaceContext(namespaceContext);
+      } else {
+        engine.reset();
+      }
+      expression = engine.compile(xpath);
+      compiled.put(key, expression);
+    }
+    return expression;
+  }
+
+  /**
+   * Parsed expected document with the values of its xpaths.
+   */
+  private static final class ExpectedDocument {
+
+    private final Document document;
+    private final Map<List<Object>, String> values = new LinkedHashMap<>();
+
+    private ExpectedDocument(Document document) {
+      this.document = document;
+    }
+
+    private synchronized String evaluate(String xpath, NamespaceContext namespaceContext)
+        throws XPathExpressionException {
+      List<Object> key = Arrays.asList(xpath, namespaceContext);
+      String value = values.get(key);
+      if (value == null) {
+        value = XmlHelper.evaluate(xpath, namespaceContext, document);
+        values.put(key, value);
+      }
+      return value;
+    }
+  }
+}
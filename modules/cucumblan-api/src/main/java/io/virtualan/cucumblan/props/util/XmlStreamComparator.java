@@ -0,0 +1,319 @@
+package io.virtualan.cucumblan.props.util;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * The type Xml stream comparator.
+ * <p>
+ * Compares two xml documents while reading them with StAX, so only the open
+ * elements and the differences are kept in memory. Attributes are compared
+ * regardless of their order, namespace prefixes are not compared, and each
+ * difference is reported with the xpath of its location. The settings belong
+ * to the instance, so comparisons in parallel do not share state:
+ * <pre>
+ * List&lt;String&gt; differences = new XmlStreamComparator()
+ *     .ignoreWhitespace(true).maxDifferences(10).compare(expected, actual);
+ * </pre>
+ * The comparison stops at the first structural difference (an element, text,
+ * comment or end of the document where the other document has something
+ * else), since the documents can no longer be walked side by side.
+ */
+public class XmlStreamComparator {
+
+  private static final int MAX_VALUE_LENGTH = 200;
+
+  private static final ThreadLocal<XMLInputFactory> factories = ThreadLocal.withInitial(() -> {
+    XMLInputFactory factory = XMLInputFactory.newInstance();
+    factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+    factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+    factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    return factory;
+  });
+
+  private boolean ignoreWhitespace = true;
+  private boolean ignoreComments;
+  private int maxDifferences;
+
+  /**
+   * Trim the text and skip the whitespace only text, true by default.
+   *
+   * @param ignoreWhitespace the ignore whitespace
+   * @return the xml stream comparator
+   */
+  public XmlStreamComparator ignoreWhitespace(boolean ignoreWhitespace) {
+    this.ignoreWhitespace = ignoreWhitespace;
+    return this;
+  }
+
+  /**
+   * Skip the comments, false by default.
+   *
+   * @param ignoreComments the ignore comments
+   * @return the xml stream comparator
+   */
+  public XmlStreamComparator ignoreComments(boolean ignoreComments) {
+    this.ignoreComments = ignoreComments;
+    return this;
+  }
+
+  /**
+   * Stop after the given number of differences, 0 (the default) reports all.
+   *
+   * @param maxDifferences the max differences
+   * @return the xml stream comparator
+   */
+  public XmlStreamComparator maxDifferences(int maxDifferences) {
+    this.maxDifferences = maxDifferences;
+    return this;
+  }
+
+  /**
+   * Compare the documents.
+   *
+   * @param expectedXML the expected xml
+   * @param actualXML   the actual xml
+   * @return the differences, empty when the documents are equal
+   * @throws XMLStreamException the xml stream exception
+   */
+  public List<String> compare(String expectedXML, String actualXML) throws XMLStreamException {
+    return compare(new StringReader(expectedXML), new StringReader(actualXML));
+  }
+
+  /**
+   * Compare the documents.
+   *
+   * @param expected the expected xml
+   * @param actual   the actual xml
+   * @return the differences, empty when the documents are equal
+   * @throws XMLStreamException the xml stream exception
+   */
+  public List<String> compare(Reader expected, Reader actual) throws XMLStreamException {
+    XMLInputFactory factory = factories.get();
+    return compare(factory.createXMLStreamReader(expected),
+        factory.createXMLStreamReader(actual));
+  }
+
+  /**
+   * Compare the documents. The actual bytes are decoded with the given
+   * charset, or with the encoding of the xml declaration when it is null.
+   *
+   * @param expected      the expected xml
+   * @param actual        the actual xml
+   * @param actualCharset the actual charset, may be null
+   * @return the differences, empty when the documents are equal
+   * @throws XMLStreamException the xml stream exception
+   */
+  public List<String> compare(Reader expected, InputStream actual, String actualCharset)
+      throws XMLStreamException {
+    XMLInputFactory factory = factories.get();
+    return compare(factory.createXMLStreamReader(expected), actualCharset != null
+        ? factory.createXMLStreamReader(actual, actualCharset)
+        : factory.createXMLStreamReader(actual));
+  }
+
+  private List<String> compare(XMLStreamReader expectedReader, XMLStreamReader actualReader)
+      throws XMLStreamException {
+    List<String> differences = new ArrayList<>();
+    Cursor expected = new Cursor(expectedReader);
+    Cursor actual = new Cursor(actualReader);
+    try {
+      while (maxDifferences <= 0 || differences.size() < maxDifferences) {
+        expected.advance();
+        actual.advance();
+        if (expected.type != actual.type || (expected.type == XMLStreamConstants.START_ELEMENT
+            && !expected.name.equals(actual.name))) {
+          differences.add("Expected " + expected.describe() + " but was " + actual.describe()
+              + " at " + expected.location());
+          break;
+        } else if (expected.type == XMLStreamConstants.END_DOCUMENT) {
+          break;
+        } else if (expected.type == XMLStreamConstants.START_ELEMENT) {
+          compareAttributes(expected, actual, differences);
+        } else if (!Objects.equals(expected.value, actual.value)) {
+          differences.add("Expected " + expected.describe() + " but was " + actual.describe()
+              + " at " + expected.location());
+        }
+      }
+    } finally {
+      expectedReader.close();
+      actualReader.close();
+    }
+    if (maxDifferences > 0 && differences.size() > maxDifferences) {
+      return differences.subList(0, maxDifferences);
+    }
+    return differences;
+  }
+
+  private static void compareAttributes(Cursor expected, Cursor actual,
+      List<String> differences) {
+    Map<String, String> expectedAttributes = expected.attributes();
+    Map<String, String> actualAttributes = actual.attributes();
+    for (Map.Entry<String, String> attribute : expectedAttributes.entrySet()) {
+      String value = actualAttributes.remove(attribute.getKey());
+      if (!attribute.getValue().equals(value)) {
+        differences.add("Expected attribute value '" + shorten(attribute.getValue())
+            + "' but was " + (value == null ? "missing" : "'" + shorten(value) + "'")
+            + " at " + expected.path() + "/@" + attribute.getKey());
+      }
+    }
+    for (String name : actualAttributes.keySet()) {
+      differences.add("Unexpected attribute at " + expected.path() + "/@" + name);
+    }
+  }
+
+  private static String shorten(String value) {
+    return value.length() > MAX_VALUE_LENGTH
+        ? value.substring(0, MAX_VALUE_LENGTH) + "..." : value;
+  }
+
+  /**
+   * Position in one of the documents, on its next significant event.
+   */
+  private final class Cursor {
+
+    private final XMLStreamReader reader;
+    private final Deque<Element> elements = new ArrayDeque<>();
+    private final StringBuilder text = new StringBuilder();
+    private boolean pending;
+    private int type;
+    private String name;
+    private String value;
+
+    private Cursor(XMLStreamReader reader) {
+      this.reader = reader;
+      elements.push(new Element(""));
+    }
+
+    private void advance() throws XMLStreamException {
+      if (type == XMLStreamConstants.END_ELEMENT) {
+        elements.pop();
+      }
+      name = null;
+      value = null;
+      text.setLength(0);
+      int event = pending ? reader.getEventType() : nextEvent();
+      while (isText(event) || (event == XMLStreamConstants.COMMENT && ignoreComments)) {
+        if (isText(event)) {
+          text.append(reader.getText());
+        }
+        event = nextEvent();
+      }
+      String content = ignoreWhitespace ? text.toString().trim() : text.toString();
+      if (!content.isEmpty()) {
+        pending = true;
+        type = XMLStreamConstants.CHARACTERS;
+        value = content;
+        return;
+      }
+      pending = false;
+      type = event;
+      if (event == XMLStreamConstants.START_ELEMENT) {
+        name = "{" + nullToEmpty(reader.getNamespaceURI()) + "}" + reader.getLocalName();
+        String prefix = reader.getPrefix();
+        String qualified = prefix == null || prefix.isEmpty() ? reader.getLocalName()
+            : prefix + ":" + reader.getLocalName();
+        Element parent = elements.peek();
+        int index = parent.children.merge(qualified, 1, Integer::sum);
+        elements.push(new Element(parent.path + "/" + qualified + "[" + index + "]"));
+      } else if (event == XMLStreamConstants.COMMENT) {
+        value = reader.getText();
+      } else if (event == XMLStreamConstants.PROCESSING_INSTRUCTION) {
+        value = reader.getPITarget() + " " + nullToEmpty(reader.getPIData());
+      }
+    }
+
+    private int nextEvent() throws XMLStreamException {
+      int event = reader.next();
+      while (event != XMLStreamConstants.START_ELEMENT
+          && event != XMLStreamConstants.END_ELEMENT
+          && event != XMLStreamConstants.END_DOCUMENT
+          && event != XMLStreamConstants.COMMENT
+          && event != XMLStreamConstants.PROCESSING_INSTRUCTION
+          && !isText(event)) {
+        event = reader.next();
+      }
+      return event;
+    }
+
+    private boolean isText(int event) {
+      return event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA
+          || event == XMLStreamConstants.SPACE;
+    }
+
+    private Map<String, String> attributes() {
+      Map<String, String> attributes = new TreeMap<>();
+      for (int i = 0; i < reader.getAttributeCount(); i++) {
+        String namespace = nullToEmpty(reader.getAttributeNamespace(i));
+        attributes.put(namespace.isEmpty() ? reader.getAttributeLocalName(i)
+            : "{" + namespace + "}" + reader.getAttributeLocalName(i), reader.getAttributeValue(i));
+      }
+      return attributes;
+    }
+
+    private String path() {
+      String path = elements.peek().path;
+      return path.isEmpty() ? "/" : path;
+    }
+
+    private String location() {
+      switch (type) {
+        case XMLStreamConstants.CHARACTERS:
+          return path() + "/text()";
+        case XMLStreamConstants.COMMENT:
+          return path() + "/comment()";
+        case XMLStreamConstants.PROCESSING_INSTRUCTION:
+          return path() + "/processing-instruction()";
+        default:
+          return path();
+      }
+    }
+
+    private String describe() {
+      switch (type) {
+        case XMLStreamConstants.START_ELEMENT:
+          return "element " + name;
+        case XMLStreamConstants.END_ELEMENT:
+          return "end of element";
+        case XMLStreamConstants.CHARACTERS:
+          return "text '" + shorten(value) + "'";
+        case XMLStreamConstants.COMMENT:
+          return "comment '" + shorten(value) + "'";
+        case XMLStreamConstants.PROCESSING_INSTRUCTION:
+          return "processing instruction '" + shorten(value) + "'";
+        default:
+          return "end of document";
+      }
+    }
+  }
+
+  private static String nullToEmpty(String value) {
+    return value == null ? "" : value;
+  }
+
+  /**
+   * Open element with the count of its children by name.
+   */
+  private static final class Element {
+
+    private final String path;
+    private final Map<String, Integer> children = new HashMap<>();
+
+    private Element(String path) {
+      this.path = path;
+    }
+  }
+}
@@ -3,48 +3,44 @@ package io.virtualan.cucumblan.script;
 import io.virtualan.util.Helper;
 import java.io.IOException;
 
+import java.util.Collections;
 import java.util.Map;
-import java.util.Random;
-import org.apache.poi.ss.usermodel.Cell;
-import org.apache.poi.ss.usermodel.CellType;
-import org.apache.poi.ss.usermodel.FormulaEvaluator;
-import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 
+/**
+ * Evaluates excel like formulas. The formula is compiled once into a cached
+ * {@link Formula} and evaluated against the scenario context; formulas the
+ * built-in engine cannot handle (TEXT, TODAY, ...) fall back to a pooled POI
+ * evaluator.
+ */
 public class ExcelAndMathHelper {
 
     public static Object evaluateWithVariables(Class type, String formula, Map<String, String> contextObject) throws IOException {
-        return evaluate(type, Helper.getActualValueForAll(formula,contextObject).toString());
+        Formula compiled = Formula.compile(formula);
+        if (compiled.isSupported()) {
+            try {
+                return convert(type, compiled.evaluate(contextObject));
+            } catch (FormulaException e) {
+                // evaluation error, let POI report it the usual way
+            }
+        }
+        return PoiFormulaEvaluator.evaluate(type,
+            Helper.getActualValueForAll(formula, contextObject).toString());
     }
 
     public static Object evaluate(Class type, String formula) throws IOException {
-        Object cellValue = new Object();
-        Workbook workbook = new XSSFWorkbook();
-        Sheet sheet = workbook.createSheet();
-        FormulaEvaluator evaluator = workbook.getCreationHelper()
-            .createFormulaEvaluator();
-        Row row = sheet.createRow(new Random().nextInt(100));
-        Cell cell = row.createCell(new Random().nextInt(100));
-        cell.setCellFormula(formula);
-        if (cell.getCellType() == CellType.FORMULA) {
-            CellType cellType = evaluator.evaluateFormulaCell(cell);
-            if(type.getName().equals("java.lang.Boolean") && cellType == CellType.BOOLEAN) {
-                cellValue = cell.getBooleanCellValue();
-                return cellValue;
-            } else if(type.getName().equals("java.lang.Integer") && cellType == CellType.NUMERIC) {
-                cellValue = (int)cell.getNumericCellValue();
-                return cellValue;
-            } else if(type.getName().equals("java.lang.Double") && cellType == CellType.NUMERIC) {
-                cellValue = cell.getNumericCellValue();
-                return cellValue;
-            } else if(type.getName().equals("java.lang.String") && cellType == CellType.STRING) {
-                cellValue = cell.getStringCellValue();
-                return cellValue;
-            }
+        return evaluateWithVariables(type, formula, Collections.emptyMap());
+    }
+
+    private static Object convert(Class type, Object value) {
+        if (type == Boolean.class && value instanceof Boolean) {
+            return value;
+        } else if (type == Integer.class && value instanceof Double) {
+            return ((Double) value).intValue();
+        } else if (type == Double.class && value instanceof Double) {
+            return value;
+        } else if (type == String.class && value instanceof String) {
+            return value;
         }
-        workbook.close();
         return null;
     }
-}
\ No newline at end of file
+}
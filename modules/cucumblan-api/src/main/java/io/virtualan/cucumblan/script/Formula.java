@@ -0,0 +1,271 @@
+package io.virtualan.cucumblan.script;
+
+import io.virtualan.cucumblan.props.util.PlaceholderTemplate;
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The type Formula.
+ * <p>
+ * An excel like formula parsed once into an AST by {@link FormulaParser} and
+ * cached by its text. [key] references are resolved against the scenario
+ * context at evaluation time, so the same compiled formula is reused across
+ * scenarios. Formulas using functions or syntax that the engine does not support
+ * are cached as unsupported and evaluated by POI instead.
+ */
+public final class Formula {
+
+  private static final int MAX_CACHE_SIZE = 1024;
+
+  private static final Map<String, Formula> cache = Collections.synchronizedMap(
+      new LinkedHashMap<String, Formula>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Formula> eldest) {
+          return size() > MAX_CACHE_SIZE;
+        }
+      });
+
+  private final String text;
+  private final Node root;
+
+  private Formula(String text, Node root) {
+    this.text = text;
+    this.root = root;
+  }
+
+  /**
+   * Compile the formula or get it from the cache.
+   *
+   * @param text the formula text
+   * @return the formula
+   */
+  public static Formula compile(String text) {
+    Formula formula = cache.get(text);
+    if (formula == null) {
+      Node root;
+      try {
+        root = new FormulaParser(text).parse();
+      } catch (FormulaException e) {
+        root = null;
+      }
+      formula = new Formula(text, root);
+      cache.put(text, formula);
+    }
+    return formula;
+  }
+
+  /**
+   * Is supported boolean.
+   *
+   * @return true when the built-in engine can evaluate this formula
+   */
+  public boolean isSupported() {
+    return root != null;
+  }
+
+  /**
+   * Evaluate the formula.
+   *
+   * @param context the context
+   * @return Double, String or Boolean
+   * @throws FormulaException when the formula is not supported or evaluates to an error
+   */
+  public Object evaluate(Map<String, String> context) {
+    if (root == null) {
+      throw new FormulaException(text + " is not supported");
+    }
+    Object value = root.evaluate(context);
+    if (value instanceof Double && (((Double) value).isNaN() || ((Double) value).isInfinite())) {
+      throw new FormulaException("#NUM!");
+    }
+    return value;
+  }
+
+  @Override
+  public String toString() {
+    return text;
+  }
+
+  /**
+   * The AST node.
+   */
+  interface Node {
+
+    /**
+     * Evaluate object.
+     *
+     * @param context the context
+     * @return the object
+     */
+    Object evaluate(Map<String, String> context);
+  }
+
+  /**
+   * Literal number, string or boolean.
+   */
+  static final class Literal implements Node {
+
+    private final Object value;
+
+    Literal(Object value) {
+      this.value = value;
+    }
+
+    @Override
+    public Object evaluate(Map<String, String> context) {
+      return value;
+    }
+  }
+
+  /**
+   * String literal that contains [key] references.
+   */
+  static final class TextTemplate implements Node {
+
+    private final PlaceholderTemplate template;
+
+    TextTemplate(String text) {
+      this.template = PlaceholderTemplate.compile(text);
+    }
+
+    @Override
+    public Object evaluate(Map<String, String> context) {
+      return template.render(context);
+    }
+  }
+
+  /**
+   * [key] reference, read as a number, boolean or quoted string.
+   */
+  static final class Variable implements Node {
+
+    private final String key;
+
+    Variable(String key) {
+      this.key = key;
+    }
+
+    @Override
+    public Object evaluate(Map<String, String> context) {
+      String value = context != null ? context.get(key) : null;
+      if (value == null) {
+        throw new FormulaException("[" + key + "] is not found in the context");
+      }
+      String trimmed = value.trim();
+      if ("TRUE".equalsIgnoreCase(trimmed) || "FALSE".equalsIgnoreCase(trimmed)) {
+        return Boolean.valueOf(trimmed);
+      }
+      if (trimmed.length() > 1 && trimmed.startsWith("\"") && trimmed.endsWith("\"")) {
+        return trimmed.substring(1, trimmed.length() - 1).replace("\"\"", "\"");
+      }
+      try {
+        return new BigDecimal(trimmed).doubleValue();
+      } catch (NumberFormatException e) {
+        throw new FormulaException("[" + key + "] is not a formula value : " + value);
+      }
+    }
+  }
+
+  /**
+   * Unary operator.
+   */
+  static final class Unary implements Node {
+
+    private final char operator;
+    private final Node operand;
+
+    Unary(char operator, Node operand) {
+      this.operator = operator;
+      this.operand = operand;
+    }
+
+    @Override
+    public Object evaluate(Map<String, String> context) {
+      double value = FormulaFunctions.toNumber(operand.evaluate(context));
+      switch (operator) {
+        case '-':
+          return -value;
+        case '%':
+          return value / 100;
+        default:
+          return value;
+      }
+    }
+  }
+
+  /**
+   * Binary operator.
+   */
+  static final class Binary implements Node {
+
+    private final String operator;
+    private final Node left;
+    private final Node right;
+
+    Binary(String operator, Node left, Node right) {
+      this.operator = operator;
+      this.left = left;
+      this.right = right;
+    }
+
+    @Override
+    public Object evaluate(Map<String, String> context) {
+      Object first = left.evaluate(context);
+      Object second = right.evaluate(context);
+      switch (operator) {
+        case "&":
+          return FormulaFunctions.toText(first) + FormulaFunctions.toText(second);
+        case "+":
+          return FormulaFunctions.toNumber(first) + FormulaFunctions.toNumber(second);
+        case "-":
+          return FormulaFunctions.toNumber(first) - FormulaFunctions.toNumber(second);
+        case "*":
+          return FormulaFunctions.toNumber(first) * FormulaFunctions.toNumber(second);
+        case "/":
+          double divisor = FormulaFunctions.toNumber(second);
+          if (divisor == 0) {
+            throw new FormulaException("#DIV/0!");
+          }
+          return FormulaFunctions.toNumber(first) / divisor;
+        case "^":
+          return Math.pow(FormulaFunctions.toNumber(first), FormulaFunctions.toNumber(second));
+        case "=":
+          return FormulaFunctions.compare(first, second) == 0;
+        case "<>":
+          return FormulaFunctions.compare(first, second) != 0;
+        case "<":
+          return FormulaFunctions.compare(first, second) < 0;
+        case "<=":
+          return FormulaFunctions.compare(first, second) <= 0;
+        case ">":
+          return FormulaFunctions.compare(first, second) > 0;
+        case ">=":
+          return FormulaFunctions.compare(first, second) >= 0;
+        default:
+          throw new FormulaException(operator + " is not supported");
+      }
+    }
+  }
+
+  /**
+   * Function call.
+   */
+  static final class Function implements Node {
+
+    private final String name;
+    private final List<Node> arguments;
+
+    Function(String name, List<Node> arguments) {
+      this.name = name;
+      this.arguments = arguments;
+    }
+
+    @Override
+    public Object evaluate(Map<String, String> context) {
+      return FormulaFunctions.apply(name, arguments, context);
+    }
+  }
+}
@@ -0,0 +1,19 @@
+package io.virtualan.cucumblan.script;
+
+/**
+ * The type Formula exception. Raised when a formula cannot be parsed or
+ * evaluated by the built-in {@link Formula} engine; the caller then falls back
+ * to the POI evaluator.
+ */
+public class FormulaException extends RuntimeException {
+
+  /**
+   * Instantiates a new Formula exception.
+   *
+   * @param msg the msg
+   */
+  public FormulaException(String msg) {
+    super(msg);
+  }
+
+}
@@ -0,0 +1,367 @@
+package io.virtualan.cucumblan.script;
+
+import io.virtualan.cucumblan.script.Formula.Node;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Functions and excel style value coercion of the {@link Formula} engine.
+ */
+final class FormulaFunctions {
+
+  private static final Set<String> SUPPORTED = new HashSet<>(Arrays.asList(
+      "IF", "AND", "OR", "NOT", "TRUE", "FALSE",
+      "SUM", "MIN", "MAX", "AVERAGE", "ABS", "ROUND", "ROUNDUP", "ROUNDDOWN", "INT", "MOD",
+      "POWER", "SQRT",
+      "CONCATENATE", "LEN", "LEFT", "RIGHT", "MID", "UPPER", "LOWER", "TRIM", "SUBSTITUTE",
+      "FIND", "SEARCH", "EXACT", "REPT", "VALUE", "ISNUMBER", "ISTEXT", "ISLOGICAL"));
+
+  private FormulaFunctions() {
+  }
+
+  /**
+   * Is supported boolean.
+   *
+   * @param name the upper case function name
+   * @return the boolean
+   */
+  static boolean isSupported(String name) {
+    return SUPPORTED.contains(name);
+  }
+
+  /**
+   * Apply the function.
+   *
+   * @param name      the name
+   * @param arguments the arguments
+   * @param context   the context
+   * @return the object
+   */
+  static Object apply(String name, List<Node> arguments, Map<String, String> context) {
+    if ("IF".equals(name)) {
+      arity(name, arguments, 2, 3);
+      if (toBoolean(arguments.get(0).evaluate(context))) {
+        return arguments.get(1).evaluate(context);
+      }
+      return arguments.size() == 3 ? arguments.get(2).evaluate(context) : Boolean.FALSE;
+    }
+    List<Object> values = new ArrayList<>(arguments.size());
+    for (Node argument : arguments) {
+      values.add(argument.evaluate(context));
+    }
+    switch (name) {
+      case "AND":
+        arity(name, arguments, 1, Integer.MAX_VALUE);
+        for (Object value : values) {
+          if (!toBoolean(value)) {
+            return false;
+          }
+        }
+        return true;
+      case "OR":
+        arity(name, arguments, 1, Integer.MAX_VALUE);
+        for (Object value : values) {
+          if (toBoolean(value)) {
+            return true;
+          }
+        }
+        return false;
+      case "NOT":
+        arity(name, arguments, 1, 1);
+        return !toBoolean(values.get(0));
+      case "TRUE":
+        arity(name, arguments, 0, 0);
+        return true;
+      case "FALSE":
+        arity(name, arguments, 0, 0);
+        return false;
+      case "SUM":
+        double sum = 0;
+        for (Object value : values) {
+          sum += toNumber(value);
+        }
+        return sum;
+      case "AVERAGE":
+        arity(name, arguments, 1, Integer.MAX_VALUE);
+        double total = 0;
+        for (Object value : values) {
+          total += toNumber(value);
+        }
+        return total / values.size();
+      case "MIN":
+        double min = values.isEmpty() ? 0 : Double.MAX_VALUE;
+        for (Object value : values) {
+          min = Math.min(min, toNumber(value));
+        }
+        return min;
+      case "MAX":
+        double max = values.isEmpty() ? 0 : -Double.MAX_VALUE;
+        for (Object value : values) {
+          max = Math.max(max, toNumber(value));
+        }
+        return max;
+      case "ABS":
+        arity(name, arguments, 1, 1);
+        return Math.abs(toNumber(values.get(0)));
+      case "ROUND":
+        return round(name, values, RoundingMode.HALF_UP);
+      case "ROUNDUP":
+        return round(name, values, RoundingMode.UP);
+      case "ROUNDDOWN":
+        return round(name, values, RoundingMode.DOWN);
+      case "INT":
+        arity(name, arguments, 1, 1);
+        return Math.floor(toNumber(values.get(0)));
+      case "MOD":
+        arity(name, arguments, 2, 2);
+        double divisor = toNumber(values.get(1));
+        if (divisor == 0) {
+          throw new FormulaException("#DIV/0!");
+        }
+        double number = toNumber(values.get(0));
+        return number - divisor * Math.floor(number / divisor);
+      case "POWER":
+        arity(name, arguments, 2, 2);
+        return Math.pow(toNumber(values.get(0)), toNumber(values.get(1)));
+      case "SQRT":
+        arity(name, arguments, 1, 1);
+        double square = toNumber(values.get(0));
+        if (square < 0) {
+          throw new FormulaException("#NUM!");
+        }
+        return Math.sqrt(square);
+      case "CONCATENATE":
+        StringBuilder builder = new StringBuilder();
+        for (Object value : values) {
+          builder.append(toText(value));
+        }
+        return builder.toString();
+      case "LEN":
+        arity(name, arguments, 1, 1);
+        return (double) toText(values.get(0)).length();
+      case "LEFT": {
+        arity(name, arguments, 1, 2);
+        String text = toText(values.get(0));
+        int count = values.size() == 2 ? count(values.get(1)) : 1;
+        return text.substring(0, Math.min(count, text.length()));
+      }
+      case "RIGHT": {
+        arity(name, arguments, 1, 2);
+        String text = toText(values.get(0));
+        int count = values.size() == 2 ? count(values.get(1)) : 1;
+        return text.substring(Math.max(0, text.length() - count));
+      }
+      case "MID": {
+        arity(name, arguments, 3, 3);
+        String text = toText(values.get(0));
+        int start = (int) toNumber(values.get(1));
+        int count = count(values.get(2));
+        if (start < 1) {
+          throw new FormulaException("#VALUE!");
+        }
+        if (start > text.length()) {
+          return "";
+        }
+        return text.substring(start - 1, Math.min(text.length(), start - 1 + count));
+      }
+      case "UPPER":
+        arity(name, arguments, 1, 1);
+        return toText(values.get(0)).toUpperCase(Locale.ROOT);
+      case "LOWER":
+        arity(name, arguments, 1, 1);
+        return toText(values.get(0)).toLowerCase(Locale.ROOT);
+      case "TRIM":
+        arity(name, arguments, 1, 1);
+        return toText(values.get(0)).trim().replaceAll(" +", " ");
+      case "SUBSTITUTE":
+        arity(name, arguments, 3, 4);
+        return substitute(values);
+      case "FIND":
+      case "SEARCH": {
+        arity(name, arguments, 2, 3);
+        String find = toText(values.get(0));
+        String within = toText(values.get(1));
+        int start = values.size() == 3 ? (int) toNumber(values.get(2)) : 1;
+        if ("SEARCH".equals(name)) {
+          find = find.toLowerCase(Locale.ROOT);
+          within = within.toLowerCase(Locale.ROOT);
+        }
+        int index = start < 1 ? -1 : within.indexOf(find, start - 1);
+        if (index == -1) {
+          throw new FormulaException("#VALUE!");
+        }
+        return (double) index + 1;
+      }
+      case "EXACT":
+        arity(name, arguments, 2, 2);
+        return toText(values.get(0)).equals(toText(values.get(1)));
+      case "REPT": {
+        arity(name, arguments, 2, 2);
+        String text = toText(values.get(0));
+        int count = count(values.get(1));
+        StringBuilder repeated = new StringBuilder(text.length() * count);
+        for (int i = 0; i < count; i++) {
+          repeated.append(text);
+        }
+        return repeated.toString();
+      }
+      case "VALUE":
+        arity(name, arguments, 1, 1);
+        if (values.get(0) instanceof Boolean) {
+          throw new FormulaException("#VALUE!");
+        }
+        return toNumber(values.get(0));
+      case "ISNUMBER":
+        arity(name, arguments, 1, 1);
+        return values.get(0) instanceof Double;
+      case "ISTEXT":
+        arity(name, arguments, 1, 1);
+        return values.get(0) instanceof String;
+      case "ISLOGICAL":
+        arity(name, arguments, 1, 1);
+        return values.get(0) instanceof Boolean;
+      default:
+        throw new FormulaException(name + " function is not supported");
+    }
+  }
+
+  private static void arity(String name, List<Node> arguments, int min, int max) {
+    if (arguments.size() < min || arguments.size() > max) {
+      throw new FormulaException(name + " has wrong number of arguments");
+    }
+  }
+
+  private static int count(Object value) {
+    int count = (int) toNumber(value);
+    if (count < 0) {
+      throw new FormulaException("#VALUE!");
+    }
+    return count;
+  }
+
+  private static double round(String name, List<Object> values, RoundingMode mode) {
+    if (values.size() != 2) {
+      throw new FormulaException(name + " has wrong number of arguments");
+    }
+    return BigDecimal.valueOf(toNumber(values.get(0)))
+        .setScale((int) toNumber(values.get(1)), mode).doubleValue();
+  }
+
+  private static String substitute(List<Object> values) {
+    String text = toText(values.get(0));
+    String oldText = toText(values.get(1));
+    String newText = toText(values.get(2));
+    if (oldText.isEmpty()) {
+      return text;
+    }
+    if (values.size() == 3) {
+      return text.replace(oldText, newText);
+    }
+    int instance = (int) toNumber(values.get(3));
+    if (instance < 1) {
+      throw new FormulaException("#VALUE!");
+    }
+    int index = -1;
+    for (int i = 0; i < instance; i++) {
+      index = text.indexOf(oldText, index + 1);
+      if (index == -1) {
+        return text;
+      }
+    }
+    return text.substring(0, index) + newText + text.substring(index + oldText.length());
+  }
+
+  /**
+   * To number double.
+   *
+   * @param value the value
+   * @return the double
+   */
+  static double toNumber(Object value) {
+    if (value instanceof Double) {
+      return (Double) value;
+    } else if (value instanceof Boolean) {
+      return ((Boolean) value) ? 1 : 0;
+    }
+    try {
+      return Double.parseDouble(value.toString().trim());
+    } catch (NumberFormatException e) {
+      throw new FormulaException("#VALUE! " + value + " is not a number");
+    }
+  }
+
+  /**
+   * To boolean boolean.
+   *
+   * @param value the value
+   * @return the boolean
+   */
+  static boolean toBoolean(Object value) {
+    if (value instanceof Boolean) {
+      return (Boolean) value;
+    } else if (value instanceof Double) {
+      return (Double) value != 0;
+    } else if ("TRUE".equalsIgnoreCase(value.toString())) {
+      return true;
+    } else if ("FALSE".equalsIgnoreCase(value.toString())) {
+      return false;
+    }
+    throw new FormulaException("#VALUE! " + value + " is not a boolean");
+  }
+
+  /**
+   * To text string.
+   *
+   * @param value the value
+   * @return the string
+   */
+  static String toText(Object value) {
+    if (value instanceof Boolean) {
+      return ((Boolean) value) ? "TRUE" : "FALSE";
+    } else if (value instanceof Double) {
+      double number = (Double) value;
+      if (number == Math.rint(number) && Math.abs(number) < 1e15) {
+        return String.valueOf((long) number);
+      }
+      return BigDecimal.valueOf(number).stripTrailingZeros().toPlainString();
+    }
+    return value.toString();
+  }
+
+  /**
+   * Compare values the excel way: numbers &lt; text &lt; booleans, text is
+   * compared ignoring case.
+   *
+   * @param first  the first
+   * @param second the second
+   * @return the int
+   */
+  static int compare(Object first, Object second) {
+    int firstRank = rank(first);
+    int secondRank = rank(second);
+    if (firstRank != secondRank) {
+      return Integer.compare(firstRank, secondRank);
+    } else if (first instanceof Double) {
+      return Double.compare((Double) first, (Double) second);
+    } else if (first instanceof Boolean) {
+      return Boolean.compare((Boolean) first, (Boolean) second);
+    }
+    return first.toString().compareToIgnoreCase(second.toString());
+  }
+
+  private static int rank(Object value) {
+    if (value instanceof Double) {
+      return 0;
+    } else if (value instanceof Boolean) {
+      return 2;
+    }
+    return 1;
+  }
+}
@@ -0,0 +1,254 @@
+package io.virtualan.cucumblan.script;
+
+import io.virtualan.cucumblan.script.Formula.Binary;
+import io.virtualan.cucumblan.script.Formula.Function;
+import io.virtualan.cucumblan.script.Formula.Literal;
+import io.virtualan.cucumblan.script.Formula.Node;
+import io.virtualan.cucumblan.script.Formula.TextTemplate;
+import io.virtualan.cucumblan.script.Formula.Variable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Recursive descent parser of the excel formula subset supported by
+ * {@link Formula}. Operator precedence follows excel: comparison, &amp;, + -,
+ * * /, ^, %, unary minus.
+ */
+class FormulaParser {
+
+  private final String text;
+  private int position;
+
+  /**
+   * Instantiates a new Formula parser.
+   *
+   * @param text the text
+   */
+  FormulaParser(String text) {
+    this.text = text;
+  }
+
+  /**
+   * Parse node.
+   *
+   * @return the node
+   * @throws FormulaException when the formula is not supported
+   */
+  Node parse() {
+    skipWhitespace();
+    if (peek() == '=') {
+      position++;
+    }
+    Node node = comparison();
+    skipWhitespace();
+    if (position < text.length()) {
+      throw error("unexpected '" + text.charAt(position) + "'");
+    }
+    return node;
+  }
+
+  private Node comparison() {
+    Node node = concat();
+    while (true) {
+      skipWhitespace();
+      String operator = null;
+      if (text.startsWith("<=", position) || text.startsWith(">=", position)
+          || text.startsWith("<>", position)) {
+        operator = text.substring(position, position + 2);
+      } else if (peek() == '<' || peek() == '>' || peek() == '=') {
+        operator = String.valueOf(peek());
+      }
+      if (operator == null) {
+        return node;
+      }
+      position += operator.length();
+      node = new Binary(operator, node, concat());
+    }
+  }
+
+  private Node concat() {
+    Node node = additive();
+    while (accept('&')) {
+      node = new Binary("&", node, additive());
+    }
+    return node;
+  }
+
+  private Node additive() {
+    Node node = multiplicative();
+    while (true) {
+      if (accept('+')) {
+        node = new Binary("+", node, multiplicative());
+      } else if (accept('-')) {
+        node = new Binary("-", node, multiplicative());
+      } else {
+        return node;
+      }
+    }
+  }
+
+  private Node multiplicative() {
+    Node node = power();
+    while (true) {
+      if (accept('*')) {
+        node = new Binary("*", node, power());
+      } else if (accept('/')) {
+        node = new Binary("/", node, power());
+      } else {
+        return node;
+      }
+    }
+  }
+
+  private Node power() {
+    Node node = unary();
+    while (accept('^')) {
+      node = new Binary("^", node, unary());
+    }
+    return node;
+  }
+
+  private Node unary() {
+    if (accept('-')) {
+      return new Formula.Unary('-', unary());
+    } else if (accept('+')) {
+      return new Formula.Unary('+', unary());
+    }
+    Node node = primary();
+    while (accept('%')) {
+      node = new Formula.Unary('%', node);
+    }
+    return node;
+  }
+
+  private Node primary() {
+    skipWhitespace();
+    char c = peek();
+    if (c == '(') {
+      position++;
+      Node node = comparison();
+      expect(')');
+      return node;
+    } else if (c == '"') {
+      return string();
+    } else if (c == '[') {
+      int close = text.indexOf(']', position);
+      if (close == -1) {
+        throw error("missing ]");
+      }
+      String key = text.substring(position + 1, close);
+      position = close + 1;
+      return new Variable(key);
+    } else if (Character.isDigit(c) || c == '.') {
+      return number();
+    } else if (Character.isLetter(c) || c == '_') {
+      return identifier();
+    }
+    throw error(c == 0 ? "unexpected end" : "unexpected '" + c + "'");
+  }
+
+  private Node string() {
+    StringBuilder builder = new StringBuilder();
+    position++;
+    while (true) {
+      if (position >= text.length()) {
+        throw error("unterminated string");
+      }
+      char c = text.charAt(position++);
+      if (c == '"') {
+        if (peek() == '"') {
+          builder.append('"');
+          position++;
+        } else {
+          break;
+        }
+      } else {
+        builder.append(c);
+      }
+    }
+    String value = builder.toString();
+    return value.indexOf('[') != -1 ? new TextTemplate(value) : new Literal(value);
+  }
+
+  private Node number() {
+    int start = position;
+    while (position < text.length()
+        && (Character.isDigit(text.charAt(position)) || text.charAt(position) == '.')) {
+      position++;
+    }
+    if (position < text.length() && (text.charAt(position) == 'E'
+        || text.charAt(position) == 'e')) {
+      position++;
+      if (peek() == '+' || peek() == '-') {
+        position++;
+      }
+      while (position < text.length() && Character.isDigit(text.charAt(position))) {
+        position++;
+      }
+    }
+    try {
+      return new Literal(Double.parseDouble(text.substring(start, position)));
+    } catch (NumberFormatException e) {
+      throw error("invalid number " + text.substring(start, position));
+    }
+  }
+
+  private Node identifier() {
+    int start = position;
+    while (position < text.length() && (Character.isLetterOrDigit(text.charAt(position))
+        || text.charAt(position) == '_' || text.charAt(position) == '.')) {
+      position++;
+    }
+    String name = text.substring(start, position).toUpperCase(Locale.ROOT);
+    skipWhitespace();
+    if (peek() != '(') {
+      if ("TRUE".equals(name) || "FALSE".equals(name)) {
+        return new Literal(Boolean.valueOf(name));
+      }
+      throw error(name + " is not supported");
+    }
+    if (!FormulaFunctions.isSupported(name)) {
+      throw error(name + " function is not supported");
+    }
+    position++;
+    List<Node> arguments = new ArrayList<>();
+    skipWhitespace();
+    if (!accept(')')) {
+      do {
+        arguments.add(comparison());
+      } while (accept(','));
+      expect(')');
+    }
+    return new Function(name, arguments);
+  }
+
+  private boolean accept(char c) {
+    skipWhitespace();
+    if (peek() == c) {
+      position++;
+      return true;
+    }
+    return false;
+  }
+
+  private void expect(char c) {
+    if (!accept(c)) {
+      throw error("expected '" + c + "'");
+    }
+  }
+
+  private char peek() {
+    return position < text.length() ? text.charAt(position) : 0;
+  }
+
+  private void skipWhitespace() {
+    while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+      position++;
+    }
+  }
+
+  private FormulaException error(String message) {
+    return new FormulaException(message + " at " + position + " in " + text);
+  }
+}
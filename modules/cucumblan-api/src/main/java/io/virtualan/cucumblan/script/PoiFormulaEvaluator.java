@@ -0,0 +1,90 @@
+package io.virtualan.cucumblan.script;
+
+import java.io.IOException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.FormulaEvaluator;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+/**
+ * The type Poi formula evaluator.
+ * <p>
+ * Pooled workbook, cell and {@link FormulaEvaluator} used for the formulas the
+ * built-in {@link Formula} engine does not support. Instances are borrowed for
+ * a single evaluation and returned to the pool, so no workbook is created per
+ * expression and none is leaked.
+ */
+final class PoiFormulaEvaluator {
+
+  private final static Logger LOGGER = Logger.getLogger(PoiFormulaEvaluator.class.getName());
+
+  private static final int MAX_POOL_SIZE = 8;
+
+  private static final Queue<PoiFormulaEvaluator> pool = new ConcurrentLinkedQueue<>();
+  private static final AtomicInteger pooled = new AtomicInteger();
+
+  private final Workbook workbook;
+  private final Cell cell;
+  private final FormulaEvaluator evaluator;
+
+  private PoiFormulaEvaluator() {
+    workbook = new XSSFWorkbook();
+    cell = workbook.createSheet().createRow(0).createCell(0);
+    evaluator = workbook.getCreationHelper().createFormulaEvaluator();
+  }
+
+  /**
+   * Evaluate the formula with a pooled evaluator.
+   *
+   * @param type    the expected type
+   * @param formula the formula
+   * @return the value or null when the result does not match the type
+   */
+  static Object evaluate(Class type, String formula) {
+    PoiFormulaEvaluator instance = pool.poll();
+    if (instance != null) {
+      pooled.decrementAndGet();
+    } else {
+      instance = new PoiFormulaEvaluator();
+    }
+    try {
+      return instance.evaluateCell(type, formula);
+    } finally {
+      instance.release();
+    }
+  }
+
+  private Object evaluateCell(Class type, String formula) {
+    cell.setCellFormula(formula);
+    evaluator.clearAllCachedResultValues();
+    CellType cellType = evaluator.evaluateFormulaCell(cell);
+    if (type == Boolean.class && cellType == CellType.BOOLEAN) {
+      return cell.getBooleanCellValue();
+    } else if (type == Integer.class && cellType == CellType.NUMERIC) {
+      return (int) cell.getNumericCellValue();
+    } else if (type == Double.class && cellType == CellType.NUMERIC) {
+      return cell.getNumericCellValue();
+    } else if (type == String.class && cellType == CellType.STRING) {
+      return cell.getStringCellValue();
+    }
+    return null;
+  }
+
+  private void release() {
+    if (pooled.incrementAndGet() <= MAX_POOL_SIZE) {
+      pool.offer(this);
+    } else {
+      pooled.decrementAndGet();
+      try {
+        workbook.close();
+      } catch (IOException e) {
+        LOGGER.fine("unable to close workbook : " + e.getMessage());
+      }
+    }
+  }
+}
@@ -0,0 +1,47 @@
+package io.virtualan.cucumblan.standard;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import org.apache.commons.io.IOUtils;
+
+/**
+ * Streaming view of a string based {@link StandardProcessing}: the input is
+ * read as a string and the returned string, when not null, is written out.
+ */
+public class StandardProcessingAdapter implements StreamingStandardProcessing {
+
+  private final StandardProcessing processing;
+
+  /**
+   * Instantiates a new Standard processing adapter.
+   *
+   * @param processing the processing
+   */
+  public StandardProcessingAdapter(StandardProcessing processing) {
+    this.processing = processing;
+  }
+
+  @Override
+  public String getType() {
+    return processing.getType();
+  }
+
+  @Override
+  public boolean preRequestProcessing(Reader input, Writer output) throws IOException {
+    return write(processing.preRequestProcessing(IOUtils.toString(input)), output);
+  }
+
+  @Override
+  public boolean postResponseProcessing(Reader input, Writer output) throws IOException {
+    return write(processing.postResponseProcessing(IOUtils.toString(input)), output);
+  }
+
+  private static boolean write(String value, Writer output) throws IOException {
+    if (value == null) {
+      return false;
+    }
+    output.write(value);
+    return true;
+  }
+}
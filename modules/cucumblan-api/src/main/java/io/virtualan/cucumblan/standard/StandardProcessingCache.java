@@ -0,0 +1,94 @@
+package io.virtualan.cucumblan.standard;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Processed expected payloads of the standard types, kept for the run and
+ * keyed by the type, the file name and the hash of the content, so an
+ * expected file is processed once however many scenarios compare with it.
+ */
+public class StandardProcessingCache {
+
+  private static final int MAX_PAYLOADS = 64;
+
+  private static final Map<String, Optional<String>> payloads = Collections
+      .synchronizedMap(new LinkedHashMap<String, Optional<String>>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Optional<String>> eldest) {
+          return size() > MAX_PAYLOADS;
+        }
+      });
+
+  private StandardProcessingCache() {
+  }
+
+  /**
+   * Post response processing of an expected payload, processed once per run.
+   *
+   * @param processing the processing
+   * @param fileName   the file name, null for inline payloads
+   * @param content    the content
+   * @return the processed payload or null when the content is null or the type has no
+   * response processing
+   * @throws IOException the io exception
+   */
+  public static String postResponseProcessing(StreamingStandardProcessing processing,
+      String fileName, String content) throws IOException {
+    if (content == null) {
+      return null;
+    }
+    String key = processing.getType() + "|" + fileName + "|" + hash(content);
+    Optional<String> payload = payloads.get(key);
+    if (payload == null) {
+      payload = Optional.ofNullable(postResponseProcessing(processing,
+          new StringReader(content)));
+      payloads.put(key, payload);
+    }
+    return payload.orElse(null);
+  }
+
+  /**
+   * Post response processing.
+   *
+   * @param processing the processing
+   * @param input      the input
+   * @return the processed payload or null when the type has no response processing
+   * @throws IOException the io exception
+   */
+  public static String postResponseProcessing(StreamingStandardProcessing processing,
+      Reader input) throws IOException {
+    StringWriter output = new StringWriter();
+    return processing.postResponseProcessing(input, output) ? output.toString() : null;
+  }
+
+  /**
+   * Clear the processed payloads.
+   */
+  public static void clear() {
+    payloads.clear();
+  }
+
+  private static String hash(String content) {
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-256")
+          .digest(content.getBytes(StandardCharsets.UTF_8));
+      StringBuilder hex = new StringBuilder();
+      for (byte b : digest) {
+        hex.append(String.format("%02x", b));
+      }
+      return hex.toString();
+    } catch (NoSuchAlgorithmException e) {
+      return content.length() + ":" + content.hashCode();
+    }
+  }
+}
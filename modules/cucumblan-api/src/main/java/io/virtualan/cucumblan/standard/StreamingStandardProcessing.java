@@ -0,0 +1,41 @@
+package io.virtualan.cucumblan.standard;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+
+/**
+ * Standard processing that reads the payload from a Reader and writes the
+ * processed payload to a Writer, so large payloads (EDI, X12...) do not have
+ * to be held as strings. Implementations of {@link StandardProcessing} are
+ * used through {@link StandardProcessingAdapter}.
+ */
+public interface StreamingStandardProcessing {
+
+  /**
+   * Gets type.
+   *
+   * @return the type
+   */
+  String getType();
+
+  /**
+   * Pre request processing.
+   *
+   * @param input  the input
+   * @param output the output
+   * @return false when the type has no request processing
+   * @throws IOException the io exception
+   */
+  boolean preRequestProcessing(Reader input, Writer output) throws IOException;
+
+  /**
+   * Post response processing.
+   *
+   * @param input  the input
+   * @param output the output
+   * @return false when the type has no response processing
+   * @throws IOException the io exception
+   */
+  boolean postResponseProcessing(Reader input, Writer output) throws IOException;
+}
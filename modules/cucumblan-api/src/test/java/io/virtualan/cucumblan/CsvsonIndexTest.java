@@ -0,0 +1,53 @@
+package io.virtualan.cucumblan;
+
+import io.virtualan.cucumblan.props.util.HelperApiUtil;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Assert;
+import org.junit.Test;
+import org.skyscreamer.jsonassert.JSONCompareMode;
+
+public class CsvsonIndexTest {
+
+  private final JSONArray actual = new JSONArray("[{\"id\":1,\"name\":\"Fish\",\"tags\":[\"a\"]},"
+      + "{\"id\":2.0,\"name\":\"Dog\",\"extra\":true},{\"name\":\"NoId\"},"
+      + "{\"id\":3,\"name\":null,\"category\":{\"id\":7}}]");
+
+  @Test
+  public void lenientRows() {
+    JSONArray expected = new JSONArray("[{\"id\":1.0,\"name\":\"Fish\"},{\"id\":2,\"name\":\"Dog\"},"
+        + "{\"name\":\"NoId\"},{\"id\":3,\"name\":null,\"category\":{\"id\":7}},"
+        + "{\"id\":3,\"category\":{\"id\":8}},{\"id\":\"1\"},{\"id\":4}]");
+    JSONArray unmatched = HelperApiUtil
+        .getUnmatchedElement(JSONCompareMode.LENIENT, expected, actual);
+    Assert.assertEquals(3, unmatched.length());
+    Assert.assertEquals(8, unmatched.getJSONObject(0).getJSONObject("category").getInt("id"));
+    Assert.assertEquals("1", unmatched.getJSONObject(1).get("id"));
+    Assert.assertEquals(4, unmatched.getJSONObject(2).get("id"));
+  }
+
+  @Test
+  public void strictRows() {
+    JSONArray expected = new JSONArray("[{\"id\":2,\"name\":\"Dog\"},{\"name\":\"NoId\"}]");
+    JSONArray unmatched = HelperApiUtil
+        .getUnmatchedElement(JSONCompareMode.STRICT, expected, actual);
+    Assert.assertEquals(1, unmatched.length());
+    Assert.assertEquals("Dog", unmatched.getJSONObject(0).get("name"));
+  }
+
+  @Test
+  public void largeArrays() {
+    JSONArray expected = new JSONArray();
+    JSONArray rows = new JSONArray();
+    for (int i = 0; i < 5000; i++) {
+      expected.put(new JSONObject().put("id", i).put("name", "pet" + i));
+      rows.put(new JSONObject().put("id", 4999 - i).put("name", "pet" + (4999 - i))
+          .put("status", "available"));
+    }
+    rows.remove(0);
+    JSONArray unmatched = HelperApiUtil
+        .getUnmatchedElement(JSONCompareMode.LENIENT, expected, rows);
+    Assert.assertEquals(1, unmatched.length());
+    Assert.assertEquals(4999, unmatched.getJSONObject(0).getInt("id"));
+  }
+}
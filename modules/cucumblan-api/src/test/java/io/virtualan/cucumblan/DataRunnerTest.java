@@ -0,0 +1,104 @@
+package io.virtualan.cucumblan;
+
+import io.virtualan.cucumblan.data.DataRows;
+import io.virtualan.cucumblan.data.DataRunner;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Map;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DataRunnerTest {
+
+  private File feature;
+  private File csv;
+  private File jsonl;
+  private File report;
+
+  @Before
+  public void setUp() throws Exception {
+    feature = File.createTempFile("data", ".feature");
+    csv = File.createTempFile("data", ".csv");
+    jsonl = File.createTempFile("data", ".jsonl");
+    report = File.createTempFile("data", ".json");
+    Files.write(feature.toPath(), ("Feature: data\n"
+        + "  Scenario: even\n"
+        + "    Given data row [name]-[data-row] is seen\n"
+        + "    Then data value [id] is even\n"
+        + "  Scenario: other\n"
+        + "    Given data row other [category.name] [data-row] is seen\n").getBytes(StandardCharsets.UTF_8));
+    StringBuilder rows = new StringBuilder("\uFEFFid,name,password\n");
+    for (int i = 1; i <= 40; i++) {
+      rows.append(i).append(',').append(i == 7 ? "\"seven, \"\"lucky\"\"\nrow\"" : "pet" + i)
+          .append(",secret\r\n");
+    }
+    Files.write(csv.toPath(), rows.append("\n").toString().getBytes(StandardCharsets.UTF_8));
+    Files.write(jsonl.toPath(), ("{\"id\": 2, \"category\": {\"name\": \"fish\"}}\n\n"
+        + "{\"id\": 4, \"category\": {\"name\": \"dog\"}}\n").getBytes(StandardCharsets.UTF_8));
+  }
+
+  @After
+  public void tearDown() {
+    feature.delete();
+    csv.delete();
+    jsonl.delete();
+    report.delete();
+  }
+
+  @Test
+  public void streamsCsvRows() throws Exception {
+    Assert.assertEquals(40, DataRows.count(csv.getAbsolutePath()));
+    try (DataRows rows = DataRows.open(csv.getAbsolutePath())) {
+      Map<String, String> row = null;
+      for (int i = 0; i < 7; i++) {
+        row = rows.next();
+      }
+      Assert.assertEquals(7, rows.getRowNumber());
+      Assert.assertEquals("7", row.get("id"));
+      Assert.assertEquals("seven, \"lucky\"\nrow", row.get("name"));
+      Assert.assertEquals("secret", row.get("password"));
+    }
+  }
+
+  @Test
+  public void runsEveryRowAndAggregatesTheResults() throws Exception {
+    byte status = new DataRunner("--data", csv.getAbsolutePath(), "--threads", "4",
+        "--data-report", report.getAbsolutePath(), "--glue", "io.virtualan.cucumblan.data",
+        "--name", "even", feature.getAbsolutePath()).run();
+    Assert.assertEquals(1, status);
+
+    JSONObject json = new JSONObject(new String(Files.readAllBytes(report.toPath()),
+        StandardCharsets.UTF_8));
+    Assert.assertEquals(40, json.getLong("rows"));
+    JSONArray scenarios = json.getJSONArray("scenarios");
+    Assert.assertEquals(1, scenarios.length());
+    JSONObject scenario = scenarios.getJSONObject(0);
+    Assert.assertEquals(40, scenario.getLong("rows"));
+    Assert.assertEquals(20, scenario.getLong("passed"));
+    Assert.assertEquals(20, scenario.getLong("failed"));
+    JSONObject failure = scenario.getJSONArray("failures").getJSONObject(0);
+    Assert.assertEquals(1, failure.getLong("row"));
+    Assert.assertEquals("pet1", failure.getJSONObject("values").getString("name"));
+    Assert.assertEquals("xxxxxxxxxxxx", failure.getJSONObject("values").getString("password"));
+    Assert.assertEquals(7, scenario.getJSONArray("failures").getJSONObject(3).getLong("row"));
+  }
+
+  @Test
+  public void runsJsonLinesRowsForEachScenario() throws Exception {
+    byte status = new DataRunner("--data", jsonl.getAbsolutePath(),
+        "--data-report", report.getAbsolutePath(), "--glue", "io.virtualan.cucumblan.data",
+        feature.getAbsolutePath()).run();
+    Assert.assertEquals(0, status);
+
+    JSONArray scenarios = new JSONObject(new String(Files.readAllBytes(report.toPath()),
+        StandardCharsets.UTF_8)).getJSONArray("scenarios");
+    Assert.assertEquals(2, scenarios.length());
+    Assert.assertEquals(2, scenarios.getJSONObject(0).getLong("passed"));
+    Assert.assertEquals(2, scenarios.getJSONObject(1).getLong("passed"));
+  }
+}
@@ -0,0 +1,62 @@
+package io.virtualan.cucumblan;
+
+import io.virtualan.cucumblan.props.ApplicationConfiguration;
+import io.virtualan.cucumblan.props.EndpointConfiguration;
+import io.virtualan.cucumblan.props.util.ApiHelper;
+import io.virtualan.cucumblan.props.util.ScenarioContext;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class EndpointIndexTest {
+
+  private File endpoint;
+  private boolean createdConf;
+
+  @Before
+  public void setUp() throws Exception {
+    File conf = new File("conf");
+    createdConf = conf.mkdirs();
+    endpoint = new File(conf, "endpoint.indextest.properties");
+    Files.write(endpoint.toPath(), "pets_petId=/pets/[petId]\nstore=/store\n"
+        .getBytes(StandardCharsets.UTF_8));
+    EndpointConfiguration.getInstance().loadEndpoints();
+  }
+
+  @After
+  public void tearDown() {
+    endpoint.delete();
+    if (createdConf) {
+      new File("conf").delete();
+    }
+    ScenarioContext.clear();
+  }
+
+  @Test
+  public void resolvesIndexedResources() {
+    ApplicationConfiguration.setProperty("service.api.indextest", "http://pet.host/api");
+    ScenarioContext.setContext("petId", "110");
+    Assert.assertEquals("http://pet.host/api",
+        ApiHelper.getHostName("pets_petId", "indextest"));
+    Assert.assertEquals("http://pet.host/api/pets/110",
+        ApiHelper.getActualResource("pets_petId", "indextest"));
+    Assert.assertEquals("http://pet.host/api/store",
+        ApiHelper.getActualResource("store", "indextest"));
+    Assert.assertEquals("http://pet.host/api/orders/110",
+        ApiHelper.getActualResource("/orders/[petId]", "indextest"));
+  }
+
+  @Test
+  public void rebuiltWhenConfigurationChanges() {
+    ApplicationConfiguration.setProperty("service.api.indextest", "http://pet.host/api");
+    Assert.assertSame(EndpointConfiguration.getInstance().getIndex(),
+        EndpointConfiguration.getInstance().getIndex());
+    ApplicationConfiguration.setProperty("service.api.indextest", "http://other.host");
+    Assert.assertEquals("http://other.host/store",
+        ApiHelper.getActualResource("store", "indextest"));
+  }
+}
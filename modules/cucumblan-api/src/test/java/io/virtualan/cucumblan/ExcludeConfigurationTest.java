@@ -0,0 +1,54 @@
+package io.virtualan.cucumblan;
+
+import io.virtualan.cucumblan.props.ExcludeConfiguration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ExcludeConfigurationTest {
+
+  private Map<String, String> excludes() {
+    Map<String, String> excludes = new LinkedHashMap<>();
+    excludes.put("/pets", "Date,category.id,tags");
+    excludes.put("/store", "IGNORE");
+    excludes.put("/blank", " ");
+    excludes.put("/user/.*", "IGNORE");
+    excludes.put(".*order.*", "id");
+    return excludes;
+  }
+
+  @Test
+  public void keysOfListedResource() {
+    Assert.assertTrue(ExcludeConfiguration.shouldSkip(excludes(), "/pets", "createdDate"));
+    Assert.assertTrue(ExcludeConfiguration.shouldSkip(excludes(), "/pets", "category.id"));
+    Assert.assertTrue(ExcludeConfiguration.shouldSkip(excludes(), "/pets", "tags[0].name"));
+    Assert.assertFalse(ExcludeConfiguration.shouldSkip(excludes(), "/pets", "category.name"));
+    Assert.assertFalse(ExcludeConfiguration.shouldSkip(excludes(), "/pets", "cat"));
+    Assert.assertFalse(ExcludeConfiguration.shouldSkip(excludes(), "/pets", null));
+  }
+
+  @Test
+  public void ignoredResource() {
+    Assert.assertTrue(ExcludeConfiguration.shouldSkip(excludes(), "/store", "id"));
+    Assert.assertFalse(ExcludeConfiguration.shouldSkip(excludes(), "/blank", "id"));
+  }
+
+  @Test
+  public void resourcePattern() {
+    Assert.assertTrue(ExcludeConfiguration.shouldSkip(excludes(), "/user/login", "id"));
+    Assert.assertFalse(ExcludeConfiguration.shouldSkip(excludes(), "/store/order", "id"));
+    Assert.assertFalse(ExcludeConfiguration.shouldSkip(excludes(), "/other", "id"));
+  }
+
+  @Test
+  public void overlappingKeys() {
+    Map<String, String> excludes = new LinkedHashMap<>();
+    excludes.put("/a", "abcd,bce,cdf");
+    Assert.assertTrue(ExcludeConfiguration.shouldSkip(excludes, "/a", "xabcdf"));
+    Assert.assertTrue(ExcludeConfiguration.shouldSkip(excludes, "/a", "abcex"));
+    Assert.assertFalse(ExcludeConfiguration.shouldSkip(excludes, "/a", "abcfbcd"));
+    excludes.put("/a", "a,,b");
+    Assert.assertTrue(ExcludeConfiguration.shouldSkip(excludes, "/a", "zzz"));
+  }
+}
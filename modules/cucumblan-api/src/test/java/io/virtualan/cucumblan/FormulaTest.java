@@ -0,0 +1,56 @@
+package io.virtualan.cucumblan;
+
+import io.virtualan.cucumblan.script.ExcelAndMathHelper;
+import io.virtualan.cucumblan.script.Formula;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class FormulaTest {
+
+  private Map<String, String> context() {
+    Map<String, String> contextObject = new HashMap<>();
+    contextObject.put("amount", "120.50");
+    contextObject.put("name", "GoldFish");
+    contextObject.put("active", "true");
+    return contextObject;
+  }
+
+  @Test
+  public void arithmetic() throws IOException {
+    Assert.assertTrue(Formula.compile("([amount] * 2 - 1) / 2 ^ 2").isSupported());
+    Assert.assertEquals(60.0, ExcelAndMathHelper.evaluateWithVariables(Double.class,
+        "([amount] * 2 - 1) / 2 ^ 2", context()));
+    Assert.assertEquals(4, ExcelAndMathHelper.evaluate(Integer.class, "-2^2"));
+  }
+
+  @Test
+  public void logical() throws IOException {
+    Assert.assertEquals(true, ExcelAndMathHelper.evaluateWithVariables(Boolean.class,
+        "AND([amount] >= 100, OR([active], FALSE), NOT(\"a\" <> \"A\"))", context()));
+    Assert.assertEquals("big", ExcelAndMathHelper.evaluateWithVariables(String.class,
+        "IF([amount] > 100, \"big\", 1/0)", context()));
+  }
+
+  @Test
+  public void text() throws IOException {
+    Assert.assertEquals("GOLD-8", ExcelAndMathHelper.evaluateWithVariables(String.class,
+        "UPPER(LEFT(\"[name]\", 4)) & \"-\" & LEN(\"[name]\")", context()));
+    Assert.assertEquals("Gold Fish", ExcelAndMathHelper.evaluateWithVariables(String.class,
+        "TRIM(SUBSTITUTE(\"  [name] \", \"Fish\", \" Fish\"))", context()));
+  }
+
+  @Test
+  public void fallbackToPoi() throws IOException {
+    Assert.assertFalse(Formula.compile("TEXT(1.5,\"0.00\")").isSupported());
+    Assert.assertEquals("1.50",
+        ExcelAndMathHelper.evaluate(String.class, "TEXT(1.5,\"0.00\")"));
+  }
+
+  @Test
+  public void typeMismatch() throws IOException {
+    Assert.assertNull(ExcelAndMathHelper.evaluate(Boolean.class, "SUM(1,2)"));
+  }
+}
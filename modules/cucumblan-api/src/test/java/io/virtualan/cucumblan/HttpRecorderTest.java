@@ -0,0 +1,135 @@
+package io.virtualan.cucumblan;
+
+import static io.restassured.RestAssured.given;
+
+import com.sun.net.httpserver.HttpServer;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import io.virtualan.cucumblan.props.ApplicationConfiguration;
+import io.virtualan.cucumblan.props.util.HttpRecorder;
+import io.virtualan.cucumblan.props.util.HttpTransport;
+import io.virtualan.cucumblan.props.util.ResponseDocument;
+import java.io.File;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class HttpRecorderTest {
+
+  private HttpServer server;
+  private String url;
+  private File directory;
+  private final AtomicInteger calls = new AtomicInteger();
+
+  @Before
+  public void start() throws Exception {
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext("/pets", exchange -> {
+      calls.incrementAndGet();
+      byte[] body = ("{\"id\":" + exchange.getRequestURI().getQuery().replace("id=", "") + "}")
+          .getBytes(StandardCharsets.UTF_8);
+      exchange.getResponseHeaders().add("Content-Type", "application/json");
+      exchange.getResponseHeaders().add("X-Pet", "recorded");
+      exchange.getResponseHeaders().add("Set-Cookie", "session=abc; Path=/");
+      exchange.sendResponseHeaders(201, body.length);
+      exchange.getResponseBody().write(body);
+      exchange.close();
+    });
+    server.start();
+    url = "http://localhost:" + server.getAddress().getPort();
+    directory = Files.createTempDirectory("recordings").toFile();
+    ApplicationConfiguration.setProperty("http-record-dir", directory.getPath());
+  }
+
+  @After
+  public void stop() {
+    server.stop(0);
+    HttpRecorder.shutdown();
+    HttpTransport.shutdown();
+    ApplicationConfiguration.setProperty("http-record-mode", "off");
+    ApplicationConfiguration.setProperty("http-replay-unrecorded", "fail");
+  }
+
+  /**
+   * Sends the request the way the steps do, with the resource resolved to an
+   * absolute url.
+   */
+  private Response post(String id) {
+    return given().filter(HttpRecorder.of("record-test")).baseUri(url)
+        .contentType(ContentType.JSON).body("{\"name\":\"doggie\"}")
+        .post(url + "/pets?id=" + id);
+  }
+
+  @Test
+  public void replayAnswersFromTheRecording() {
+    ApplicationConfiguration.setProperty("http-record-mode", "record");
+    Assert.assertEquals(201, post("110").getStatusCode());
+    HttpRecorder.shutdown();
+    Assert.assertTrue(new File(directory, "record-test.jsonl.gz").isFile());
+
+    ApplicationConfiguration.setProperty("http-record-mode", "replay");
+    server.stop(0);
+    Response response = post("110");
+    Assert.assertEquals(201, response.getStatusCode());
+    Assert.assertEquals("recorded", response.getHeader("X-Pet"));
+    Assert.assertEquals("{\"id\":110}", response.asString());
+    Assert.assertEquals("110", ResponseDocument.of(response).jsonPath().getString("id"));
+    Assert.assertEquals("abc", response.getCookie("session"));
+    Assert.assertEquals(1, calls.get());
+  }
+
+  @Test
+  public void unrecordedRequestFailsOrPassesThrough() {
+    ApplicationConfiguration.setProperty("http-record-mode", "replay");
+    try {
+      post("111");
+      Assert.fail("unrecorded request replayed");
+    } catch (AssertionError e) {
+      Assert.assertTrue(e.getMessage(), e.getMessage().startsWith("No recorded response"));
+    }
+    ApplicationConfiguration.setProperty("http-replay-unrecorded", "pass");
+    HttpRecorder.shutdown();
+    Assert.assertEquals("{\"id\":111}", post("111").asString());
+    Assert.assertEquals(1, calls.get());
+  }
+
+  @Test
+  public void unreadableRecordingIsNotOverwritten() throws Exception {
+    File file = new File(directory, "record-test.jsonl.gz");
+    Files.write(file.toPath(), "not gzip".getBytes(StandardCharsets.UTF_8));
+    ApplicationConfiguration.setProperty("http-record-mode", "record");
+    post("112");
+    try {
+      HttpRecorder.of("record-test").getStore().save();
+      Assert.fail("unreadable recording overwritten");
+    } catch (IOException e) {
+      Assert.assertTrue(e.getMessage(), e.getMessage().contains("could not be read"));
+    }
+    Assert.assertEquals("not gzip", new String(Files.readAllBytes(file.toPath()),
+        StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void failedSaveIsRetried() throws Exception {
+    ApplicationConfiguration.setProperty("http-record-mode", "record");
+    post("113");
+    File file = new File(directory, "record-test.jsonl.gz");
+    File blocker = new File(file, "blocker");
+    Assert.assertTrue(blocker.mkdirs());
+    try {
+      HttpRecorder.of("record-test").getStore().save();
+      Assert.fail("saved over a directory");
+    } catch (IOException e) {
+      // the recordings stay to be saved
+    }
+    Assert.assertTrue(blocker.delete() && file.delete());
+    HttpRecorder.shutdown();
+    Assert.assertTrue(file.isFile());
+  }
+}
@@ -0,0 +1,155 @@
+package io.virtualan.cucumblan;
+
+import static io.restassured.RestAssured.given;
+
+import com.sun.net.httpserver.HttpServer;
+import io.restassured.RestAssured;
+import io.restassured.config.HttpClientConfig;
+import io.restassured.response.Response;
+import io.virtualan.cucumblan.props.util.HttpTransport;
+import io.virtualan.cucumblan.props.util.ResponseDocument;
+import java.io.ByteArrayOutputStream;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.pool.PoolStats;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class HttpTransportTest {
+
+  private HttpServer server;
+
+  @Before
+  public void start() throws Exception {
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext("/pets", exchange -> {
+      exchange.getResponseHeaders().add("X-Remote", exchange.getRemoteAddress().toString());
+      byte[] body = "{\"id\":110}".getBytes(StandardCharsets.UTF_8);
+      exchange.getResponseHeaders().add("Content-Type", "application/json");
+      exchange.sendResponseHeaders(200, body.length);
+      exchange.getResponseBody().write(body);
+      exchange.close();
+    });
+    server.createContext("/gzip", exchange -> {
+      ByteArrayOutputStream gzip = new ByteArrayOutputStream();
+      try (GZIPOutputStream stream = new GZIPOutputStream(gzip)) {
+        stream.write("{\"id\":111}".getBytes(StandardCharsets.UTF_8));
+      }
+      exchange.getResponseHeaders().add("Content-Type", "application/json");
+      exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+      exchange.sendResponseHeaders(200, gzip.size());
+      exchange.getResponseBody().write(gzip.toByteArray());
+      exchange.close();
+    });
+    server.createContext("/slow", exchange -> {
+      try {
+        Thread.sleep(3000);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      exchange.sendResponseHeaders(204, -1);
+      exchange.close();
+    });
+    server.setExecutor(Executors.newFixedThreadPool(8));
+    server.start();
+  }
+
+  @After
+  public void stop() {
+    server.stop(0);
+    HttpTransport.shutdown();
+  }
+
+  @Test
+  public void connectionIsReused() {
+    String url = "http://localhost:" + server.getAddress().getPort();
+    String first = null;
+    for (int i = 0; i < 3; i++) {
+      Response response = given().config(RestAssured.config().httpClient(
+          HttpTransport.httpClientConfig("pool-test", RestAssured.config().getHttpClientConfig())))
+          .baseUri(url).get("/pets");
+      Assert.assertEquals("110", ResponseDocument.of(response).jsonPath().getString("id"));
+      String remote = response.getHeader("X-Remote");
+      if (first == null) {
+        first = remote;
+      }
+      Assert.assertEquals(first, remote);
+    }
+    PoolStats stats = HttpTransport.getPoolStats("pool-test");
+    Assert.assertEquals(0, stats.getLeased());
+    Assert.assertEquals(1, stats.getAvailable());
+    Assert.assertEquals(0, stats.getPending());
+    Assert.assertEquals(Integer.valueOf(1),
+        HttpTransport.getPoolMetrics().get("pool-test").get("available"));
+  }
+
+  @Test
+  public void deadlineBoundsTheRead() {
+    String url = "http://localhost:" + server.getAddress().getPort();
+    given().config(RestAssured.config().httpClient(
+        HttpTransport.httpClientConfig("deadline-test", RestAssured.config().getHttpClientConfig())))
+        .baseUri(url).get("/pets");
+    long start = System.nanoTime();
+    HttpTransport.setDeadline(start + TimeUnit.MILLISECONDS.toNanos(300));
+    try {
+      given().config(RestAssured.config().httpClient(
+          HttpTransport.httpClientConfig("deadline-test", RestAssured.config().getHttpClientConfig())))
+          .baseUri(url).get("/slow");
+      Assert.fail("slow request not cut at the deadline");
+    } catch (Exception e) {
+      Assert.assertTrue(e.toString(), e instanceof SocketTimeoutException);
+      Assert.assertEquals("Read timed out", e.getMessage());
+    } finally {
+      HttpTransport.setDeadline(null);
+    }
+    long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    Assert.assertTrue("took " + elapsedMs + " ms", elapsedMs < 2000);
+  }
+
+  @Test
+  public void eachRequestGetsItsOwnClientOverThePool() {
+    HttpClientConfig config = HttpTransport.httpClientConfig("client-test",
+        RestAssured.config().getHttpClientConfig());
+    DefaultHttpClient first = (DefaultHttpClient) config.httpClientInstance();
+    DefaultHttpClient second = (DefaultHttpClient) config.httpClientInstance();
+    Assert.assertNotSame(first, second);
+    Assert.assertSame(first.getConnectionManager(), second.getConnectionManager());
+    first.getParams().setParameter("http.route.default-proxy", "changed");
+    Assert.assertNull(second.getParams().getParameter("http.route.default-proxy"));
+
+    DefaultHttpClient isolated = (DefaultHttpClient) HttpTransport.httpClientConfig(
+        "client-test", RestAssured.config().getHttpClientConfig(), true).httpClientInstance();
+    Assert.assertNotSame(first.getConnectionManager(), isolated.getConnectionManager());
+  }
+
+  @Test
+  public void concurrentGzipResponsesAreDecoded() throws Exception {
+    String url = "http://localhost:" + server.getAddress().getPort();
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<String>> ids = new ArrayList<>();
+      for (int i = 0; i < 80; i++) {
+        ids.add(executor.submit(() -> ResponseDocument.of(given().config(RestAssured.config()
+            .httpClient(HttpTransport.httpClientConfig("gzip-test",
+                RestAssured.config().getHttpClientConfig())))
+            .baseUri(url).get("/gzip")).jsonPath().getString("id")));
+      }
+      for (Future<String> id : ids) {
+        Assert.assertEquals("111", id.get());
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+}
@@ -0,0 +1,35 @@
+package io.virtualan.cucumblan;
+
+import io.virtualan.cucumblan.props.util.HelperApiUtil;
+import io.virtualan.cucumblan.props.util.JsonPathEvaluator;
+import java.util.Arrays;
+import java.util.Map;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class JsonPathEvaluatorTest {
+
+  private static final String PET = "{\"id\":110,\"name\":\"GoldFish\",\"tags\":[{\"name\":\"Fish\"},"
+      + "{\"name\":\"Gold\"}]}";
+
+  @Test
+  public void readAllPaths() {
+    Map<String, Object> values = JsonPathEvaluator.of(PET)
+        .readAll(Arrays.asList("$.id", "$.tags[1].name", "$.tags.length()"));
+    Assert.assertEquals(110, values.get("$.id"));
+    Assert.assertEquals("Gold", values.get("$.tags[1].name"));
+    Assert.assertEquals(2, values.get("$.tags.length()"));
+  }
+
+  @Test
+  public void compiledOnce() {
+    Assert.assertSame(JsonPathEvaluator.compile("$.name"), JsonPathEvaluator.compile("$.name"));
+  }
+
+  @Test
+  public void sameAsGetJson() {
+    Assert.assertEquals("GoldFish", HelperApiUtil.getJSON(PET, "$.name"));
+    HelperApiUtil.assertJsonpathEqual(Arrays.asList("$.id", "$.tags[0]"), PET,
+        "{\"tags\":[{\"name\":\"Fish\"}],\"id\":110}");
+  }
+}
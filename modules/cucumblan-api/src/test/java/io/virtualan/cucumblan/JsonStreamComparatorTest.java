@@ -0,0 +1,73 @@
+package io.virtualan.cucumblan;
+
+import io.virtualan.cucumblan.props.util.JsonStreamComparator;
+import io.virtualan.mapson.Mapson;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.json.JSONArray;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class JsonStreamComparatorTest {
+
+  private static final String PET = "{\"id\":110,\"name\":\"GoldFish\",\"weight\":1.5,"
+      + "\"big\":12345678901,\"available\":true,\"note\":null,\"a.b\":\"dotted\","
+      + "\"category\":{\"id\":200,\"name.short\":\"Fish\"},\"photoUrls\":[\"/fish\"],"
+      + "\"tags\":[{\"id\":201,\"name\":\"Fish\"}],\"grid\":[[1,2],[false]],\"empty\":[]}";
+
+  private Map<String, String> flatten(String json) {
+    Map<String, String> map = new HashMap<>();
+    JsonStreamComparator.flatten(json, map::put);
+    return map;
+  }
+
+  @Test
+  public void flattenLikeMapson() {
+    for (String json : new String[]{PET, "[1,\"a\",{\"x\":2}]", "plain", "\"text\"",
+        "{'lenient':x}"}) {
+      Assert.assertEquals(json, Mapson.buildMAPsonFromJson(json), flatten(json));
+    }
+  }
+
+  @Test
+  public void expectedMatches() {
+    Map<String, String> expected = new LinkedHashMap<>();
+    expected.put("id", "i~110");
+    expected.put("tags[0].name", "Fish");
+    expected.put("category.name['short']", "Fish");
+    expected.put("note", "null");
+    Assert.assertEquals(0,
+        JsonStreamComparator.compareExpected("/none", expected, PET, 0).length());
+  }
+
+  @Test
+  public void expectedMismatchAndMissing() {
+    Map<String, String> expected = new LinkedHashMap<>();
+    expected.put("name", "Cat");
+    expected.put("missing", "value");
+    expected.put("blank", null);
+    JSONArray failures = JsonStreamComparator.compareExpected("/none", expected, PET, 0);
+    Assert.assertEquals(2, failures.length());
+    Assert.assertEquals("Cat", failures.getJSONObject(0).getJSONObject("name").get("expected"));
+    Assert.assertEquals("GoldFish",
+        failures.getJSONObject(0).getJSONObject("name").get("actual"));
+    Assert.assertFalse(failures.getJSONObject(1).getJSONObject("missing").has("actual"));
+  }
+
+  @Test
+  public void actualKeysMustBeExpected() {
+    Map<String, String> expected = Mapson.buildMAPsonFromJson(PET);
+    Assert.assertEquals(0,
+        JsonStreamComparator.compareActual("/none", PET, expected, 0).length());
+    expected.remove("grid[1][0]");
+    Assert.assertEquals(1,
+        JsonStreamComparator.compareActual("/none", PET, expected, 0).length());
+  }
+
+  @Test
+  public void stopsAtMaxFailures() {
+    Assert.assertEquals(2,
+        JsonStreamComparator.compareActual("/none", PET, new HashMap<>(), 2).length());
+  }
+}
@@ -0,0 +1,44 @@
+package io.virtualan.cucumblan;
+
+import io.virtualan.cucumblan.load.LatencyHistogram;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class LatencyHistogramTest {
+
+  @Test
+  public void percentiles() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (int i = 1; i <= 10000; i++) {
+      histogram.record(i * 100L);
+    }
+    Assert.assertEquals(10000, histogram.getCount());
+    Assert.assertEquals(100, histogram.getMin());
+    Assert.assertEquals(1000000, histogram.getMax());
+    Assert.assertEquals(500050, histogram.getMean(), 0.001);
+    assertWithin(500000, histogram.getValueAtPercentile(50));
+    assertWithin(950000, histogram.getValueAtPercentile(95));
+    assertWithin(990000, histogram.getValueAtPercentile(99));
+    assertWithin(999000, histogram.getValueAtPercentile(99.9));
+    Assert.assertEquals(1000000, histogram.getValueAtPercentile(100));
+  }
+
+  @Test
+  public void smallValuesAreExact() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    Assert.assertEquals(0, histogram.getValueAtPercentile(99));
+    histogram.record(3);
+    histogram.record(7);
+    histogram.record(-1);
+    Assert.assertEquals(0, histogram.getMin());
+    Assert.assertEquals(3, histogram.getValueAtPercentile(50));
+    Assert.assertEquals(7, histogram.getValueAtPercentile(99));
+    histogram.record(Long.MAX_VALUE);
+    Assert.assertEquals(Long.MAX_VALUE, histogram.getValueAtPercentile(100));
+  }
+
+  private static void assertWithin(long expected, long actual) {
+    Assert.assertTrue(expected + " ~ " + actual,
+        actual >= expected && actual <= expected + expected / 64);
+  }
+}
@@ -0,0 +1,89 @@
+package io.virtualan.cucumblan;
+
+import io.virtualan.cucumblan.load.ArrivalSchedule;
+import io.virtualan.cucumblan.load.LoadRunner;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class LoadRunnerTest {
+
+  private File feature;
+  private File report;
+
+  @Before
+  public void setUp() throws Exception {
+    feature = File.createTempFile("load", ".feature");
+    report = File.createTempFile("load", ".json");
+    Files.write(feature.toPath(), ("Feature: load\n"
+        + "  Scenario: pet\n"
+        + "    Given load step waits 5 ms\n"
+        + "    Then every third load step fails\n"
+        + "  Scenario: other\n"
+        + "    Given load step waits 1 ms\n"
+        + "  Scenario: slow\n"
+        + "    Given load step waits 30 ms\n").getBytes(StandardCharsets.UTF_8));
+  }
+
+  @After
+  public void tearDown() {
+    feature.delete();
+    report.delete();
+  }
+
+  @Test
+  public void runsIterationsWithVirtualUsers() throws Exception {
+    byte status = new LoadRunner("--iterations", "6", "--users", "3",
+        "--load-report", report.getAbsolutePath(), "--glue", "io.virtualan.cucumblan.load",
+        "--name", "pet", feature.getAbsolutePath()).run();
+    Assert.assertEquals(1, status);
+
+    JSONObject json = new JSONObject(new String(Files.readAllBytes(report.toPath()),
+        StandardCharsets.UTF_8));
+    Assert.assertEquals(3, json.getInt("users"));
+    Assert.assertEquals(6, json.getJSONObject("scenarios").getLong("count"));
+    Assert.assertEquals(2, json.getJSONObject("scenarios").getLong("errors"));
+    JSONArray steps = json.getJSONArray("steps");
+    Assert.assertEquals(2, steps.length());
+    Assert.assertEquals("Given load step waits 5 ms", steps.getJSONObject(0).getString("step"));
+    Assert.assertTrue(steps.getJSONObject(0).getLong("p50Us") >= 5000);
+    Assert.assertEquals(2, steps.getJSONObject(1).getLong("errors"));
+    Assert.assertTrue(json.getDouble("throughput") > 0);
+  }
+
+  @Test
+  public void arrivalRateCorrectsCoordinatedOmission() throws Exception {
+    byte status = new LoadRunner("--rate", "100", "--duration", "0.2", "--max-in-flight", "1",
+        "--load-report", report.getAbsolutePath(), "--glue", "io.virtualan.cucumblan.load",
+        "--name", "slow", feature.getAbsolutePath()).run();
+    Assert.assertEquals(0, status);
+
+    JSONObject json = new JSONObject(new String(Files.readAllBytes(report.toPath()),
+        StandardCharsets.UTF_8));
+    Assert.assertEquals(1, json.getInt("maxInFlight"));
+    JSONObject scenarios = json.getJSONObject("scenarios");
+    Assert.assertEquals(20, scenarios.getLong("count"));
+    Assert.assertTrue(json.getLong("lateStarts") > 10);
+    Assert.assertTrue(scenarios.getLong("p99Us") < 200000);
+    Assert.assertTrue(scenarios.getJSONObject("corrected").getLong("p99Us") > 300000);
+    Assert.assertTrue(json.getJSONArray("steps").getJSONObject(0)
+        .getJSONObject("corrected").getLong("p99Us") > 300000);
+  }
+
+  @Test
+  public void arrivalSchedule() {
+    ArrivalSchedule schedule = new ArrivalSchedule(100, 2, 3);
+    Assert.assertEquals(400, schedule.getArrivals());
+    Assert.assertEquals(0, schedule.offsetNanos(0));
+    Assert.assertEquals(1000000000L, schedule.offsetNanos(25), 1000);
+    Assert.assertEquals(2000000000L, schedule.offsetNanos(100), 1000);
+    Assert.assertEquals(2010000000L, schedule.offsetNanos(101), 1000);
+    Assert.assertEquals(4990000000L, schedule.offsetNanos(399), 1000);
+  }
+}
@@ -0,0 +1,76 @@
+package io.virtualan.cucumblan;
+
+import io.virtualan.cucumblan.props.util.MetricsRegistry;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MetricsRegistryTest {
+
+  @After
+  public void clear() {
+    MetricsRegistry.clear();
+  }
+
+  @Test
+  public void exportsPrometheusText() {
+    MetricsRegistry.counter("cucumblan_http_requests_total", "HTTP requests sent",
+        "system", "pet", "resource", "pets", "status", "200").increment();
+    MetricsRegistry.counter("cucumblan_http_requests_total", "HTTP requests sent",
+        "system", "pet", "resource", "pets", "status", "200").increment(2);
+    MetricsRegistry.timer("cucumblan_http_request_seconds", "HTTP request total time",
+        "system", "pet", "resource", "pets").record(20000000);
+    String text = MetricsRegistry.toPrometheus();
+
+    Assert.assertTrue(text, text.contains("# TYPE cucumblan_http_requests_total counter\n"
+        + "cucumblan_http_requests_total{system=\"pet\",resource=\"pets\",status=\"200\"} 3\n"));
+    Assert.assertTrue(text, text.contains("# TYPE cucumblan_http_request_seconds histogram\n"));
+    Assert.assertTrue(text, text.contains(
+        "cucumblan_http_request_seconds_bucket{system=\"pet\",resource=\"pets\",le=\"0.01\"} 0\n"
+            + "cucumblan_http_request_seconds_bucket{system=\"pet\",resource=\"pets\",le=\"0.025\"} 1\n"));
+    Assert.assertTrue(text, text.contains(
+        "cucumblan_http_request_seconds_bucket{system=\"pet\",resource=\"pets\",le=\"+Inf\"} 1\n"
+            + "cucumblan_http_request_seconds_sum{system=\"pet\",resource=\"pets\"} 0.02\n"
+            + "cucumblan_http_request_seconds_count{system=\"pet\",resource=\"pets\"} 1\n"));
+  }
+
+  @Test
+  public void exportsJsonFiles() throws Exception {
+    MetricsRegistry.Histogram histogram = MetricsRegistry.histogram(
+        "cucumblan_http_response_bytes", "HTTP response body bytes", "topic", "pet\"s");
+    for (int i = 1; i <= 100; i++) {
+      histogram.observe(i * 10);
+    }
+    File dir = Files.createTempDirectory("metrics").toFile();
+    MetricsRegistry.export(dir.getPath());
+
+    Assert.assertTrue(new File(dir, MetricsRegistry.PROMETHEUS_FILE).isFile());
+    JSONObject json = new JSONObject(new String(
+        Files.readAllBytes(new File(dir, MetricsRegistry.JSON_FILE).toPath()),
+        StandardCharsets.UTF_8));
+    JSONArray metrics = json.getJSONArray("metrics");
+    Assert.assertEquals(1, metrics.length());
+    JSONObject series = metrics.getJSONObject(0).getJSONArray("series").getJSONObject(0);
+    Assert.assertEquals("pet\"s", series.getJSONObject("labels").getString("topic"));
+    Assert.assertEquals(100, series.getLong("count"));
+    Assert.assertEquals(1000, series.getDouble("max"), 0);
+    Assert.assertEquals(500, series.getDouble("p50"), 10);
+    Assert.assertEquals(10, series.getJSONObject("buckets").getLong("100"));
+  }
+
+  @Test
+  public void nameKeepsItsType() {
+    MetricsRegistry.counter("cucumblan_sql_statements_total", "SQL statements executed");
+    try {
+      MetricsRegistry.timer("cucumblan_sql_statements_total", "SQL statement time");
+      Assert.fail();
+    } catch (IllegalArgumentException e) {
+      Assert.assertEquals("cucumblan_sql_statements_total is already a counter", e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,98 @@
+package io.virtualan.cucumblan;
+
+import com.sun.net.httpserver.HttpServer;
+import io.virtualan.cucumblan.parser.OpenAPIParser;
+import java.io.File;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class OpenAPIParserTest {
+
+  private static final String OPENAPI = "openapi: 3.0.1\ninfo:\n  title: pet\n  version: '1'\n"
+      + "paths:\n  /pets/{petId}:\n    get:\n      responses:\n        '200':\n"
+      + "          description: ok\n";
+  private static final String SWAGGER = "{\"swagger\":\"2.0\",\"info\":{\"title\":\"pet\","
+      + "\"version\":\"1\"},\"paths\":{\"/store/order-items\":{\"get\":{\"responses\":"
+      + "{\"200\":{\"description\":\"ok\"}}}}}}";
+
+  private File spec;
+  private File endpoint;
+  private boolean createdConf;
+
+  @Before
+  public void setUp() throws Exception {
+    File conf = new File("conf");
+    createdConf = conf.mkdirs();
+    spec = File.createTempFile("spec", ".yaml");
+    endpoint = new File(conf, "endpoint.parsertest.properties");
+  }
+
+  @After
+  public void tearDown() {
+    spec.delete();
+    endpoint.delete();
+    if (createdConf) {
+      new File("conf").delete();
+    }
+  }
+
+  private List<String> lines() throws Exception {
+    return Files.readAllLines(endpoint.toPath(), StandardCharsets.UTF_8);
+  }
+
+  @Test
+  public void parsedOnlyWhenTheSpecChanges() throws Exception {
+    Files.write(spec.toPath(), OPENAPI.getBytes(StandardCharsets.UTF_8));
+    OpenAPIParser.init("parsertest", spec.getAbsolutePath());
+    List<String> lines = lines();
+    Assert.assertTrue(lines.get(0).startsWith("#spec-hash="));
+    Assert.assertEquals("pets_petId=/pets/{petId}", lines.get(1));
+
+    Files.write(endpoint.toPath(), (lines.get(0) + "\nkept=/kept\n")
+        .getBytes(StandardCharsets.UTF_8));
+    OpenAPIParser.init("parsertest", spec.getAbsolutePath());
+    Assert.assertEquals("kept=/kept", lines().get(1));
+
+    Files.write(spec.toPath(), SWAGGER.getBytes(StandardCharsets.UTF_8));
+    OpenAPIParser.init("parsertest", spec.getAbsolutePath());
+    Assert.assertNotEquals(lines.get(0), lines().get(0));
+    Assert.assertEquals("store_order_items=/store/order-items", lines().get(1));
+  }
+
+  @Test
+  public void fileWithoutHashIsRegenerated() throws Exception {
+    Files.write(spec.toPath(), OPENAPI.getBytes(StandardCharsets.UTF_8));
+    Files.write(endpoint.toPath(), "stale=/stale\n".getBytes(StandardCharsets.UTF_8));
+    OpenAPIParser.init("parsertest", spec.getAbsolutePath());
+    Assert.assertEquals("pets_petId=/pets/{petId}", lines().get(1));
+  }
+
+  @Test
+  public void specIsFetchedOnce() throws Exception {
+    AtomicInteger fetches = new AtomicInteger();
+    HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext("/spec.yaml", exchange -> {
+      fetches.incrementAndGet();
+      byte[] body = OPENAPI.getBytes(StandardCharsets.UTF_8);
+      exchange.sendResponseHeaders(200, body.length);
+      exchange.getResponseBody().write(body);
+      exchange.close();
+    });
+    server.start();
+    try {
+      OpenAPIParser.init("parsertest",
+          "http://localhost:" + server.getAddress().getPort() + "/spec.yaml");
+      Assert.assertEquals("pets_petId=/pets/{petId}", lines().get(1));
+      Assert.assertEquals(1, fetches.get());
+    } finally {
+      server.stop(0);
+    }
+  }
+}
@@ -0,0 +1,53 @@
+package io.virtualan.cucumblan;
+
+import io.virtualan.cucumblan.props.util.PlaceholderTemplate;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PlaceholderTemplateTest {
+
+  private Map<String, String> context() {
+    Map<String, String> contextObject = new HashMap<>();
+    contextObject.put("petId", "110");
+    contextObject.put("name", "GoldFish");
+    contextObject.put("nested", "pet-[petId]");
+    return contextObject;
+  }
+
+  @Test
+  public void noPlaceholder() {
+    Assert.assertEquals("/pets", PlaceholderTemplate.compile("/pets").render(context()));
+  }
+
+  @Test
+  public void singleKey() {
+    Assert.assertEquals("/pets/110/GoldFish/110",
+        PlaceholderTemplate.compile("/pets/[petId]/[name]/[petId]").render(context()));
+  }
+
+  @Test
+  public void commaSeparatedKeys() {
+    Assert.assertEquals("110,GoldFish",
+        PlaceholderTemplate.compile("[petId,name]").render(context()));
+  }
+
+  @Test
+  public void nestedValue() {
+    Assert.assertEquals("id=pet-110",
+        PlaceholderTemplate.compile("id=[nested]").render(context()));
+  }
+
+  @Test
+  public void missingKeyKeptAsIs() {
+    Assert.assertEquals("[1,2] and [missing] and 110",
+        PlaceholderTemplate.compile("[1,2] and [missing] and [petId]").render(context()));
+  }
+
+  @Test
+  public void innerPlaceholder() {
+    Assert.assertEquals("[110] []",
+        PlaceholderTemplate.compile("[[petId]] []").render(context()));
+  }
+}
@@ -0,0 +1,87 @@
+package io.virtualan.cucumblan;
+
+import io.virtualan.cucumblan.props.util.Poller;
+import io.virtualan.cucumblan.props.util.ScenarioContext;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PollerTest {
+
+  @After
+  public void clear() {
+    ScenarioContext.clear();
+  }
+
+  @Test
+  public void returnsAsSoonAsTheConditionIsMet() throws Exception {
+    ScenarioContext.setContext("orderId", "7");
+    AtomicInteger attempts = new AtomicInteger();
+    Poller poller = new Poller(20, 200, 2, 0, 5000);
+    long start = System.nanoTime();
+    String result = poller.await(
+        () -> attempts.incrementAndGet() + ":" + ScenarioContext.getContext().get("orderId"),
+        value -> value.startsWith("3:"));
+    long elapsedMs = (System.nanoTime() - start) / 1000000;
+
+    Assert.assertEquals("3:7", result);
+    Assert.assertEquals(3, attempts.get());
+    Assert.assertTrue("took " + elapsedMs + " ms", elapsedMs >= 60 && elapsedMs < 1000);
+  }
+
+  @Test
+  public void failsAtTheDeadline() throws Exception {
+    AtomicInteger attempts = new AtomicInteger();
+    Poller poller = new Poller(10, 50, 2, 0.5, 300);
+    long start = System.nanoTime();
+    try {
+      poller.await(attempts::incrementAndGet, value -> false);
+      Assert.fail();
+    } catch (TimeoutException e) {
+      long elapsedMs = (System.nanoTime() - start) / 1000000;
+      Assert.assertTrue("took " + elapsedMs + " ms", elapsedMs >= 300 && elapsedMs < 1000);
+      Assert.assertTrue(e.getMessage(), e.getMessage().startsWith(
+          "Condition not met after " + attempts.get() + " attempts"));
+    }
+  }
+
+  @Test
+  public void attemptsRunOnTheCallerThread() throws Exception {
+    Thread caller = Thread.currentThread();
+    AtomicInteger attempts = new AtomicInteger();
+    Poller poller = new Poller(10, 50, 2, 0, 5000);
+    poller.await(() -> {
+      Assert.assertSame(caller, Thread.currentThread());
+      return attempts.incrementAndGet();
+    }, value -> value == 3);
+    Assert.assertEquals(3, attempts.get());
+  }
+
+  @Test
+  public void attemptFailureStopsWaiting() throws Exception {
+    Poller poller = new Poller(10, 50, 2, 0, 5000);
+    try {
+      poller.await(() -> {
+        throw new IllegalStateException("down");
+      }, value -> true);
+      Assert.fail();
+    } catch (IllegalStateException e) {
+      Assert.assertEquals("down", e.getMessage());
+    }
+  }
+
+  @Test
+  public void delayGrowsWithJitterUpToTheMax() {
+    Poller poller = new Poller(100, 1000, 2, 0.5, 5000);
+    for (int i = 0; i < 100; i++) {
+      long first = poller.delayMs(1);
+      long third = poller.delayMs(3);
+      long tenth = poller.delayMs(10);
+      Assert.assertTrue(first >= 50 && first <= 100);
+      Assert.assertTrue(third >= 200 && third <= 400);
+      Assert.assertTrue(tenth >= 500 && tenth <= 1000);
+    }
+  }
+}
@@ -0,0 +1,91 @@
+package io.virtualan.cucumblan;
+
+import static io.restassured.RestAssured.given;
+
+import com.sun.net.httpserver.HttpServer;
+import io.virtualan.cucumblan.props.util.RequestFanOut;
+import io.virtualan.cucumblan.props.util.ResponseDocument;
+import io.virtualan.cucumblan.props.util.ScenarioContext;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RequestFanOutTest {
+
+  private HttpServer server;
+  private String url;
+
+  @Before
+  public void start() throws Exception {
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.setExecutor(Executors.newFixedThreadPool(4));
+    server.createContext("/slow", exchange -> {
+      try {
+        Thread.sleep(300);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      byte[] body = ("{\"path\":\"" + exchange.getRequestURI() + "\"}")
+          .getBytes(StandardCharsets.UTF_8);
+      exchange.getResponseHeaders().add("Content-Type", "application/json");
+      exchange.sendResponseHeaders(200, body.length);
+      exchange.getResponseBody().write(body);
+      exchange.close();
+    });
+    server.start();
+    url = "http://localhost:" + server.getAddress().getPort();
+  }
+
+  @After
+  public void stop() {
+    server.stop(0);
+    ScenarioContext.clear();
+  }
+
+  @Test
+  public void sendsConcurrentlyInQueuedOrder() throws Exception {
+    ScenarioContext.setContext("petId", "110");
+    RequestFanOut fanOut = new RequestFanOut();
+    for (String name : new String[]{"pet", "order", "user"}) {
+      fanOut.add(name, () -> given().baseUri(url)
+          .get("/slow/" + name + "/" + ScenarioContext.getContext().get("petId")));
+    }
+    long start = System.nanoTime();
+    Map<String, ResponseDocument> responses = fanOut.send();
+    long elapsedMs = (System.nanoTime() - start) / 1000000;
+
+    Assert.assertTrue("took " + elapsedMs + " ms", elapsedMs < 800);
+    Assert.assertTrue(fanOut.isEmpty());
+    Assert.assertEquals("[pet, order, user]", new ArrayList<>(responses.keySet()).toString());
+    Assert.assertEquals("/slow/order/110", responses.get("order").jsonPath().getString("path"));
+    Assert.assertEquals(200, responses.get("user").getResponse().getStatusCode());
+  }
+
+  @Test
+  public void failureIsRaisedAfterAllComplete() {
+    RequestFanOut fanOut = new RequestFanOut();
+    fanOut.add("pet", () -> given().baseUri(url).get("/slow/pet"));
+    fanOut.add("broken", () -> {
+      throw new IllegalStateException("broken");
+    });
+    try {
+      fanOut.send();
+      Assert.fail();
+    } catch (Exception e) {
+      Assert.assertEquals("broken", e.getMessage());
+    }
+    try {
+      fanOut.add("pet", () -> null);
+      fanOut.add("pet", () -> null);
+      Assert.fail();
+    } catch (IllegalArgumentException e) {
+      Assert.assertEquals("pet request is already queued", e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,84 @@
+package io.virtualan.cucumblan;
+
+import static io.restassured.RestAssured.given;
+
+import com.sun.net.httpserver.HttpServer;
+import io.restassured.RestAssured;
+import io.restassured.response.Response;
+import io.virtualan.cucumblan.props.util.HttpTransport;
+import io.virtualan.cucumblan.props.util.RequestTimings;
+import io.virtualan.cucumblan.props.util.ResponseDocument;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RequestTimingsTest {
+
+  private HttpServer server;
+  private String url;
+
+  @Before
+  public void start() throws Exception {
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext("/pets", exchange -> {
+      try {
+        Thread.sleep(50);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      byte[] body = "{\"id\":110}".getBytes(StandardCharsets.UTF_8);
+      exchange.getResponseHeaders().add("Content-Type", "application/json");
+      exchange.sendResponseHeaders(200, body.length);
+      exchange.getResponseBody().write(body);
+      exchange.close();
+    });
+    server.start();
+    url = "http://localhost:" + server.getAddress().getPort();
+  }
+
+  @After
+  public void stop() {
+    server.stop(0);
+    HttpTransport.shutdown();
+    RequestTimings.clear();
+  }
+
+  private RequestTimings.RequestTiming call() {
+    RequestTimings.begin();
+    Response response = given().config(RestAssured.config().httpClient(
+        HttpTransport.httpClientConfig("timing-test", RestAssured.config().getHttpClientConfig())))
+        .baseUri(url).get("/pets");
+    return RequestTimings.end("timing-test", "pets", ResponseDocument.of(response));
+  }
+
+  @Test
+  public void timesConnectFirstByteAndBytes() {
+    RequestTimings.RequestTiming first = call();
+    RequestTimings.RequestTiming pooled = call();
+
+    Assert.assertTrue(first.getConnectMs() > 0);
+    Assert.assertEquals(0, pooled.getConnectMs(), 0);
+    for (RequestTimings.RequestTiming timing : new RequestTimings.RequestTiming[]{first, pooled}) {
+      Assert.assertTrue(timing.getFirstByteMs() >= 50);
+      Assert.assertTrue(timing.getFirstByteMs() <= timing.getTotalMs());
+      Assert.assertTrue(timing.getRequestBytes() > 0);
+      Assert.assertEquals(10, timing.getResponseBytes());
+    }
+    Assert.assertEquals(200, first.toJson().getInt("status"));
+  }
+
+  @Test
+  public void percentileByResource() {
+    for (int i = 0; i < 5; i++) {
+      call();
+    }
+    double p95 = RequestTimings.getPercentile("timing-test", "pets", 95);
+    Assert.assertTrue(p95 >= 50);
+    Assert.assertTrue(p95 < 5000);
+    Assert.assertEquals(5, RequestTimings.getHistograms().get("timing-test pets").getCount());
+    Assert.assertEquals(-1, RequestTimings.getPercentile("timing-test", "orders", 95), 0);
+  }
+}
@@ -0,0 +1,50 @@
+package io.virtualan.cucumblan;
+
+import io.virtualan.cucumblan.props.util.HelperApiUtil;
+import io.virtualan.cucumblan.props.util.ResourceBodyCache;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ResourceBodyCacheTest {
+
+  private File data;
+
+  @Before
+  public void setUp() throws Exception {
+    File classes = new File(ResourceBodyCacheTest.class.getProtectionDomain().getCodeSource()
+        .getLocation().toURI());
+    data = new File(classes, "body-cache-test.json");
+    ResourceBodyCache.clear();
+  }
+
+  @After
+  public void tearDown() {
+    data.delete();
+    ResourceBodyCache.clear();
+  }
+
+  @Test
+  public void keepsLineBreaksAndReloadsOnChange() throws Exception {
+    Files.write(data.toPath(), "\uFEFF{\n  \"name\" : \"Goldé\"\n}\n".getBytes(StandardCharsets.UTF_8));
+    String body = HelperApiUtil.readFileAsString("body-cache-test.json");
+    Assert.assertEquals("{\n  \"name\" : \"Goldé\"\n}\n", body);
+    Assert.assertSame(body, HelperApiUtil.readFileAsString("body-cache-test.json"));
+
+    Files.write(data.toPath(), "{\n  \"name\" : \"Cat\"\n}".getBytes(StandardCharsets.UTF_8));
+    Assert.assertEquals("{\n  \"name\" : \"Cat\"\n}",
+        HelperApiUtil.readFileAsString("body-cache-test.json"));
+  }
+
+  @Test
+  public void crlfAndMissing() throws Exception {
+    Files.write(data.toPath(), "<a>\r\n<b>1</b>\r\n</a>".getBytes(StandardCharsets.UTF_8));
+    Assert.assertEquals("<a>\r\n<b>1</b>\r\n</a>",
+        HelperApiUtil.readFileAsString("body-cache-test.json"));
+    Assert.assertNull(HelperApiUtil.readFileAsString("missing-body-cache-test.json"));
+  }
+}
@@ -0,0 +1,72 @@
+package io.virtualan.cucumblan;
+
+import io.virtualan.cucumblan.props.util.ResponseDocument;
+import java.io.BufferedReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Collectors;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ResponseDocumentTest {
+
+  private ResponseDocument json() {
+    return ResponseDocument.of("{\"id\":110,\"name\":\"GoldFish\",\"tags\":[{\"name\":\"Fish\"}]}"
+        .getBytes(StandardCharsets.UTF_8), "application/json; charset=UTF-8");
+  }
+
+  @Test
+  public void jsonIsParsedOnce() {
+    ResponseDocument document = json();
+    Assert.assertTrue(document.json() instanceof JSONObject);
+    Assert.assertSame(document.json(), document.json());
+    Assert.assertSame(document.jsonPath(), document.jsonPath());
+    Assert.assertSame(document.asString(), document.asString());
+  }
+
+  @Test
+  public void jsonPath() {
+    ResponseDocument document = json();
+    Assert.assertEquals("110", document.jsonPath().getString("id"));
+    Assert.assertEquals("Fish", document.jsonPath().getString("tags[0].name"));
+    Assert.assertNull(document.jsonPath().getString("missing"));
+  }
+
+  @Test
+  public void jsonArray() {
+    ResponseDocument document = ResponseDocument
+        .of("[{\"id\":1}]".getBytes(StandardCharsets.UTF_8), "application/json");
+    Assert.assertTrue(document.json() instanceof JSONArray);
+  }
+
+  @Test
+  public void notJson() {
+    ResponseDocument document = ResponseDocument
+        .of("plain".getBytes(StandardCharsets.UTF_8), "text/plain");
+    Assert.assertNull(document.json());
+    Assert.assertEquals("plain", document.asString());
+  }
+
+  @Test
+  public void xml() throws Exception {
+    ResponseDocument document = ResponseDocument.of(
+        "<pet xmlns=\"urn:pet\"><name>Goldé</name></pet>".getBytes(StandardCharsets.ISO_8859_1),
+        "text/xml; charset=ISO-8859-1");
+    Assert.assertSame(document.xml(), document.xml());
+    Assert.assertEquals("urn:pet", document.xml().getDocumentElement().getNamespaceURI());
+    Assert.assertEquals("Goldé", document.xml().getDocumentElement().getTextContent());
+  }
+
+  @Test
+  public void readerUsesTheCharset() throws Exception {
+    ResponseDocument document = ResponseDocument.of(
+        "<name>Goldé</name>".getBytes(StandardCharsets.ISO_8859_1),
+        "text/xml; charset=ISO-8859-1");
+    try (Reader reader = document.reader()) {
+      Assert.assertEquals("<name>Goldé</name>",
+          new BufferedReader(reader).lines().collect(Collectors.joining()));
+    }
+  }
+}
@@ -0,0 +1,59 @@
+package io.virtualan.cucumblan;
+
+import io.virtualan.cucumblan.props.util.ScenarioContext;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ScenarioContextTest {
+
+  @After
+  public void clear() {
+    ScenarioContext.clear();
+  }
+
+  @Test
+  public void beginIsIdempotentForTheRunningScenario() {
+    String key = ScenarioContext.begin("pets.feature:3");
+    ScenarioContext.setContext("petId", "110");
+    Assert.assertEquals(key, ScenarioContext.begin("pets.feature:3"));
+    Assert.assertEquals("110", ScenarioContext.getContext().get("petId"));
+
+    ScenarioContext.end("pets.feature:3");
+    ScenarioContext.end("pets.feature:3");
+    Assert.assertNull(ScenarioContext.getScenarioContext(key));
+  }
+
+  @Test
+  public void sameScenarioOnTwoThreadsHasTwoContexts() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    CountDownLatch started = new CountDownLatch(2);
+    CountDownLatch ended = new CountDownLatch(1);
+    try {
+      Future<String> first = executor.submit(() -> run("1", started, ended));
+      Future<String> second = executor.submit(() -> run("2", started, ended));
+      started.await();
+      ended.countDown();
+      Assert.assertNotEquals(first.get(), second.get());
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  private static String run(String value, CountDownLatch started, CountDownLatch ended)
+      throws InterruptedException {
+    String key = ScenarioContext.begin("pets.feature:3");
+    ScenarioContext.setContext("row", value);
+    started.countDown();
+    ended.await();
+    Map<String, String> context = ScenarioContext.getScenarioContext(key);
+    Assert.assertEquals(value, context.get("row"));
+    ScenarioContext.end("pets.feature:3");
+    return key;
+  }
+}
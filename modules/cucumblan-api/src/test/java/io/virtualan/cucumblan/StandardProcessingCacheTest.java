@@ -0,0 +1,58 @@
+package io.virtualan.cucumblan;
+
+import io.virtualan.cucumblan.standard.StandardProcessing;
+import io.virtualan.cucumblan.standard.StandardProcessingAdapter;
+import io.virtualan.cucumblan.standard.StandardProcessingCache;
+import io.virtualan.cucumblan.standard.StreamingStandardProcessing;
+import java.io.StringReader;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class StandardProcessingCacheTest {
+
+  private final AtomicInteger calls = new AtomicInteger();
+
+  private final StreamingStandardProcessing processing = new StandardProcessingAdapter(
+      new StandardProcessing() {
+        @Override
+        public String getType() {
+          return "UPPER";
+        }
+
+        @Override
+        public String preRequestProcessing(String jsonObject) {
+          return null;
+        }
+
+        @Override
+        public String postResponseProcessing(String jsonObject) {
+          calls.incrementAndGet();
+          return jsonObject.isEmpty() ? null : "{\"value\":\"" + jsonObject.toUpperCase() + "\"}";
+        }
+      });
+
+  @Test
+  public void adapter() throws Exception {
+    Assert.assertEquals("{\"value\":\"EDI\"}",
+        StandardProcessingCache.postResponseProcessing(processing, new StringReader("edi")));
+    Assert.assertNull(StandardProcessingCache.postResponseProcessing(processing,
+        new StringReader("")));
+  }
+
+  @Test
+  public void expectedProcessedOnce() throws Exception {
+    StandardProcessingCache.clear();
+    Assert.assertEquals("{\"value\":\"A\"}",
+        StandardProcessingCache.postResponseProcessing(processing, "a.edi", "a"));
+    Assert.assertEquals("{\"value\":\"A\"}",
+        StandardProcessingCache.postResponseProcessing(processing, "a.edi", "a"));
+    Assert.assertEquals(1, calls.get());
+    Assert.assertEquals("{\"value\":\"B\"}",
+        StandardProcessingCache.postResponseProcessing(processing, "a.edi", "b"));
+    Assert.assertNull(StandardProcessingCache.postResponseProcessing(processing, "e.edi", ""));
+    Assert.assertNull(StandardProcessingCache.postResponseProcessing(processing, "e.edi", ""));
+    Assert.assertNull(StandardProcessingCache.postResponseProcessing(processing, "n.edi", null));
+    Assert.assertEquals(3, calls.get());
+  }
+}
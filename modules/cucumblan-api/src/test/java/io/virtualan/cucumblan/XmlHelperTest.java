@@ -0,0 +1,64 @@
+package io.virtualan.cucumblan;
+
+import io.virtualan.cucumblan.props.util.HelperApiUtil;
+import io.virtualan.cucumblan.props.util.XmlHelper;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import javax.xml.namespace.NamespaceContext;
+import org.custommonkey.xmlunit.XMLUnit;
+import org.junit.Assert;
+import org.junit.Test;
+import org.w3c.dom.Document;
+
+public class XmlHelperTest {
+
+  private static final String PET = "<pet><id>110</id><name>GoldFish</name>"
+      + "<tags><tag>Fish</tag><tag>Gold</tag></tags></pet>";
+
+  @Test
+  public void sameValuesAsXpathEngine() throws Exception {
+    Document document = XmlHelper.parse(PET);
+    for (String xpath : Arrays.asList("/pet/id", "//tag[2]", "count(//tag)", "/pet/missing")) {
+      Assert.assertEquals(xpath, XMLUnit.newXpathEngine().evaluate(xpath, document),
+          XmlHelper.evaluate(xpath, null, document));
+    }
+  }
+
+  @Test
+  public void builderIsReused() throws Exception {
+    Assert.assertEquals("GoldFish", XmlHelper.evaluate("/pet/name", null, XmlHelper.parse(PET)));
+    Assert.assertEquals("Cat",
+        XmlHelper.evaluate("/pet/name", null, XmlHelper.parse("<pet><name>Cat</name></pet>")));
+  }
+
+  @Test
+  public void namespaceContext() throws Exception {
+    Document document = XmlHelper.parse("<p:pet xmlns:p=\"urn:pet\"><p:name>Fish</p:name></p:pet>");
+    NamespaceContext context = new NamespaceContext() {
+      @Override
+      public String getNamespaceURI(String prefix) {
+        return "x".equals(prefix) ? "urn:pet" : null;
+      }
+
+      @Override
+      public String getPrefix(String namespaceURI) {
+        return null;
+      }
+
+      @Override
+      public Iterator<String> getPrefixes(String namespaceURI) {
+        return Collections.emptyIterator();
+      }
+    };
+    Assert.assertEquals("Fish", XmlHelper.evaluate("/x:pet/x:name", context, document));
+    Assert.assertEquals("", XmlHelper.evaluate("/pet/name", null, document));
+  }
+
+  @Test
+  public void expectedXpaths() throws Exception {
+    HelperApiUtil.assertXpathsEqual(Arrays.asList("/pet/id", "//tag[1]"), PET,
+        "<pet><tags><tag>Fish</tag></tags><id>110</id></pet>");
+    Assert.assertEquals("110", XmlHelper.evaluateExpected("/pet/id", null, PET));
+  }
+}
@@ -0,0 +1,72 @@
+package io.virtualan.cucumblan;
+
+import io.virtualan.cucumblan.props.util.HelperApiUtil;
+import io.virtualan.cucumblan.props.util.ResponseDocument;
+import io.virtualan.cucumblan.props.util.XmlStreamComparator;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class XmlStreamComparatorTest {
+
+  private static final String PET = "<?xml version=\"1.0\"?>\n<p:pet xmlns:p=\"urn:pet\" id=\"110\" "
+      + "status=\"available\">\n  <p:name>GoldFish</p:name>\n  <p:tags><p:tag>Fish</p:tag>"
+      + "<p:tag><![CDATA[Gold]]></p:tag></p:tags>\n</p:pet>";
+
+  @Test
+  public void whitespaceAttributeOrderAndPrefix() throws Exception {
+    List<String> differences = new XmlStreamComparator().compare(PET,
+        "<pet xmlns=\"urn:pet\" status=\"available\" id=\"110\"><name> GoldFish </name>"
+            + "<tags><tag>Fish</tag><tag>Gold</tag></tags></pet>");
+    Assert.assertEquals(differences.toString(), 0, differences.size());
+  }
+
+  @Test
+  public void differencesWithLocation() throws Exception {
+    List<String> differences = new XmlStreamComparator().compare(PET,
+        "<pet xmlns=\"urn:pet\" id=\"111\" extra=\"x\"><name>Cat</name>"
+            + "<tags><tag>Fish</tag><tag>Gold</tag></tags></pet>");
+    Assert.assertEquals(differences.toString(), 4, differences.size());
+    Assert.assertEquals("Expected attribute value '110' but was '111' at /p:pet[1]/@id",
+        differences.get(0));
+    Assert.assertEquals("Expected attribute value 'available' but was missing at /p:pet[1]/@status",
+        differences.get(1));
+    Assert.assertEquals("Unexpected attribute at /p:pet[1]/@extra", differences.get(2));
+    Assert.assertEquals("Expected text 'GoldFish' but was text 'Cat' at /p:pet[1]/p:name[1]/text()",
+        differences.get(3));
+  }
+
+  @Test
+  public void stopsAtStructuralDifference() throws Exception {
+    List<String> differences = new XmlStreamComparator().compare(
+        "<a><b>1</b><c>2</c></a>", "<a><b>2</b><d>2</d><e/></a>");
+    Assert.assertEquals(2, differences.size());
+    Assert.assertEquals("Expected element {}c but was element {}d at /a[1]/c[1]",
+        differences.get(1));
+  }
+
+  @Test
+  public void maxDifferences() throws Exception {
+    Assert.assertEquals(1, new XmlStreamComparator().maxDifferences(1)
+        .compare("<a><b>1</b><b>2</b></a>", "<a><b>3</b><b>4</b></a>").size());
+  }
+
+  @Test
+  public void whitespaceAndComments() throws Exception {
+    Assert.assertEquals(1, new XmlStreamComparator().ignoreWhitespace(false)
+        .compare("<a><b>1</b></a>", "<a> <b>1</b></a>").size());
+    Assert.assertEquals(0, new XmlStreamComparator().ignoreComments(true)
+        .compare("<a><!-- x --><b>1</b></a>", "<a><b>1</b></a>").size());
+    Assert.assertEquals(1, new XmlStreamComparator()
+        .compare("<a><!-- x --><b>1</b></a>", "<a><b>1</b></a>").size());
+  }
+
+  @Test
+  public void responseDocument() throws Exception {
+    HelperApiUtil.assertXMLEquals("<name>Goldé</name>", ResponseDocument.of(
+        "<name>Goldé</name>".getBytes(StandardCharsets.ISO_8859_1), "text/xml; charset=ISO-8859-1"));
+    HelperApiUtil.assertXMLEquals("<name>Goldé</name>", ResponseDocument.of(
+        "<name>Goldé</name>".getBytes(StandardCharsets.UTF_8), "text/xml"));
+  }
+}
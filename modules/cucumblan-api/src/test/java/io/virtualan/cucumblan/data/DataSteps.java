@@ -0,0 +1,23 @@
+package io.virtualan.cucumblan.data;
+
+import io.cucumber.java.en.Given;
+import io.cucumber.java.en.Then;
+import io.virtualan.cucumblan.props.util.StepDefinitionHelper;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.junit.Assert;
+
+public class DataSteps {
+
+  static final Set<String> seen = ConcurrentHashMap.newKeySet();
+
+  @Given("^data row (.*) is seen$")
+  public void seen(String value) {
+    Assert.assertTrue(seen.add(StepDefinitionHelper.getActualValue(value)));
+  }
+
+  @Then("^data value (.*) is even$")
+  public void even(String value) {
+    Assert.assertEquals(0, Integer.parseInt(StepDefinitionHelper.getActualValue(value)) % 2);
+  }
+}
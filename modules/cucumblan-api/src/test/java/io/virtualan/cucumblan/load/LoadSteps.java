@@ -0,0 +1,21 @@
+package io.virtualan.cucumblan.load;
+
+import io.cucumber.java.en.Given;
+import io.cucumber.java.en.Then;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Assert;
+
+public class LoadSteps {
+
+  static final AtomicInteger calls = new AtomicInteger();
+
+  @Given("^load step waits (\\d+) ms$")
+  public void waits(int millis) throws InterruptedException {
+    Thread.sleep(millis);
+  }
+
+  @Then("^every third load step fails$")
+  public void everyThirdFails() {
+    Assert.assertNotEquals(0, calls.incrementAndGet() % 3);
+  }
+}
@@ -18,12 +18,14 @@
  */
 package io.virtualan.cucumblan.core;
 
+import io.cucumber.java.After;
 import io.cucumber.java.Before;
 import io.cucumber.java.Scenario;
 import io.cucumber.java.en.Given;
 import io.virtualan.csvson.Csvson;
 import io.virtualan.cucumblan.jdbc.util.StreamingJsonResultSetExtractor;
 import io.virtualan.cucumblan.props.ApplicationConfiguration;
+import io.virtualan.cucumblan.props.util.MetricsRegistry;
 import io.virtualan.cucumblan.props.util.ScenarioContext;
 import io.virtualan.cucumblan.props.util.StepDefinitionHelper;
 import io.virtualan.mapson.Mapson;
@@ -127,12 +129,23 @@ public class DBBaseStepDefinition {
   @Before
   public void before(Scenario scenario) {
     this.scenario = scenario;
+    ScenarioContext.begin(scenario.getId());
     this.sqlJson = null;
     if (jdbcTemplateMap.isEmpty()) {
       loadAllDataSource();
     }
   }
 
+  /**
+   * After.
+   *
+   * @param scenario the scenario
+   */
+  @After
+  public void after(Scenario scenario) {
+    ScenarioContext.end(scenario.getId());
+  }
+
   /**
    * given sql.
    *
@@ -158,9 +171,12 @@ public class DBBaseStepDefinition {
   public void insertSql(String dummy, String resource, List<String> sqls) throws Exception {
     JdbcTemplate jdbcTemplate = getJdbcTemplate(resource);
     for (String sql : sqls) {
+      long start = System.nanoTime();
       try {
         jdbcTemplate.execute(StepDefinitionHelper.getActualValue(sql));
+        recordSql(resource, "execute", "success", start);
       } catch (Exception e) {
+        recordSql(resource, "execute", "error", start);
         LOGGER.warning("Unable to load " + dummy + " this sqls " + sql + " : " + e.getMessage());
         scenario.log("Unable to load " + dummy + " this sqls " + sql + " : " + e.getMessage());
         Assert.assertTrue(dummy + "  sqls are not inserted : (" + e.getMessage() + ")", false);
@@ -185,7 +201,7 @@ public class DBBaseStepDefinition {
       Map<String, String> mapson = Mapson.buildMAPsonFromJson(sqlJson);
       if (mapson.get(responseKey) != null) {
         ScenarioContext
-            .setContext(String.valueOf(Thread.currentThread().getId()), key,
+            .setContext(key,
                 mapson.get(responseKey));
       } else {
         Assert.assertTrue(responseKey + " not found in the sql ", false);
@@ -226,7 +242,7 @@ public class DBBaseStepDefinition {
       List<String> csvons = selectSql.subList(1, selectSql.size());
       JSONArray expectedArray = Csvson
           .buildCSVson(csvons,
-              ScenarioContext.getContext(String.valueOf(Thread.currentThread().getId())));
+              ScenarioContext.getContext());
       JSONArray actualArray = new JSONArray(sqlJson);
       JSONCompareResult result = JSONCompare
           .compareJSON(actualArray, expectedArray, JSONCompareMode.LENIENT);
@@ -270,8 +286,22 @@ public class DBBaseStepDefinition {
   private String getJson(String resource, String sql) throws Exception {
     JdbcTemplate jdbcTemplate = getJdbcTemplate(resource);
     OutputStream os = new ByteArrayOutputStream();
-    jdbcTemplate.query(sql, new StreamingJsonResultSetExtractor(os));
+    long start = System.nanoTime();
+    try {
+      jdbcTemplate.query(sql, new StreamingJsonResultSetExtractor(os));
+    } catch (RuntimeException e) {
+      recordSql(resource, "query", "error", start);
+      throw e;
+    }
+    recordSql(resource, "query", "success", start);
     return os.toString();
   }
 
+  private void recordSql(String resource, String statement, String outcome, long start) {
+    MetricsRegistry.timer("cucumblan_sql_statement_seconds", "SQL statement time",
+        "datasource", resource, "statement", statement).record(System.nanoTime() - start);
+    MetricsRegistry.counter("cucumblan_sql_statements_total", "SQL statements executed",
+        "datasource", resource, "statement", statement, "outcome", outcome).increment();
+  }
+
 }
\ No newline at end of file
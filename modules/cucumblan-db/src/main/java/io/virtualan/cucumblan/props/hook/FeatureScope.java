@@ -5,14 +5,14 @@ import io.cucumber.plugin.event.EventHandler;
 import io.cucumber.plugin.event.EventPublisher;
 import io.cucumber.plugin.event.TestRunFinished;
 import io.cucumber.plugin.event.TestRunStarted;
+import io.virtualan.cucumblan.props.ApplicationConfiguration;
+import io.virtualan.cucumblan.props.util.MetricsRegistry;
 import io.virtualan.cucumblan.props.util.ScenarioContext;
+import java.io.IOException;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.HashMap;
-
 @Slf4j
 public class FeatureScope implements ConcurrentEventListener {
-    //private ThreadLocal threadLocal = new ThreadLocal();
 
     @Override
     public void setEventPublisher(EventPublisher eventPublisher) {
@@ -25,8 +25,8 @@ public class FeatureScope implements ConcurrentEventListener {
     };
 
     private void beforeAll() {
+        MetricsRegistry.clear();
         log.info("#####################################"+ Thread.currentThread().getId() + " in before all");
-        ScenarioContext.setContext(String.valueOf(Thread.currentThread().getId()), new HashMap<>());
     }
 
     private EventHandler<TestRunFinished> teardown = event -> {
@@ -34,7 +34,22 @@ public class FeatureScope implements ConcurrentEventListener {
     };
 
     private void afterAll() {
-        ScenarioContext.remove(String.valueOf(Thread.currentThread().getId()));
+        ScenarioContext.clear();
+        exportMetrics();
         log.info("#####################################"+ String.valueOf(Thread.currentThread().getId()) + " in after all");
     }
-}
\ No newline at end of file
+
+    private void exportMetrics() {
+        if (MetricsRegistry.isEmpty()) {
+            return;
+        }
+        String directory = ApplicationConfiguration.getProperty("metrics-dir") != null ?
+            ApplicationConfiguration.getProperty("metrics-dir") : "target";
+        try {
+            MetricsRegistry.export(directory);
+            log.info("run metrics written to " + directory);
+        } catch (IOException e) {
+            log.warn("Unable to write the run metrics to " + directory + " : " + e.getMessage());
+        }
+    }
+}
@@ -21,6 +21,7 @@ package io.virtualan.cucumblan.core;
 
 
 import io.cucumber.datatable.DataTable;
+import io.cucumber.java.After;
 import io.cucumber.java.Before;
 import io.cucumber.java.Scenario;
 import io.cucumber.java.en.Given;
@@ -34,7 +35,7 @@ import io.virtualan.cucumblan.core.msg.kafka.MessageContext;
 import io.virtualan.cucumblan.message.exception.MessageNotDefinedException;
 import io.virtualan.cucumblan.message.type.MessageType;
 import io.virtualan.cucumblan.props.TopicConfiguration;
-import io.virtualan.cucumblan.props.util.MsgHelper;
+import io.virtualan.cucumblan.props.util.JsonPathEvaluator;
 import io.virtualan.cucumblan.props.util.ScenarioContext;
 import io.virtualan.cucumblan.props.util.StepDefinitionHelper;
 import io.virtualan.mapson.exception.BadInputDataException;
@@ -69,6 +70,17 @@ public class MsgBaseStepDefinition {
   @Before
   public void before(Scenario scenario) {
     this.scenario = scenario;
+    ScenarioContext.begin(scenario.getId());
+  }
+
+  /**
+   * After.
+   *
+   * @param scenario the scenario
+   */
+  @After
+  public void after(Scenario scenario) {
+    ScenarioContext.end(scenario.getId());
   }
 
 
@@ -283,7 +295,7 @@ public class MsgBaseStepDefinition {
 
     String expectedJson = MQClient.readMessage(scenario,resource,eventNameInput, idInput);
     if (expectedJson != null) {
-      JSONArray csvobject = Csvson.buildCSVson(csvson, ScenarioContext.getContext(String.valueOf(Thread.currentThread().getId())));
+      JSONArray csvobject = Csvson.buildCSVson(csvson, ScenarioContext.getContext());
       scenario.attach(csvobject.toString(4), "application/json",
           "ExpectedResponse:");
       Object expectedJsonObj = StepDefinitionHelper.getJSON(expectedJson);
@@ -323,7 +335,7 @@ public class MsgBaseStepDefinition {
 
     String expectedJson = MQClient.findMessage(scenario,resource,eventNameInput, jsonpath, type);
     if (expectedJson != null) {
-      JSONArray csvobject = Csvson.buildCSVson(csvson, ScenarioContext.getContext(String.valueOf(Thread.currentThread().getId())));
+      JSONArray csvobject = Csvson.buildCSVson(csvson, ScenarioContext.getContext());
       scenario.attach(csvobject.toString(4), "application/json",
           "ExpectedResponse:");
       Object expectedJsonObj = StepDefinitionHelper.getJSON(expectedJson);
@@ -376,7 +388,7 @@ public class MsgBaseStepDefinition {
 
     MessageType expectedJson = KafkaConsumerClient.getEvent(eventRequest);
     if (expectedJson != null) {
-      JSONArray csvobject = Csvson.buildCSVson(csvson, ScenarioContext.getContext(String.valueOf(Thread.currentThread().getId())));
+      JSONArray csvobject = Csvson.buildCSVson(csvson, ScenarioContext.getContext());
       scenario.attach(csvobject.toString(4), "application/json",
           "ExpectedResponse:");
       if (expectedJson.getMessageAsJson() instanceof JSONObject) {
@@ -426,9 +438,10 @@ public class MsgBaseStepDefinition {
     if (expectedJson != null) {
       scenario.attach(expectedJson.getMessage().toString(), "application/json",
           "ActualResponse");
-      MessageType finalExpectedJson = expectedJson;
+      JsonPathEvaluator message = JsonPathEvaluator
+          .of(expectedJson.getMessageAsJson().toString());
       keyValue.forEach((k, v) -> {
-        Object value = MsgHelper.getJSON(finalExpectedJson.getMessageAsJson().toString(), k);
+        Object value = message.read(k);
         Assertions.assertEquals(
             StepDefinitionHelper.getObjectValue(StepDefinitionHelper.getActualValue((String) v)),
             value, k + " is not failed.");
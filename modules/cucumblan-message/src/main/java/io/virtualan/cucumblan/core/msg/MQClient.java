@@ -6,6 +6,7 @@ import io.virtualan.cucumblan.message.exception.MessageNotDefinedException;
 import io.virtualan.cucumblan.message.exception.UnableToProcessException;
 import io.virtualan.cucumblan.message.type.MessageType;
 import io.virtualan.cucumblan.props.ApplicationConfiguration;
+import io.virtualan.cucumblan.props.util.MetricsRegistry;
 import io.virtualan.mapson.Mapson;
 import io.virtualan.mapson.exception.BadInputDataException;
 import java.io.IOException;
@@ -43,8 +44,15 @@ public class MQClient {
           JMSMessageContext.loadConnectionFactory(resource);
       JmsTemplate jmsTemplate = new JmsTemplate(connectionFactory);
       jmsTemplate.setDefaultDestination(new ActiveMQQueue(sendQ));
+      long start = System.nanoTime();
       jmsTemplate.convertAndSend(message);
+      MetricsRegistry.timer("cucumblan_jms_send_seconds", "JMS send time",
+          "resource", resource, "queue", sendQ).record(System.nanoTime() - start);
+      MetricsRegistry.counter("cucumblan_jms_messages_sent_total", "JMS messages sent",
+          "resource", resource, "queue", sendQ, "outcome", "success").increment();
     } catch (Exception e) {
+      MetricsRegistry.counter("cucumblan_jms_messages_sent_total", "JMS messages sent",
+          "resource", resource, "queue", sendQ, "outcome", "error").increment();
       logger.warning("Unable to post message for resource " + resource);
       throw new UnableToProcessException(
           "Unable to post message for resource " + resource + " >> " + e.getMessage());
@@ -70,7 +78,9 @@ public class MQClient {
         JMSMessageContext.loadConnectionFactory(resource);
     JmsTemplate jmsTemplateReceive = new JmsTemplate(connectionFactory);
     jmsTemplateReceive.setDefaultDestination(new ActiveMQQueue(receiveQ));
+    long start = System.nanoTime();
     Message object = jmsTemplateReceive.receiveSelected(new ActiveMQQueue(receiveQ), messageId);
+    received(resource, receiveQ, start, object != null);
     return object.getBody(String.class);
   }
 
@@ -91,10 +101,20 @@ public class MQClient {
         JMSMessageContext.loadConnectionFactory(resource);
     JmsTemplate jmsTemplateReceive = new JmsTemplate(connectionFactory);
     jmsTemplateReceive.setDefaultDestination(new ActiveMQQueue(receiveQ));
+    long start = System.nanoTime();
     Object object = jmsTemplateReceive.receiveAndConvert();
+    received(resource, receiveQ, start, object != null);
     return (String) object;
   }
 
+  private static void received(String resource, String receiveQ, long start, boolean message) {
+    MetricsRegistry.timer("cucumblan_jms_receive_seconds", "JMS receive wait time",
+        "resource", resource, "queue", receiveQ).record(System.nanoTime() - start);
+    MetricsRegistry.counter("cucumblan_jms_messages_received_total", "JMS receives",
+        "resource", resource, "queue", receiveQ, "outcome", message ? "message" : "empty")
+        .increment();
+  }
+
   public static String findMessage(Scenario scenario, String resource,
       String eventNameInput, String mapson, String type)
       throws IOException, JMSException, MessageNotDefinedException {
@@ -23,6 +23,7 @@ import io.virtualan.cucumblan.message.type.MessageType;
 import io.virtualan.cucumblan.props.ApplicationConfiguration;
 import io.virtualan.cucumblan.props.TopicConfiguration;
 import io.virtualan.cucumblan.props.util.EventRequest;
+import io.virtualan.cucumblan.props.util.MetricsRegistry;
 import io.virtualan.cucumblan.props.util.StepDefinitionHelper;
 import java.io.IOException;
 import java.io.InputStream;
@@ -124,6 +125,7 @@ public class KafkaConsumerClient {
     consumer.subscribe(this.topic);
     LOGGER.info(" Read Received message: " + topic);
     int noMessageFound = 0;
+    long start = System.nanoTime();
     ConsumerRecords<Object, Object>
         consumerRecords = null;
     while (true) {
@@ -144,10 +146,14 @@ public class KafkaConsumerClient {
         }
       }
       for (ConsumerRecord<Object, Object> record : consumerRecords) {
+        MetricsRegistry.counter("cucumblan_kafka_messages_consumed_total",
+            "Kafka messages consumed", "topic", record.topic()).increment();
         getMessageType(eventName, type, record);
         consumer.commitAsync();
       }
     }
+    MetricsRegistry.timer("cucumblan_kafka_consume_seconds", "Kafka wait time for the event",
+        "event", eventName).record(System.nanoTime() - start);
     LOGGER.info("DONE");
   }
 
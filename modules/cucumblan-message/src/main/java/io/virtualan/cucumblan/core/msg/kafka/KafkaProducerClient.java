@@ -18,6 +18,7 @@ package io.virtualan.cucumblan.core.msg.kafka;
  *
  */
 
+import io.virtualan.cucumblan.props.util.MetricsRegistry;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.List;
@@ -85,12 +86,19 @@ public class KafkaProducerClient {
 
     }
     Producer<T, TT> producer = null;
+    long start = System.nanoTime();
     try {
       producer = createProducer(resource);
 
       RecordMetadata metadata = producer.send((ProducerRecord<T, TT>) record).get();
+      MetricsRegistry.timer("cucumblan_kafka_produce_seconds", "Kafka send time until acknowledged",
+          "topic", topic).record(System.nanoTime() - start);
+      MetricsRegistry.counter("cucumblan_kafka_messages_produced_total", "Kafka messages produced",
+          "topic", topic, "outcome", "success").increment();
       log.info(metadata.topic() + " message posted successfully ");
     } catch (Exception e) {
+      MetricsRegistry.counter("cucumblan_kafka_messages_produced_total", "Kafka messages produced",
+          "topic", topic, "outcome", "error").increment();
       log.error("Error in sending record " + e.getMessage());
     } finally {
       if (producer != null){
@@ -19,9 +19,6 @@ package io.virtualan.cucumblan.props.util;
  *
  */
 
-import com.jayway.jsonpath.DocumentContext;
-import com.jayway.jsonpath.JsonPath;
-
 /**
  * The type Msg helper.
  */
@@ -35,10 +32,7 @@ public class MsgHelper {
    * @return the object
    */
   public static Object getJSON(String jsonString, String path){
-    DocumentContext docCtx = JsonPath.parse(jsonString);
-    JsonPath jsonPath = JsonPath.compile(path);
-    Object value =docCtx.read(jsonPath);
-    return value;
+    return JsonPathEvaluator.of(jsonString).read(path);
   }
 
 }
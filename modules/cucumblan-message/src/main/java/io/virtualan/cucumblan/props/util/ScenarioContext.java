@@ -1,20 +1,206 @@
 package io.virtualan.cucumblan.props.util;
 
-import java.util.HashMap;
+import io.virtualan.cucumblan.props.ApplicationConfiguration;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 import org.json.JSONException;
 
 /**
  * The type Scenario context.
+ * <p>
+ * Each running Cucumber scenario owns a concurrent context map. The map is
+ * registered when the scenario begins, under the scenario id and a sequence
+ * number of the execution (the same scenario may run on several threads at
+ * once), and bound to the executing thread, so {@link #getContext()} is a
+ * single thread local lookup. The glue hooks begin and end the scenario.
+ * When the scenario ends the map is removed from the registry; unless
+ * scenario-isolation=true, its values are carried over to the next scenario run
+ * by the same thread, which keeps sequential features that chain values across
+ * scenarios working.
  *
  * @author Elan Thangamani
  */
 public class ScenarioContext {
 
 
-    private static Map<String, Map<String, String>> parentScenarioContext = new HashMap<>();
+    private static final Map<String, Map<String, String>> parentScenarioContext = new ConcurrentHashMap<>();
 
+    private static final ThreadLocal<Binding> binding = new ThreadLocal<>();
+
+    private static final AtomicLong executions = new AtomicLong();
+
+    private static final class Binding {
+
+        private final String scenarioId;
+        private final String key;
+        private final String threadId;
+        private final Map<String, String> context;
+
+        private Binding(String scenarioId, String key, String threadId,
+            Map<String, String> context) {
+            this.scenarioId = scenarioId;
+            this.key = key;
+            this.threadId = threadId;
+            this.context = context;
+        }
+    }
+
+    /**
+     * Begin the scenario: creates its context and binds it to the current thread.
+     * Calling it again for the running scenario (from the hooks of another glue
+     * class) is a no-op.
+     *
+     * @param scenarioId the scenario id
+     * @return the registry key of this execution of the scenario
+     */
+    public static String begin(String scenarioId) {
+        Binding current = binding.get();
+        if (current != null && scenarioId.equals(current.scenarioId)) {
+            return current.key;
+        }
+        Map<String, String> context = new ConcurrentHashMap<>();
+        if (current != null && !ApplicationConfiguration.getBoolean("scenario-isolation")) {
+            context.putAll(current.context);
+        }
+        String key = scenarioId + "#" + executions.incrementAndGet();
+        String threadId = String.valueOf(Thread.currentThread().getId());
+        parentScenarioContext.put(key, context);
+        parentScenarioContext.put(threadId, context);
+        binding.set(new Binding(scenarioId, key, threadId, context));
+        return key;
+    }
+
+    /**
+     * End the scenario running on the current thread: removes its context from
+     * the registry. Calling it again is a no-op.
+     *
+     * @param scenarioId the scenario id
+     */
+    public static void end(String scenarioId) {
+        Binding current = binding.get();
+        if (current == null || !scenarioId.equals(current.scenarioId)) {
+            return;
+        }
+        parentScenarioContext.remove(current.key, current.context);
+        parentScenarioContext.remove(current.threadId, current.context);
+        if (ApplicationConfiguration.getBoolean("scenario-isolation")) {
+            binding.remove();
+        } else {
+            binding.set(new Binding(null, null, null, current.context));
+        }
+    }
+
+    /**
+     * Gets the context of the scenario running on the current thread.
+     *
+     * @return the context
+     */
+    public static Map<String, String> getContext() {
+        Binding current = binding.get();
+        if (current == null) {
+            current = new Binding(null, null, null, new ConcurrentHashMap<>());
+            binding.set(current);
+        }
+        return current.context;
+    }
+
+    /**
+     * Wraps the task so it runs with the context of the current scenario, on
+     * whatever thread (pool, fork-join or virtual) executes it.
+     *
+     * @param <T>  the type parameter
+     * @param task the task
+     * @return the callable
+     */
+    public static <T> Callable<T> wrap(Callable<T> task) {
+        Map<String, String> context = getContext();
+        return () -> {
+            Binding previous = binding.get();
+            binding.set(new Binding(null, null, null, context));
+            try {
+                return task.call();
+            } finally {
+                if (previous == null) {
+                    binding.remove();
+                } else {
+                    binding.set(previous);
+                }
+            }
+        };
+    }
+
+    /**
+     * Wraps the task so it runs with the context of the current scenario.
+     *
+     * @param task the task
+     * @return the runnable
+     */
+    public static Runnable wrap(Runnable task) {
+        Callable<Void> callable = wrap(() -> {
+            task.run();
+            return null;
+        });
+        return () -> {
+            try {
+                callable.call();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        };
+    }
+
+    /**
+     * Has context values boolean.
+     *
+     * @return the boolean
+     */
+    public static boolean hasContextValues() {
+        return !getContext().isEmpty();
+    }
+
+    /**
+     * Sets context.
+     *
+     * @param globalParams the global params
+     */
+    public static void setContext(Map<String, String> globalParams) {
+        putAll(getContext(), globalParams);
+    }
+
+    /**
+     * Sets context.
+     *
+     * @param key   the key
+     * @param value the value
+     */
+    public static void setContext(String key, String value) {
+        put(getContext(), key, value);
+    }
+
+    /**
+     * Gets printable context object.
+     *
+     * @return the printable context object
+     * @throws JSONException the json exception
+     */
+    public static Map<String, String> getPrintableContextObject() throws JSONException {
+        return printable(getContext());
+    }
+
+    /**
+     * Is contains boolean.
+     *
+     * @param key the key
+     * @return the boolean
+     */
+    public static Boolean isContains(String key) {
+        return getContext().containsKey(key);
+    }
 
     /**
      * Gets parent scenario context.
@@ -32,7 +218,8 @@ public class ScenarioContext {
      */
     public static void setParentScenarioContext(
         Map<String, Map<String, String>> parentScenarioContext) {
-        ScenarioContext.parentScenarioContext = parentScenarioContext;
+        ScenarioContext.parentScenarioContext.clear();
+        parentScenarioContext.forEach((id, context) -> setContext(id, context));
     }
 
     /**
@@ -63,11 +250,8 @@ public class ScenarioContext {
      * @param globalParams the global params
      */
     public static void setContext(String id, Map<String, String> globalParams) {
-        if(getScenarioContext(id) != null) {
-            getScenarioContext(id).putAll(globalParams);
-        }else {
-            parentScenarioContext.put(id, globalParams);
-        }
+        putAll(parentScenarioContext.computeIfAbsent(id, key -> new ConcurrentHashMap<>()),
+            globalParams);
     }
 
     /**
@@ -78,7 +262,7 @@ public class ScenarioContext {
      * @param value the value
      */
     public static void setContext(String id, String key, String value) {
-        getScenarioContext(id).put(key, value);
+        put(getScenarioContext(id), key, value);
     }
 
     /**
@@ -89,12 +273,7 @@ public class ScenarioContext {
      * @throws JSONException the json exception
      */
     public static Map<String, String> getPrintableContextObject(String id) throws JSONException {
-        Map<String, String> resultValues = getScenarioContext(id).entrySet().stream()
-            .collect(
-                Collectors.toMap( entry -> entry.getKey(),
-                    entry -> entry.getKey().contains("password") ? "xxxxxxxxxxxx" : entry.getValue()));
-
-        return resultValues;
+        return printable(getScenarioContext(id));
     }
 
 
@@ -106,7 +285,7 @@ public class ScenarioContext {
      * @return the context
      */
     public static Object getContext(String id, String key) {
-        return getScenarioContext(id).get(key.toString());
+        return getScenarioContext(id).get(key);
     }
 
     /**
@@ -121,7 +300,7 @@ public class ScenarioContext {
 
 
     /**
-     * Gets context.
+     * Removes the context.
      *
      * @param id the id
      * @return the context
@@ -130,6 +309,14 @@ public class ScenarioContext {
         return parentScenarioContext.remove(id);
     }
 
+    /**
+     * Removes all the contexts.
+     */
+    public static void clear() {
+        parentScenarioContext.clear();
+        binding.remove();
+    }
+
 
     /**
      * Is contains boolean.
@@ -142,4 +329,23 @@ public class ScenarioContext {
         return getScenarioContext(id).containsKey(key);
     }
 
-}
\ No newline at end of file
+    private static void put(Map<String, String> context, String key, String value) {
+        if (value == null) {
+            context.remove(key);
+        } else {
+            context.put(key, value);
+        }
+    }
+
+    private static void putAll(Map<String, String> context, Map<String, String> values) {
+        values.forEach((key, value) -> put(context, key, value));
+    }
+
+    private static Map<String, String> printable(Map<String, String> context) {
+        return context.entrySet().stream()
+            .collect(
+                Collectors.toMap( entry -> entry.getKey(),
+                    entry -> entry.getKey().contains("password") ? "xxxxxxxxxxxx" : entry.getValue()));
+    }
+
+}
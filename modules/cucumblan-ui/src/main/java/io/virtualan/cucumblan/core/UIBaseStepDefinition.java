@@ -27,6 +27,7 @@ import io.cucumber.java.Scenario;
 import io.cucumber.java.en.Given;
 import io.cucumber.java.en.Then;
 import io.virtualan.cucumblan.props.ApplicationConfiguration;
+import io.virtualan.cucumblan.props.util.MetricsRegistry;
 import io.virtualan.cucumblan.props.util.ScenarioContext;
 import io.virtualan.cucumblan.props.util.StepDefinitionHelper;
 import io.virtualan.cucumblan.props.util.UIHelper;
@@ -178,14 +179,18 @@ public class UIBaseStepDefinition {
       pageMap.forEach((k, v) -> {
         String elementValue = data.get(0).get(v.getName());
         if (elementValue != null && "DATA".equalsIgnoreCase(v.getType())|| "NAVIGATION".equalsIgnoreCase(v.getType()))  {
+          long start = System.nanoTime();
           try {
             actionProcessor(v.getName(), elementValue, v);
+            recordAction(pageName, v.getAction(), "success", start);
           } catch (InterruptedException e) {
+            recordAction(pageName, v.getAction(), "error", start);
             LOGGER.warning("Unable to process this page: " + pageName);
             Assertions.assertTrue(false,
                 pageName + " Page for resource " + resource + " (" + v.getName() + " : "
                     + elementValue + ":" + v + "): " + e.getMessage());
           } catch (Exception e) {
+            recordAction(pageName, v.getAction(), "error", start);
             LOGGER.warning("Unable to process this page: " + pageName);
             Assertions.assertTrue(false,
                 pageName + " Page for resource " + resource + " (" + v.getName() + " : "
@@ -203,6 +208,13 @@ public class UIBaseStepDefinition {
     }
   }
 
+  private void recordAction(String pageName, String action, String outcome, long start) {
+    MetricsRegistry.timer("cucumblan_ui_action_seconds", "UI action time",
+        "page", pageName, "action", action).record(System.nanoTime() - start);
+    MetricsRegistry.counter("cucumblan_ui_actions_total", "UI actions performed",
+        "page", pageName, "action", action, "outcome", outcome).increment();
+  }
+
   /**
    * Verify.
    *
@@ -0,0 +1,51 @@
+package io.virtualan.cucumblan.props.hook;
+
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventHandler;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.TestRunFinished;
+import io.cucumber.plugin.event.TestRunStarted;
+import io.virtualan.cucumblan.props.ApplicationConfiguration;
+import io.virtualan.cucumblan.props.util.MetricsRegistry;
+import java.io.IOException;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The type Ui feature scope.
+ * <p>
+ * Run hook of the ui module: clears the run metrics when the run starts and
+ * writes them to metrics-dir when it ends. It has its own name so it does not
+ * shadow the FeatureScope of the api, db and message modules on a shared
+ * classpath; register it as a cucumber plugin.
+ */
+@Slf4j
+public class UIFeatureScope implements ConcurrentEventListener {
+
+    @Override
+    public void setEventPublisher(EventPublisher eventPublisher) {
+        eventPublisher.registerHandlerFor(TestRunStarted.class, setup);
+        eventPublisher.registerHandlerFor(TestRunFinished.class, teardown);
+    }
+
+    private EventHandler<TestRunStarted> setup = event -> {
+        MetricsRegistry.clear();
+    };
+
+    private EventHandler<TestRunFinished> teardown = event -> {
+        exportMetrics();
+    };
+
+    private void exportMetrics() {
+        if (MetricsRegistry.isEmpty()) {
+            return;
+        }
+        String directory = ApplicationConfiguration.getProperty("metrics-dir") != null ?
+            ApplicationConfiguration.getProperty("metrics-dir") : "target";
+        try {
+            MetricsRegistry.export(directory);
+            log.info("run metrics written to " + directory);
+        } catch (IOException e) {
+            log.warn("Unable to write the run metrics to " + directory + " : " + e.getMessage());
+        }
+    }
+}
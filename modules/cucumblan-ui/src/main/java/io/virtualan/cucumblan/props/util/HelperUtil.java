@@ -1,10 +1,5 @@
 package io.virtualan.cucumblan.props.util;
 
-import io.virtualan.cucumblan.props.ApplicationConfiguration;
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.util.List;
 import lombok.extern.slf4j.Slf4j;
 import org.custommonkey.xmlunit.DetailedDiff;
@@ -15,39 +10,8 @@ import org.junit.jupiter.api.Assertions;
 public class HelperUtil {
 
 
-  private static  String convertStreamToString(InputStream is) throws IOException {
-    if (is != null) {
-      StringBuilder sb = new StringBuilder();
-      String line;
-
-      try {
-        BufferedReader reader = new BufferedReader(new InputStreamReader(is, "UTF-8"));
-        while ((line = reader.readLine()) != null) {
-          sb.append(line);
-        }
-      } finally {
-        is.close();
-      }
-      return sb.toString();
-    } else {
-      return null;
-    }
-  }
-
   public static String readFileAsString(String fileBody) {
-    String body = null;
-    InputStream stream = Thread.currentThread().getContextClassLoader()
-        .getResourceAsStream(fileBody);
-    if (stream == null) {
-      stream = ApplicationConfiguration.class.getClassLoader().getResourceAsStream(fileBody);
-    }
-    if (stream != null) {
-      try {
-        body = convertStreamToString(stream);
-      } catch (IOException e) {
-      }
-    }
-    return body;
+    return ResourceBodyCache.read(fileBody);
   }
 
 
@@ -0,0 +1,435 @@
+package io.virtualan.cucumblan.props.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.DoubleAccumulator;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The type Metrics registry.
+ * <p>
+ * Run-wide counters, timers and histograms of the http calls, messages, sql
+ * statements and ui actions, by name and labels. The hook writes them at the
+ * end of the run in the Prometheus text format and as json, so the runs can be
+ * compared without a metrics server. Every module ships the same class.
+ */
+public class MetricsRegistry {
+
+  /**
+   * The file name of the Prometheus text export.
+   */
+  public static final String PROMETHEUS_FILE = "cucumblan-metrics.prom";
+
+  /**
+   * The file name of the json export.
+   */
+  public static final String JSON_FILE = "cucumblan-metrics.json";
+
+  private static final double[] SECONDS_BUCKETS = {0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1,
+      2.5, 5, 10, 30, 60};
+  private static final double[] SIZE_BUCKETS = {100, 1000, 10000, 100000, 1000000, 10000000};
+
+  private static final Map<String, Family> families = new ConcurrentHashMap<>();
+
+  private MetricsRegistry() {
+  }
+
+  /**
+   * Gets the counter.
+   *
+   * @param name   the metric name
+   * @param help   the help text
+   * @param labels the label names and values
+   * @return the counter
+   */
+  public static Counter counter(String name, String help, String... labels) {
+    return (Counter) family(name, help, "counter", null).series(labels);
+  }
+
+  /**
+   * Gets the timer, a histogram of seconds.
+   *
+   * @param name   the metric name
+   * @param help   the help text
+   * @param labels the label names and values
+   * @return the timer
+   */
+  public static Timer timer(String name, String help, String... labels) {
+    return (Timer) family(name, help, "timer", SECONDS_BUCKETS).series(labels);
+  }
+
+  /**
+   * Gets the histogram of sizes (bytes, rows, records).
+   *
+   * @param name   the metric name
+   * @param help   the help text
+   * @param labels the label names and values
+   * @return the histogram
+   */
+  public static Histogram histogram(String name, String help, String... labels) {
+    return (Histogram) family(name, help, "histogram", SIZE_BUCKETS).series(labels);
+  }
+
+  /**
+   * Is empty boolean.
+   *
+   * @return true when nothing was recorded
+   */
+  public static boolean isEmpty() {
+    return families.isEmpty();
+  }
+
+  /**
+   * Clear the metrics of the run.
+   */
+  public static void clear() {
+    families.clear();
+  }
+
+  /**
+   * Write the metrics in the Prometheus text format and as json.
+   *
+   * @param directory the directory of the files
+   * @throws IOException the io exception
+   */
+  public static void export(String directory) throws IOException {
+    File dir = new File(directory);
+    dir.mkdirs();
+    Files.write(new File(dir, PROMETHEUS_FILE).toPath(),
+        toPrometheus().getBytes(StandardCharsets.UTF_8));
+    Files.write(new File(dir, JSON_FILE).toPath(), toJson().getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static Family family(String name, String help, String type, double[] buckets) {
+    Family family = families.computeIfAbsent(name, k -> new Family(name, help, type, buckets));
+    if (!family.type.equals(type)) {
+      throw new IllegalArgumentException(name + " is already a " + family.type);
+    }
+    return family;
+  }
+
+  /**
+   * To prometheus string.
+   *
+   * @return the metrics in the Prometheus text exposition format
+   */
+  public static String toPrometheus() {
+    StringBuilder text = new StringBuilder();
+    for (Family family : new TreeMap<>(families).values()) {
+      text.append("# HELP ").append(family.name).append(' ')
+          .append(family.help.replace("\\", "\\\\").replace("\n", "\\n")).append('\n');
+      text.append("# TYPE ").append(family.name).append(' ')
+          .append("counter".equals(family.type) ? "counter" : "histogram").append('\n');
+      for (Map.Entry<String, Series> entry : new TreeMap<>(family.series).entrySet()) {
+        String labels = entry.getKey();
+        Series series = entry.getValue();
+        if (series instanceof Counter) {
+          text.append(family.name).append(braces(labels)).append(' ')
+              .append(((Counter) series).getCount()).append('\n');
+          continue;
+        }
+        Histogram histogram = (Histogram) series;
+        long[] cumulative = histogram.cumulative();
+        String prefix = labels.isEmpty() ? "" : labels + ",";
+        for (int i = 0; i < cumulative.length; i++) {
+          String le = i < family.buckets.length ? format(family.buckets[i]) : "+Inf";
+          text.append(family.name).append("_bucket{").append(prefix).append("le=\"").append(le)
+              .append("\"} ").append(cumulative[i]).append('\n');
+        }
+        text.append(family.name).append("_sum").append(braces(labels)).append(' ')
+            .append(format(histogram.getSum())).append('\n');
+        text.append(family.name).append("_count").append(braces(labels)).append(' ')
+            .append(histogram.getCount()).append('\n');
+      }
+    }
+    return text.toString();
+  }
+
+  /**
+   * To json string.
+   *
+   * @return the metrics as json, with the percentiles estimated from the buckets
+   */
+  public static String toJson() {
+    StringBuilder json = new StringBuilder("{\n  \"timestamp\": ")
+        .append(System.currentTimeMillis()).append(",\n  \"metrics\": [");
+    String separator = "";
+    for (Family family : new TreeMap<>(families).values()) {
+      json.append(separator).append("\n    {\"name\": ").append(quote(family.name))
+          .append(", \"type\": ").append(quote(family.type))
+          .append(", \"help\": ").append(quote(family.help)).append(", \"series\": [");
+      separator = ",";
+      String seriesSeparator = "";
+      for (Series series : new TreeMap<>(family.series).values()) {
+        json.append(seriesSeparator).append("\n      {\"labels\": {");
+        seriesSeparator = ",";
+        String labelSeparator = "";
+        for (Map.Entry<String, String> label : series.labels.entrySet()) {
+          json.append(labelSeparator).append(quote(label.getKey())).append(": ")
+              .append(quote(label.getValue()));
+          labelSeparator = ", ";
+        }
+        json.append('}');
+        if (series instanceof Counter) {
+          json.append(", \"value\": ").append(((Counter) series).getCount()).append('}');
+          continue;
+        }
+        Histogram histogram = (Histogram) series;
+        json.append(", \"count\": ").append(histogram.getCount())
+            .append(", \"sum\": ").append(format(histogram.getSum()))
+            .append(", \"max\": ").append(format(histogram.getMax()))
+            .append(", \"mean\": ").append(format(histogram.getCount() == 0 ? 0
+                : histogram.getSum() / histogram.getCount()))
+            .append(", \"p50\": ").append(format(histogram.getPercentile(50)))
+            .append(", \"p95\": ").append(format(histogram.getPercentile(95)))
+            .append(", \"p99\": ").append(format(histogram.getPercentile(99)))
+            .append(", \"buckets\": {");
+        long[] cumulative = histogram.cumulative();
+        for (int i = 0; i < cumulative.length; i++) {
+          json.append(i == 0 ? "" : ", ")
+              .append(quote(i < family.buckets.length ? format(family.buckets[i]) : "+Inf"))
+              .append(": ").append(cumulative[i]);
+        }
+        json.append("}}");
+      }
+      json.append("]}");
+    }
+    return json.append("\n  ]\n}\n").toString();
+  }
+
+  private static String braces(String labels) {
+    return labels.isEmpty() ? "" : "{" + labels + "}";
+  }
+
+  private static String format(double value) {
+    return value == Math.rint(value) && Math.abs(value) < 1e15
+        ? String.valueOf((long) value) : String.valueOf(value);
+  }
+
+  private static String quote(String value) {
+    StringBuilder quoted = new StringBuilder("\"");
+    for (char c : String.valueOf(value).toCharArray()) {
+      if (c == '"' || c == '\\') {
+        quoted.append('\\').append(c);
+      } else if (c == '\n') {
+        quoted.append("\\n");
+      } else if (c < 0x20) {
+        quoted.append(String.format("\\u%04x", (int) c));
+      } else {
+        quoted.append(c);
+      }
+    }
+    return quoted.append('"').toString();
+  }
+
+  private static final class Family {
+
+    private final String name;
+    private final String help;
+    private final String type;
+    private final double[] buckets;
+    private final Map<String, Series> series = new ConcurrentHashMap<>();
+
+    private Family(String name, String help, String type, double[] buckets) {
+      this.name = name;
+      this.help = help;
+      this.type = type;
+      this.buckets = buckets;
+    }
+
+    private Series series(String... labels) {
+      if (labels.length % 2 != 0) {
+        throw new IllegalArgumentException(name + " labels are not name value pairs");
+      }
+      Map<String, String> values = new LinkedHashMap<>();
+      List<String> rendered = new ArrayList<>();
+      for (int i = 0; i < labels.length; i += 2) {
+        String value = String.valueOf(labels[i + 1]);
+        values.put(labels[i], value);
+        rendered.add(labels[i] + "=\"" + value.replace("\\", "\\\\").replace("\"", "\\\"")
+            .replace("\n", "\\n") + "\"");
+      }
+      return series.computeIfAbsent(String.join(",", rendered),
+          k -> "counter".equals(type) ? new Counter(values)
+              : "timer".equals(type) ? new Timer(values, buckets)
+                  : new Histogram(values, buckets));
+    }
+  }
+
+  private abstract static class Series {
+
+    private final Map<String, String> labels;
+
+    private Series(Map<String, String> labels) {
+      this.labels = labels;
+    }
+  }
+
+  /**
+   * The type Counter.
+   */
+  public static class Counter extends Series {
+
+    private final LongAdder count = new LongAdder();
+
+    private Counter(Map<String, String> labels) {
+      super(labels);
+    }
+
+    /**
+     * Increment.
+     */
+    public void increment() {
+      count.increment();
+    }
+
+    /**
+     * Increment.
+     *
+     * @param amount the amount
+     */
+    public void increment(long amount) {
+      count.add(amount);
+    }
+
+    /**
+     * Gets count.
+     *
+     * @return the count
+     */
+    public long getCount() {
+      return count.sum();
+    }
+  }
+
+  /**
+   * The type Histogram.
+   */
+  public static class Histogram extends Series {
+
+    private final double[] buckets;
+    private final LongAdder[] counts;
+    private final LongAdder count = new LongAdder();
+    private final DoubleAdder sum = new DoubleAdder();
+    private final DoubleAccumulator max = new DoubleAccumulator(Math::max, 0);
+
+    private Histogram(Map<String, String> labels, double[] buckets) {
+      super(labels);
+      this.buckets = buckets;
+      this.counts = new LongAdder[buckets.length + 1];
+      for (int i = 0; i < counts.length; i++) {
+        counts[i] = new LongAdder();
+      }
+    }
+
+    /**
+     * Observe the value.
+     *
+     * @param value the value
+     */
+    public void observe(double value) {
+      int bucket = 0;
+      while (bucket < buckets.length && value > buckets[bucket]) {
+        bucket++;
+      }
+      counts[bucket].increment();
+      count.increment();
+      sum.add(value);
+      max.accumulate(value);
+    }
+
+    /**
+     * Gets count.
+     *
+     * @return the count
+     */
+    public long getCount() {
+      return count.sum();
+    }
+
+    /**
+     * Gets sum.
+     *
+     * @return the sum
+     */
+    public double getSum() {
+      return sum.sum();
+    }
+
+    /**
+     * Gets max.
+     *
+     * @return the max
+     */
+    public double getMax() {
+      return max.get();
+    }
+
+    /**
+     * Gets the value at the percentile, interpolated in its bucket.
+     *
+     * @param percentile the percentile from 0 to 100
+     * @return the value, 0 when nothing was observed
+     */
+    public double getPercentile(double percentile) {
+      long[] cumulative = cumulative();
+      long total = cumulative[cumulative.length - 1];
+      if (total == 0) {
+        return 0;
+      }
+      double rank = percentile / 100 * total;
+      for (int i = 0; i < cumulative.length; i++) {
+        if (cumulative[i] >= rank) {
+          if (i == buckets.length) {
+            return getMax();
+          }
+          double lower = i == 0 ? 0 : buckets[i - 1];
+          long below = i == 0 ? 0 : cumulative[i - 1];
+          long inBucket = cumulative[i] - below;
+          double value = inBucket == 0 ? buckets[i]
+              : lower + (buckets[i] - lower) * (rank - below) / inBucket;
+          return Math.min(value, getMax());
+        }
+      }
+      return getMax();
+    }
+
+    private long[] cumulative() {
+      long[] cumulative = new long[counts.length];
+      long running = 0;
+      for (int i = 0; i < counts.length; i++) {
+        running += counts[i].sum();
+        cumulative[i] = running;
+      }
+      return cumulative;
+    }
+  }
+
+  /**
+   * The type Timer.
+   */
+  public static class Timer extends Histogram {
+
+    private Timer(Map<String, String> labels, double[] buckets) {
+      super(labels, buckets);
+    }
+
+    /**
+     * Record the duration.
+     *
+     * @param nanos the duration in nanoseconds
+     */
+    public void record(long nanos) {
+      observe(nanos / 1e9);
+    }
+  }
+}